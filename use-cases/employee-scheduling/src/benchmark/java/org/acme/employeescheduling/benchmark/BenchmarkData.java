@@ -0,0 +1,103 @@
+package org.acme.employeescheduling.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.acme.employeescheduling.domain.Availability;
+import org.acme.employeescheduling.domain.AvailabilityType;
+import org.acme.employeescheduling.domain.Employee;
+import org.acme.employeescheduling.domain.EmployeeSchedule;
+import org.acme.employeescheduling.domain.ScheduleState;
+import org.acme.employeescheduling.domain.Shift;
+
+final class BenchmarkData {
+
+    // 5 roles in 8 departments make 40 skills.
+    private static final String[] ROLES = { "Doctor", "Nurse", "Surgeon", "Anaesthetist", "Midwife" };
+    private static final String[] DEPARTMENTS = { "Cardiology", "Emergency", "Geriatrics", "Neurology", "Oncology",
+            "Orthopedics", "Pediatrics", "Radiology" };
+    private static final LocalTime[] SHIFT_START_TIMES = { LocalTime.of(6, 0), LocalTime.of(14, 0),
+            LocalTime.of(22, 0) };
+    private static final long SHIFT_HOURS = 8L;
+    // An employee works about 5 shifts a week.
+    private static final double SHIFTS_PER_EMPLOYEE_PER_DAY = 5.0 / 7.0;
+    private static final int AVAILABILITIES_PER_EMPLOYEE_PER_WEEK = 2;
+
+    static final LocalDate START_DATE = LocalDate.of(2024, 1, 1);
+
+    /**
+     * A hospital roster in which each employee has one role in one to three departments,
+     * and each shift requires a role in a department.
+     * Each shift is assigned to a random employee with the required skill, who mostly has no other shift that day.
+     */
+    static EmployeeSchedule generateRoster(int employeeCount, int dayCount, Random random) {
+        List<Employee> employees = new ArrayList<>(employeeCount);
+        Map<String, List<Employee>> skillToEmployees = new HashMap<>();
+        for (int i = 0; i < employeeCount; i++) {
+            String role = ROLES[random.nextInt(ROLES.length)];
+            Set<String> skills = new HashSet<>();
+            int departmentCount = 1 + random.nextInt(3);
+            while (skills.size() < departmentCount) {
+                skills.add(role + " " + DEPARTMENTS[random.nextInt(DEPARTMENTS.length)]);
+            }
+            Employee employee = new Employee("Employee " + i, skills);
+            employees.add(employee);
+            for (String skill : skills) {
+                skillToEmployees.computeIfAbsent(skill, skill_ -> new ArrayList<>()).add(employee);
+            }
+        }
+        List<String> skills = new ArrayList<>(skillToEmployees.keySet());
+        skills.sort(null);
+
+        int shiftsPerDay = (int) (employeeCount * SHIFTS_PER_EMPLOYEE_PER_DAY);
+        List<Shift> shifts = new ArrayList<>(shiftsPerDay * dayCount);
+        for (int day = 0; day < dayCount; day++) {
+            LocalDate date = START_DATE.plusDays(day);
+            Set<Employee> workingEmployees = new HashSet<>(employeeCount);
+            for (int i = 0; i < shiftsPerDay; i++) {
+                LocalDateTime start = date.atTime(SHIFT_START_TIMES[random.nextInt(SHIFT_START_TIMES.length)]);
+                String skill = skills.get(random.nextInt(skills.size()));
+                List<Employee> skilledEmployees = skillToEmployees.get(skill);
+                Employee employee = skilledEmployees.get(random.nextInt(skilledEmployees.size()));
+                // Mostly one shift per employee per day, like a roster that is being solved.
+                for (int attempt = 0; attempt < 10 && !workingEmployees.add(employee); attempt++) {
+                    employee = skilledEmployees.get(random.nextInt(skilledEmployees.size()));
+                }
+                shifts.add(new Shift(Integer.toString(shifts.size()), start, start.plusHours(SHIFT_HOURS),
+                        "Department " + skill.substring(skill.indexOf(' ') + 1), skill, employee));
+            }
+        }
+
+        AvailabilityType[] availabilityTypes = AvailabilityType.values();
+        int availabilityCount = employeeCount * AVAILABILITIES_PER_EMPLOYEE_PER_WEEK * dayCount / 7;
+        List<Availability> availabilities = new ArrayList<>(availabilityCount);
+        Set<String> employeeDates = new HashSet<>(availabilityCount);
+        while (availabilities.size() < availabilityCount) {
+            Employee employee = employees.get(random.nextInt(employeeCount));
+            LocalDate date = START_DATE.plusDays(random.nextInt(dayCount));
+            if (employeeDates.add(employee.getName() + date)) {
+                availabilities.add(new Availability(Integer.toString(availabilities.size()), employee, date,
+                        availabilityTypes[random.nextInt(availabilityTypes.length)]));
+            }
+        }
+
+        ScheduleState scheduleState = new ScheduleState();
+        scheduleState.setTenantId("benchmark");
+        scheduleState.setLastHistoricDate(START_DATE.minusDays(1));
+        scheduleState.setFirstDraftDate(START_DATE);
+        scheduleState.setPublishLength(7);
+        scheduleState.setDraftLength(dayCount);
+        return new EmployeeSchedule(scheduleState, availabilities, employees, shifts);
+    }
+
+    private BenchmarkData() {
+    }
+}
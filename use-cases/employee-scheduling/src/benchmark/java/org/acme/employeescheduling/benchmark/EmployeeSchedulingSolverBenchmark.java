@@ -0,0 +1,41 @@
+package org.acme.employeescheduling.benchmark;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Random;
+
+import ai.timefold.solver.benchmark.api.PlannerBenchmark;
+import ai.timefold.solver.benchmark.api.PlannerBenchmarkFactory;
+
+import org.acme.employeescheduling.domain.EmployeeSchedule;
+
+/**
+ * Runs the solver configurations of {@code employeeSchedulingBenchmarkConfig.xml}
+ * on hospital rosters of 500 up to 2 000 employees over 14 days.
+ * The HTML report, with the best score over time, the score calculation speed
+ * and the selected and accepted moves per step, is written to {@code target/benchmarks}.
+ * <p>
+ * The arguments override the employee counts, for example {@code 500} for a quicker run.
+ */
+public final class EmployeeSchedulingSolverBenchmark {
+
+    private static final String BENCHMARK_CONFIG =
+            "org/acme/employeescheduling/benchmark/employeeSchedulingBenchmarkConfig.xml";
+    private static final int[] DEFAULT_EMPLOYEE_COUNTS = { 500, 2_000 };
+    private static final int DAY_COUNT = 14;
+
+    public static void main(String[] args) {
+        int[] employeeCounts = args.length == 0 ? DEFAULT_EMPLOYEE_COUNTS
+                : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        EmployeeSchedule[] problems = Arrays.stream(employeeCounts)
+                .mapToObj(employeeCount -> BenchmarkData.generateRoster(employeeCount, DAY_COUNT, new Random(0)))
+                .toArray(EmployeeSchedule[]::new);
+        PlannerBenchmark benchmark = PlannerBenchmarkFactory.createFromXmlResource(BENCHMARK_CONFIG)
+                .buildPlannerBenchmark(problems);
+        File benchmarkDirectory = benchmark.benchmark();
+        System.out.printf("The benchmark report is in %s.%n", benchmarkDirectory.getAbsolutePath());
+    }
+
+    private EmployeeSchedulingSolverBenchmark() {
+    }
+}
@@ -0,0 +1,29 @@
+package org.acme.employeescheduling.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * Runs the JMH microbenchmarks like {@link Main}, with the allocation rates of the {@code gc} profiler
+ * and the results written to {@code target/jmh-result.json}, so they can be compared between commits.
+ * Passing another {@code -prof} or {@code -rff} option replaces those defaults.
+ */
+public final class MicrobenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-prof")) {
+            options.addAll(0, List.of("-prof", "gc"));
+        }
+        if (!options.contains("-rff")) {
+            options.addAll(0, List.of("-rf", "json", "-rff", "target/jmh-result.json"));
+        }
+        Main.main(options.toArray(String[]::new));
+    }
+
+    private MicrobenchmarkMain() {
+    }
+}
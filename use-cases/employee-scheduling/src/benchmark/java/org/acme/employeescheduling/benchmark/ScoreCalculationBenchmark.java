@@ -0,0 +1,136 @@
+package org.acme.employeescheduling.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.impl.score.director.InnerScoreDirector;
+import ai.timefold.solver.core.impl.solver.DefaultSolverFactory;
+
+import org.acme.employeescheduling.domain.Employee;
+import org.acme.employeescheduling.domain.EmployeeSchedule;
+import org.acme.employeescheduling.domain.Shift;
+import org.acme.employeescheduling.solver.EmployeeSchedulingConstraintProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Score calculations per second of the {@link EmployeeSchedulingConstraintProvider} on a hospital roster,
+ * with the incremental score director the solver uses.
+ * <p>
+ * Each operation does a change move like the solver's: it assigns a random shift to a random employee
+ * with the required skill.
+ * Without {@link #indexSkills}, the required skill is looked up in the skills of the employee
+ * instead of checked against the skill mask.
+ * <p>
+ * A full score calculation builds the indexes of the constraints from scratch,
+ * so its allocation per operation is about the memory those indexes take.
+ * <p>
+ * The longer the {@link #dayCount horizon}, the more shifts each employee has.
+ * A constraint that pairs up the shifts of an employee costs more per move as the horizon grows,
+ * one that only looks at the shifts before and after it costs the same.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ScoreCalculationBenchmark {
+
+    private static final String EMPLOYEE = "employee";
+    private static final int MOVE_COUNT = 1 << 12;
+
+    @Param({ "2000" })
+    int employeeCount;
+
+    // From 2 weeks to 3 months, with about 10 to 65 shifts per employee.
+    @Param({ "14", "28", "91" })
+    int dayCount;
+
+    @Param({ "false", "true" })
+    boolean indexSkills;
+
+    private DefaultSolverFactory<EmployeeSchedule> solverFactory;
+    private EmployeeSchedule schedule;
+    private InnerScoreDirector<EmployeeSchedule, HardSoftScore> scoreDirector;
+    private List<Shift> shifts;
+    private int[] randomNumbers;
+    private int move = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(0);
+        schedule = BenchmarkData.generateRoster(employeeCount, dayCount, random);
+        shifts = schedule.getShifts();
+        if (!indexSkills) {
+            schedule.getEmployees().forEach(employee -> employee.setSkillMask(0L));
+            shifts.forEach(shift -> shift.setRequiredSkillBit(0L));
+        }
+
+        SolverConfig solverConfig = new SolverConfig()
+                .withSolutionClass(EmployeeSchedule.class)
+                .withEntityClasses(Shift.class)
+                .withConstraintProviderClass(EmployeeSchedulingConstraintProvider.class);
+        solverFactory = (DefaultSolverFactory<EmployeeSchedule>) SolverFactory.<EmployeeSchedule> create(solverConfig);
+        scoreDirector = solverFactory.<HardSoftScore> getScoreDirectorFactory().buildScoreDirector(false, false);
+        scoreDirector.setWorkingSolution(schedule);
+        System.out.printf("%n%d shifts, initial score: %s%n", shifts.size(), scoreDirector.calculateScore());
+
+        randomNumbers = new int[MOVE_COUNT];
+        for (int i = 0; i < MOVE_COUNT; i++) {
+            randomNumbers[i] = random.nextInt(Integer.MAX_VALUE);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scoreDirector.close();
+    }
+
+    private int nextRandom(int bound) {
+        return randomNumbers[move++ & (MOVE_COUNT - 1)] % bound;
+    }
+
+    /**
+     * Assigns a shift to another employee.
+     */
+    @Benchmark
+    public HardSoftScore changeMove() {
+        Shift shift = shifts.get(nextRandom(shifts.size()));
+        List<Employee> skilledEmployees = shift.getSkilledEmployees();
+        Employee employee = skilledEmployees.get(nextRandom(skilledEmployees.size()));
+        scoreDirector.beforeVariableChanged(shift, EMPLOYEE);
+        shift.setEmployee(employee);
+        scoreDirector.afterVariableChanged(shift, EMPLOYEE);
+        return scoreDirector.calculateScore();
+    }
+
+    /**
+     * Calculates the score of the whole roster with a new score director, like the solver does when it starts.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public HardSoftScore fullScoreCalculation() {
+        try (InnerScoreDirector<EmployeeSchedule, HardSoftScore> fullScoreDirector =
+                solverFactory.<HardSoftScore> getScoreDirectorFactory().buildScoreDirector(false, false)) {
+            fullScoreDirector.setWorkingSolution(schedule);
+            return fullScoreDirector.calculateScore();
+        }
+    }
+}
@@ -1,16 +1,28 @@
 package org.acme.employeescheduling.domain;
 
+import java.time.LocalDate;
 import java.util.Objects;
 import java.util.Set;
 
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class Employee {
+    private static final AvailabilityType[] AVAILABILITY_TYPES = AvailabilityType.values();
+
     @PlanningId
     private String name;
 
     private Set<String> skills;
 
+    @JsonIgnore
+    private long skillMask;
+
+    // The availability type of each day from the first epoch day on, as its ordinal + 1, or 0 for none.
+    private long availabilityFirstEpochDay;
+    private byte[] availabilityTypeOrdinals;
+
     public Employee() {
 
     }
@@ -36,6 +48,67 @@ public class Employee {
         this.skills = skills;
     }
 
+    /**
+     * @return a bit per skill of {@link #getSkills()}, as numbered by {@link EmployeeSchedule#indexSkills()}
+     */
+    public long getSkillMask() {
+        return skillMask;
+    }
+
+    public void setSkillMask(long skillMask) {
+        this.skillMask = skillMask;
+    }
+
+    /**
+     * @param shift never null
+     * @return true if this employee has the {@link Shift#getRequiredSkill() required skill} of the shift
+     */
+    public boolean hasRequiredSkill(Shift shift) {
+        long requiredSkillBit = shift.getRequiredSkillBit();
+        if (requiredSkillBit != 0L) {
+            return (skillMask & requiredSkillBit) != 0L;
+        }
+        // Not numbered, for example a shift that was not part of a schedule.
+        return skills.contains(shift.getRequiredSkill());
+    }
+
+    /**
+     * @param date never null
+     * @return null if this employee has no availability on that date,
+     *         as indexed by {@link EmployeeSchedule#indexAvailabilities()}
+     */
+    public AvailabilityType getAvailabilityType(LocalDate date) {
+        return getAvailabilityType(date.toEpochDay());
+    }
+
+    /**
+     * As {@link #getAvailabilityType(LocalDate)}, without creating a date.
+     *
+     * @param epochDay the {@link LocalDate#toEpochDay() epoch day} of the date
+     * @return null if this employee has no availability on that date
+     */
+    public AvailabilityType getAvailabilityType(long epochDay) {
+        if (availabilityTypeOrdinals == null) {
+            return null;
+        }
+        long index = epochDay - availabilityFirstEpochDay;
+        if (index < 0L || index >= availabilityTypeOrdinals.length) {
+            return null;
+        }
+        int ordinal = availabilityTypeOrdinals[(int) index] - 1;
+        return ordinal < 0 ? null : AVAILABILITY_TYPES[ordinal];
+    }
+
+    /**
+     * @param firstEpochDay the epoch day of the first element of the ordinals
+     * @param ordinals null if this employee has no availabilities,
+     *        otherwise the {@link AvailabilityType#ordinal()} + 1 of each day, or 0 for none
+     */
+    public void setAvailabilityTypeOrdinals(long firstEpochDay, byte[] ordinals) {
+        this.availabilityFirstEpochDay = firstEpochDay;
+        this.availabilityTypeOrdinals = ordinals;
+    }
+
     @Override
     public String toString() {
         return name;
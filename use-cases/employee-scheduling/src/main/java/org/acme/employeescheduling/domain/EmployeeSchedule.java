@@ -1,22 +1,26 @@
 package org.acme.employeescheduling.domain;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import ai.timefold.solver.core.api.domain.solution.PlanningEntityCollectionProperty;
 import ai.timefold.solver.core.api.domain.solution.PlanningScore;
 import ai.timefold.solver.core.api.domain.solution.PlanningSolution;
 import ai.timefold.solver.core.api.domain.solution.ProblemFactCollectionProperty;
-import ai.timefold.solver.core.api.domain.valuerange.ValueRangeProvider;
 import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
 import ai.timefold.solver.core.api.solver.SolverStatus;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 @PlanningSolution
 public class EmployeeSchedule {
     @ProblemFactCollectionProperty
     private List<Availability> availabilities;
 
     @ProblemFactCollectionProperty
-    @ValueRangeProvider
     private List<Employee> employees;
 
     @PlanningEntityCollectionProperty
@@ -32,11 +36,17 @@ public class EmployeeSchedule {
     // No-arg constructor required for Timefold
     public EmployeeSchedule() {}
 
-    public EmployeeSchedule(ScheduleState scheduleState, List<Availability> availabilities, List<Employee> employees, List<Shift> shifts) {
+    @JsonCreator
+    public EmployeeSchedule(@JsonProperty("scheduleState") ScheduleState scheduleState,
+            @JsonProperty("availabilities") List<Availability> availabilities,
+            @JsonProperty("employees") List<Employee> employees,
+            @JsonProperty("shifts") List<Shift> shifts) {
         this.scheduleState = scheduleState;
         this.availabilities = availabilities;
         this.employees = employees;
         this.shifts = shifts;
+        indexSkills();
+        indexAvailabilities();
     }
 
     public EmployeeSchedule(HardSoftScore score, SolverStatus solverStatus) {
@@ -44,6 +54,101 @@ public class EmployeeSchedule {
         this.solverStatus = solverStatus;
     }
 
+    /**
+     * Numbers the skills of this schedule, so that checking whether an employee has the required skill of a shift
+     * is a bitwise AND of {@link Employee#getSkillMask()} and {@link Shift#getRequiredSkillBit()}
+     * instead of a lookup of a string in a set.
+     * It also gives each shift the {@link Shift#getSkilledEmployees() employees that have its required skill},
+     * so the solver does not try to assign a shift to an employee without that skill.
+     * Call it again after adding employees or shifts.
+     * <p>
+     * A schedule with more than 64 distinct skills keeps the lookups in the sets.
+     * A shift with a skill that no employee has can be assigned to any employee.
+     */
+    public void indexSkills() {
+        if (employees == null || shifts == null) {
+            return;
+        }
+        Map<String, Long> skillToBit = new HashMap<>();
+        // Shared by all shifts that require the same skill.
+        Map<String, List<Employee>> skillToEmployees = new HashMap<>();
+        for (Employee employee : employees) {
+            for (String skill : employee.getSkills()) {
+                skillToBit.putIfAbsent(skill, 1L << skillToBit.size());
+                skillToEmployees.computeIfAbsent(skill, skill_ -> new ArrayList<>()).add(employee);
+            }
+        }
+        for (Shift shift : shifts) {
+            skillToBit.putIfAbsent(shift.getRequiredSkill(), 1L << skillToBit.size());
+        }
+        if (skillToBit.size() > Long.SIZE) {
+            skillToBit.clear();
+        }
+        for (Employee employee : employees) {
+            employee.setSkillMask(getSkillMask(employee, skillToBit));
+        }
+        for (Shift shift : shifts) {
+            shift.setRequiredSkillBit(skillToBit.getOrDefault(shift.getRequiredSkill(), 0L));
+            shift.setSkilledEmployees(skillToEmployees.getOrDefault(shift.getRequiredSkill(), employees));
+            // The employee of a shift read from JSON is a copy of the one in the employees.
+            Employee employee = shift.getEmployee();
+            if (employee != null) {
+                employee.setSkillMask(getSkillMask(employee, skillToBit));
+            }
+        }
+    }
+
+    private static long getSkillMask(Employee employee, Map<String, Long> skillToBit) {
+        long skillMask = 0L;
+        for (String skill : employee.getSkills()) {
+            skillMask |= skillToBit.getOrDefault(skill, 0L);
+        }
+        return skillMask;
+    }
+
+    /**
+     * Gives each employee the {@link Employee#getAvailabilityType type of its availability} per day,
+     * in an array over the days on which the shifts of this schedule start,
+     * so the constraints look it up instead of joining the shifts with the availabilities.
+     * Availabilities outside of those days are left out, since no shift can match them.
+     * Call it again after adding employees, shifts or availabilities.
+     * <p>
+     * An employee has at most one availability per day: of several, the last one counts.
+     */
+    public void indexAvailabilities() {
+        if (employees == null || shifts == null || availabilities == null) {
+            return;
+        }
+        long firstEpochDay = Long.MAX_VALUE;
+        long lastEpochDay = Long.MIN_VALUE;
+        for (Shift shift : shifts) {
+            long epochDay = shift.getStart().toLocalDate().toEpochDay();
+            firstEpochDay = Math.min(firstEpochDay, epochDay);
+            lastEpochDay = Math.max(lastEpochDay, epochDay);
+        }
+        int dayCount = (int) (lastEpochDay - firstEpochDay + 1);
+        // By equality, because the employee of an availability read from JSON is a copy of the one in the employees.
+        Map<Employee, byte[]> employeeToOrdinals = new HashMap<>();
+        for (Availability availability : availabilities) {
+            long epochDay = availability.getDate().toEpochDay();
+            if (epochDay < firstEpochDay || epochDay > lastEpochDay) {
+                continue;
+            }
+            byte[] ordinals = employeeToOrdinals.computeIfAbsent(availability.getEmployee(),
+                    employee -> new byte[dayCount]);
+            ordinals[(int) (epochDay - firstEpochDay)] = (byte) (availability.getAvailabilityType().ordinal() + 1);
+        }
+        for (Employee employee : employees) {
+            employee.setAvailabilityTypeOrdinals(firstEpochDay, employeeToOrdinals.get(employee));
+        }
+        for (Shift shift : shifts) {
+            Employee employee = shift.getEmployee();
+            if (employee != null) {
+                employee.setAvailabilityTypeOrdinals(firstEpochDay, employeeToOrdinals.get(employee));
+            }
+        }
+    }
+
     public ScheduleState getScheduleState() {
         return scheduleState;
     }
@@ -1,12 +1,17 @@
 package org.acme.employeescheduling.domain;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
 import java.util.Objects;
 
 import ai.timefold.solver.core.api.domain.entity.PlanningEntity;
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
+import ai.timefold.solver.core.api.domain.valuerange.ValueRangeProvider;
 import ai.timefold.solver.core.api.domain.variable.PlanningVariable;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 @PlanningEntity(pinningFilter = ShiftPinningFilter.class)
 public class Shift {
     @PlanningId
@@ -14,9 +19,18 @@ public class Shift {
 
     private LocalDateTime start;
     private LocalDateTime end;
+    @JsonIgnore
+    private long startEpochMinute;
+    @JsonIgnore
+    private long endEpochMinute;
 
     private String location;
     private String requiredSkill;
+    @JsonIgnore
+    private long requiredSkillBit;
+
+    @JsonIgnore
+    private List<Employee> skilledEmployees;
 
     @PlanningVariable
     private Employee employee;
@@ -34,8 +48,8 @@ public class Shift {
 
     public Shift(String id, LocalDateTime start, LocalDateTime end, String location, String requiredSkill, Employee employee) {
         this.id = id;
-        this.start = start;
-        this.end = end;
+        setStart(start);
+        setEnd(end);
         this.location = location;
         this.requiredSkill = requiredSkill;
         this.employee = employee;
@@ -55,6 +69,7 @@ public class Shift {
 
     public void setStart(LocalDateTime start) {
         this.start = start;
+        this.startEpochMinute = toEpochMinute(start);
     }
 
     public LocalDateTime getEnd() {
@@ -63,6 +78,26 @@ public class Shift {
 
     public void setEnd(LocalDateTime end) {
         this.end = end;
+        this.endEpochMinute = toEpochMinute(end);
+    }
+
+    private static long toEpochMinute(LocalDateTime dateTime) {
+        return dateTime == null ? 0L : Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * @return {@link #getStart()} in minutes since 1970-01-01T00:00, calculated when the start is set,
+     *         so that the constraints do their arithmetic on a number
+     */
+    public long getStartEpochMinute() {
+        return startEpochMinute;
+    }
+
+    /**
+     * @return {@link #getEnd()} in minutes since 1970-01-01T00:00
+     */
+    public long getEndEpochMinute() {
+        return endEpochMinute;
     }
 
     public String getLocation() {
@@ -79,6 +114,32 @@ public class Shift {
 
     public void setRequiredSkill(String requiredSkill) {
         this.requiredSkill = requiredSkill;
+        this.requiredSkillBit = 0L;
+    }
+
+    /**
+     * @return the bit of {@link #getRequiredSkill()} in {@link Employee#getSkillMask()},
+     *         or 0 if {@link EmployeeSchedule#indexSkills()} has not numbered it
+     */
+    public long getRequiredSkillBit() {
+        return requiredSkillBit;
+    }
+
+    public void setRequiredSkillBit(long requiredSkillBit) {
+        this.requiredSkillBit = requiredSkillBit;
+    }
+
+    /**
+     * @return the employees that have {@link #getRequiredSkill()}, the same list for all shifts with that skill,
+     *         set by {@link EmployeeSchedule#indexSkills()}
+     */
+    @ValueRangeProvider
+    public List<Employee> getSkilledEmployees() {
+        return skilledEmployees;
+    }
+
+    public void setSkilledEmployees(List<Employee> skilledEmployees) {
+        this.skilledEmployees = skilledEmployees;
     }
 
     public Employee getEmployee() {
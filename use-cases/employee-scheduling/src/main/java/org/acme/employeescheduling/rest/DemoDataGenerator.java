@@ -104,6 +104,8 @@ public class DemoDataGenerator {
         shifts.forEach(s -> s.setId(Integer.toString(countShift.getAndIncrement())));
         employeeSchedule.setAvailabilities(availabilities);
         employeeSchedule.setShifts(shifts);
+        employeeSchedule.indexSkills();
+        employeeSchedule.indexAvailabilities();
 
         return employeeSchedule;
     }
@@ -172,6 +174,8 @@ public class DemoDataGenerator {
         schedule.getAvailabilities().addAll(availabilities);
         shifts.forEach(s -> s.setId(Integer.toString(countShift.incrementAndGet())));
         schedule.getShifts().addAll(shifts);
+        schedule.indexSkills();
+        schedule.indexAvailabilities();
     }
 
     private <T> T pickRandom(T[] source, Random random) {
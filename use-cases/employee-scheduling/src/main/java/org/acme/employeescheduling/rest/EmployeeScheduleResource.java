@@ -3,9 +3,8 @@ package org.acme.employeescheduling.rest;
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
+import jakarta.annotation.PreDestroy;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
@@ -26,6 +25,9 @@ import org.acme.employeescheduling.domain.EmployeeSchedule;
 import org.acme.employeescheduling.domain.ScheduleState;
 import org.acme.employeescheduling.rest.exception.EmployeeScheduleSolverException;
 import org.acme.employeescheduling.rest.exception.ErrorInfo;
+import org.acme.employeescheduling.rest.jobstore.EvictingJobStore;
+import org.acme.employeescheduling.rest.jobstore.JobStore;
+import org.acme.employeescheduling.rest.jobstore.JobStoreConfig;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
@@ -37,6 +39,8 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 @Tag(name = "Employee Schedules", description = "Employee Schedules service for assigning employees to shifts.")
 @Path("schedules")
 public class EmployeeScheduleResource {
@@ -50,15 +54,27 @@ public class EmployeeScheduleResource {
     SolverManager<EmployeeSchedule, String> solverManager;
     SolutionManager<EmployeeSchedule, HardSoftScore> solutionManager;
 
-    // TODO: Without any "time to live", the map may eventually grow out of memory.
-    private final ConcurrentMap<String, Job> jobIdToJob = new ConcurrentHashMap<>();
+    private final JobStore<Job> jobIdToJob;
 
     @Inject
     public EmployeeScheduleResource(SolverManager<EmployeeSchedule, String> solverManager,
-            SolutionManager<EmployeeSchedule, HardSoftScore> solutionManager, DemoDataGenerator dataGenerator) {
+            SolutionManager<EmployeeSchedule, HardSoftScore> solutionManager, DemoDataGenerator dataGenerator,
+            JobStoreConfig jobStoreConfig, ObjectMapper objectMapper) {
         this.solverManager = solverManager;
         this.solutionManager = solutionManager;
         this.dataGenerator = dataGenerator;
+        this.jobIdToJob = new EvictingJobStore<>(jobStoreConfig.maxInMemoryJobCount(), jobStoreConfig.timeToLive(),
+                jobStoreConfig.spillDirectoryOrDefault(), objectMapper, EmployeeSchedule.class, Job::schedule,
+                Job::ofSchedule, jobId -> solverManager.getSolverStatus(jobId) != SolverStatus.NOT_SOLVING,
+                "employee-schedules");
+    }
+
+    @PreDestroy
+    void closeJobStore() {
+        // Deletes the spilled jobs, which a restarted server no longer knows about.
+        if (jobIdToJob != null) {
+            jobIdToJob.close();
+        }
     }
 
     @Operation(summary = "List the job IDs of all submitted schedules.")
@@ -69,7 +85,7 @@ public class EmployeeScheduleResource {
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public Collection<String> list() {
-        return jobIdToJob.keySet();
+        return jobIdToJob.getJobIds();
     }
 
     @Operation(summary = "Submit a schedule to start solving as soon as CPU resources are available.")
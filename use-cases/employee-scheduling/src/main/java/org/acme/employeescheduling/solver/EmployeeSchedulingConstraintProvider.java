@@ -1,34 +1,37 @@
 package org.acme.employeescheduling.solver;
 
-import java.time.Duration;
-import java.time.LocalDateTime;
-
 import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
 import ai.timefold.solver.core.api.score.stream.Constraint;
+import ai.timefold.solver.core.api.score.stream.ConstraintCollectors;
 import ai.timefold.solver.core.api.score.stream.ConstraintFactory;
 import ai.timefold.solver.core.api.score.stream.ConstraintProvider;
 import ai.timefold.solver.core.api.score.stream.Joiners;
 
-import org.acme.employeescheduling.domain.Availability;
 import org.acme.employeescheduling.domain.AvailabilityType;
 import org.acme.employeescheduling.domain.Shift;
 
 public class EmployeeSchedulingConstraintProvider implements ConstraintProvider {
 
+    private static final long MINUTES_PER_DAY = 24 * 60;
+
     private static int getMinuteOverlap(Shift shift1, Shift shift2) {
         // The overlap of two timeslot occurs in the range common to both timeslots.
         // Both timeslots are active after the higher of their two start times,
         // and before the lower of their two end times.
-        LocalDateTime shift1Start = shift1.getStart();
-        LocalDateTime shift1End = shift1.getEnd();
-        LocalDateTime shift2Start = shift2.getStart();
-        LocalDateTime shift2End = shift2.getEnd();
-        return (int) Duration.between((shift1Start.compareTo(shift2Start) > 0) ? shift1Start : shift2Start,
-                (shift1End.compareTo(shift2End) < 0) ? shift1End : shift2End).toMinutes();
+        return (int) (Math.min(shift1.getEndEpochMinute(), shift2.getEndEpochMinute())
+                - Math.max(shift1.getStartEpochMinute(), shift2.getStartEpochMinute()));
     }
 
     private static int getShiftDurationInMinutes(Shift shift) {
-        return (int) Duration.between(shift.getStart(), shift.getEnd()).toMinutes();
+        return (int) (shift.getEndEpochMinute() - shift.getStartEpochMinute());
+    }
+
+    private static long getStartEpochDay(Shift shift) {
+        return Math.floorDiv(shift.getStartEpochMinute(), MINUTES_PER_DAY);
+    }
+
+    private static AvailabilityType getAvailabilityType(Shift shift) {
+        return shift.getEmployee().getAvailabilityType(getStartEpochDay(shift));
     }
 
     @Override
@@ -46,66 +49,61 @@ public class EmployeeSchedulingConstraintProvider implements ConstraintProvider
 
     Constraint requiredSkill(ConstraintFactory constraintFactory) {
         return constraintFactory.forEach(Shift.class)
-                .filter(shift -> !shift.getEmployee().getSkills().contains(shift.getRequiredSkill()))
+                .filter(shift -> !shift.getEmployee().hasRequiredSkill(shift))
                 .penalize(HardSoftScore.ONE_HARD)
                 .asConstraint("Missing required skill");
     }
 
     Constraint noOverlappingShifts(ConstraintFactory constraintFactory) {
         return constraintFactory.forEachUniquePair(Shift.class, Joiners.equal(Shift::getEmployee),
-                        Joiners.overlapping(Shift::getStart, Shift::getEnd))
+                        Joiners.overlapping(Shift::getStartEpochMinute, Shift::getEndEpochMinute))
                 .penalize(HardSoftScore.ONE_HARD,
                         EmployeeSchedulingConstraintProvider::getMinuteOverlap)
                 .asConstraint("Overlapping shift");
     }
 
     Constraint atLeast10HoursBetweenTwoShifts(ConstraintFactory constraintFactory) {
-        return constraintFactory.forEachUniquePair(Shift.class,
-                        Joiners.equal(Shift::getEmployee),
-                        Joiners.lessThanOrEqual(Shift::getEnd, Shift::getStart))
-                .filter((firstShift, secondShift) -> Duration.between(firstShift.getEnd(), secondShift.getStart()).toHours() < 10)
+        // Penalizes each pair of shifts of an employee with too little rest in between, without pairing them up.
+        return constraintFactory.forEach(Shift.class)
+                .groupBy(Shift::getEmployee, EmployeeShiftSequence.toRestPenalty())
+                .filter((employee, restPenalty) -> restPenalty > 0)
                 .penalize(HardSoftScore.ONE_HARD,
-                        (firstShift, secondShift) -> {
-                            int breakLength = (int) Duration.between(firstShift.getEnd(), secondShift.getStart()).toMinutes();
-                            return (10 * 60) - breakLength;
-                        })
+                        (employee, restPenalty) -> restPenalty)
                 .asConstraint("At least 10 hours between 2 shifts");
     }
 
     Constraint oneShiftPerDay(ConstraintFactory constraintFactory) {
-        return constraintFactory.forEachUniquePair(Shift.class, Joiners.equal(Shift::getEmployee),
-                        Joiners.equal(shift -> shift.getStart().toLocalDate()))
-                .penalize(HardSoftScore.ONE_HARD)
+        // Penalizes each pair of shifts of an employee on the same day.
+        return constraintFactory.forEach(Shift.class)
+                .groupBy(Shift::getEmployee, EmployeeSchedulingConstraintProvider::getStartEpochDay,
+                        ConstraintCollectors.count())
+                .filter((employee, epochDay, shiftCount) -> shiftCount > 1)
+                .penalize(HardSoftScore.ONE_HARD,
+                        (employee, epochDay, shiftCount) -> shiftCount * (shiftCount - 1) / 2)
                 .asConstraint("Max one shift per day");
     }
 
     Constraint unavailableEmployee(ConstraintFactory constraintFactory) {
         return constraintFactory.forEach(Shift.class)
-                .join(Availability.class, Joiners.equal((Shift shift) -> shift.getStart().toLocalDate(), Availability::getDate),
-                        Joiners.equal(Shift::getEmployee, Availability::getEmployee))
-                .filter((shift, availability) -> availability.getAvailabilityType() == AvailabilityType.UNAVAILABLE)
+                .filter(shift -> getAvailabilityType(shift) == AvailabilityType.UNAVAILABLE)
                 .penalize(HardSoftScore.ONE_HARD,
-                        (shift, availability) -> getShiftDurationInMinutes(shift))
+                        EmployeeSchedulingConstraintProvider::getShiftDurationInMinutes)
                 .asConstraint("Unavailable employee");
     }
 
     Constraint desiredDayForEmployee(ConstraintFactory constraintFactory) {
         return constraintFactory.forEach(Shift.class)
-                .join(Availability.class, Joiners.equal((Shift shift) -> shift.getStart().toLocalDate(), Availability::getDate),
-                        Joiners.equal(Shift::getEmployee, Availability::getEmployee))
-                .filter((shift, availability) -> availability.getAvailabilityType() == AvailabilityType.DESIRED)
+                .filter(shift -> getAvailabilityType(shift) == AvailabilityType.DESIRED)
                 .reward(HardSoftScore.ONE_SOFT,
-                        (shift, availability) -> getShiftDurationInMinutes(shift))
+                        EmployeeSchedulingConstraintProvider::getShiftDurationInMinutes)
                 .asConstraint("Desired day for employee");
     }
 
     Constraint undesiredDayForEmployee(ConstraintFactory constraintFactory) {
         return constraintFactory.forEach(Shift.class)
-                .join(Availability.class, Joiners.equal((Shift shift) -> shift.getStart().toLocalDate(), Availability::getDate),
-                        Joiners.equal(Shift::getEmployee, Availability::getEmployee))
-                .filter((shift, availability) -> availability.getAvailabilityType() == AvailabilityType.UNDESIRED)
+                .filter(shift -> getAvailabilityType(shift) == AvailabilityType.UNDESIRED)
                 .penalize(HardSoftScore.ONE_SOFT,
-                        (shift, availability) -> getShiftDurationInMinutes(shift))
+                        EmployeeSchedulingConstraintProvider::getShiftDurationInMinutes)
                 .asConstraint("Undesired day for employee");
     }
 
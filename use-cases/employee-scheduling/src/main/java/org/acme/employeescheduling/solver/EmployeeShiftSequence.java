@@ -0,0 +1,144 @@
+package org.acme.employeescheduling.solver;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import ai.timefold.solver.core.api.score.stream.uni.UniConstraintCollector;
+
+import org.acme.employeescheduling.domain.Shift;
+
+/**
+ * The shifts of one employee in order of time,
+ * with the total penalty of the rest periods that are too short between each shift and every earlier shift,
+ * so the same penalty as pairing up each shift with every shift that ends before it starts.
+ * <p>
+ * Adding or removing a shift only looks at the shifts that start less than the longest shift
+ * plus {@link #MIN_REST_MINUTES} before or after it,
+ * so a move costs the same however many shifts the employee has.
+ */
+final class EmployeeShiftSequence {
+
+    static final int MIN_REST_MINUTES = 10 * 60;
+
+    // The id breaks the tie between shifts with the same times, so that each shift has its own place.
+    private static final Comparator<Shift> SHIFT_ORDER = Comparator.comparingLong(Shift::getStartEpochMinute)
+            .thenComparingLong(Shift::getEndEpochMinute)
+            .thenComparing(Shift::getId);
+
+    /**
+     * @return never null, collects the shifts of a group into a sequence and results in its rest penalty
+     */
+    static UniConstraintCollector<Shift, EmployeeShiftSequence, Integer> toRestPenalty() {
+        return new UniConstraintCollector<>() {
+            @Override
+            public Supplier<EmployeeShiftSequence> supplier() {
+                return EmployeeShiftSequence::new;
+            }
+
+            @Override
+            public BiFunction<EmployeeShiftSequence, Shift, Runnable> accumulator() {
+                return EmployeeShiftSequence::add;
+            }
+
+            @Override
+            public Function<EmployeeShiftSequence, Integer> finisher() {
+                return EmployeeShiftSequence::getRestPenalty;
+            }
+        };
+    }
+
+    /**
+     * @param previousEndEpochMinute the end of an earlier shift
+     * @param shift never null
+     * @return the minutes that the rest before the shift is shorter than {@link #MIN_REST_MINUTES},
+     *         0 if the shift starts before that end
+     */
+    static int calculateRestPenalty(long previousEndEpochMinute, Shift shift) {
+        long restMinutes = shift.getStartEpochMinute() - previousEndEpochMinute;
+        if (restMinutes < 0L || restMinutes >= MIN_REST_MINUTES) {
+            return 0;
+        }
+        return MIN_REST_MINUTES - (int) restMinutes;
+    }
+
+    private final TreeSet<Shift> shifts = new TreeSet<>(SHIFT_ORDER);
+    // To know how far back a shift can still end late enough to shorten the rest before another one.
+    private final TreeMap<Long, Integer> durationToCount = new TreeMap<>();
+    private int restPenalty = 0;
+
+    /**
+     * @param shift never null, not yet in this sequence
+     * @return never null, removes the shift again
+     */
+    Runnable add(Shift shift) {
+        List<Shift> nextShifts = getAffectedNextShifts(shift);
+        restPenalty -= calculateRestPenalty(nextShifts);
+        shifts.add(shift);
+        durationToCount.merge(getDuration(shift), 1, Integer::sum);
+        restPenalty += calculateRestPenalty(shift) + calculateRestPenalty(nextShifts);
+        return () -> remove(shift);
+    }
+
+    private void remove(Shift shift) {
+        List<Shift> nextShifts = getAffectedNextShifts(shift);
+        restPenalty -= calculateRestPenalty(shift) + calculateRestPenalty(nextShifts);
+        shifts.remove(shift);
+        durationToCount.compute(getDuration(shift), (duration, count) -> count == 1 ? null : count - 1);
+        restPenalty += calculateRestPenalty(nextShifts);
+    }
+
+    /**
+     * @return never null, the shifts after the given one whose rest penalty can depend on it
+     */
+    private List<Shift> getAffectedNextShifts(Shift shift) {
+        // A later shift that starts at least MIN_REST_MINUTES after the end of this one has enough rest from it.
+        long lastAffectedStart = shift.getEndEpochMinute() + MIN_REST_MINUTES;
+        List<Shift> nextShifts = new ArrayList<>();
+        for (Shift nextShift : shifts.tailSet(shift, false)) {
+            if (nextShift.getStartEpochMinute() >= lastAffectedStart) {
+                break;
+            }
+            nextShifts.add(nextShift);
+        }
+        return nextShifts;
+    }
+
+    private int calculateRestPenalty(List<Shift> affectedShifts) {
+        int penalty = 0;
+        for (Shift shift : affectedShifts) {
+            penalty += calculateRestPenalty(shift);
+        }
+        return penalty;
+    }
+
+    private int calculateRestPenalty(Shift shift) {
+        // An earlier shift that starts before this can only end before the rest period of this shift.
+        long firstRelevantStart = shift.getStartEpochMinute() - MIN_REST_MINUTES - durationToCount.lastKey();
+        int penalty = 0;
+        for (Shift previousShift : shifts.headSet(shift, false).descendingSet()) {
+            if (previousShift.getStartEpochMinute() < firstRelevantStart) {
+                break;
+            }
+            penalty += calculateRestPenalty(previousShift.getEndEpochMinute(), shift);
+        }
+        return penalty;
+    }
+
+    private static long getDuration(Shift shift) {
+        return shift.getEndEpochMinute() - shift.getStartEpochMinute();
+    }
+
+    /**
+     * @return the sum of {@link #calculateRestPenalty(long, Shift)} of each shift
+     *         and the end of each shift before it
+     */
+    int getRestPenalty() {
+        return restPenalty;
+    }
+}
@@ -0,0 +1,93 @@
+package org.acme.employeescheduling.solver;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.move.AbstractMove;
+
+import org.acme.employeescheduling.domain.Employee;
+import org.acme.employeescheduling.domain.EmployeeSchedule;
+import org.acme.employeescheduling.domain.Shift;
+
+/**
+ * Assigns one or more shifts to other employees.
+ * Like the built-in change move for one shift, and like the built-in swap move for two shifts that swap employees,
+ * but created by {@link SkilledEmployeeMoveIteratorFactory}.
+ */
+public final class ShiftAssignmentMove extends AbstractMove<EmployeeSchedule> {
+
+    private static final String EMPLOYEE_FIELD = "employee";
+
+    private final Shift[] shifts;
+    private final Employee[] employees;
+
+    /**
+     * @param shifts never null, each shift only once
+     * @param employees never null, the employee of each of the shifts after the move
+     */
+    public ShiftAssignmentMove(Shift[] shifts, Employee[] employees) {
+        this.shifts = shifts;
+        this.employees = employees;
+    }
+
+    @Override
+    public boolean isMoveDoable(ScoreDirector<EmployeeSchedule> scoreDirector) {
+        for (int i = 0; i < shifts.length; i++) {
+            if (shifts[i].getEmployee() != employees[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected ShiftAssignmentMove createUndoMove(ScoreDirector<EmployeeSchedule> scoreDirector) {
+        Employee[] undoEmployees = new Employee[shifts.length];
+        for (int i = 0; i < shifts.length; i++) {
+            undoEmployees[i] = shifts[i].getEmployee();
+        }
+        return new ShiftAssignmentMove(shifts, undoEmployees);
+    }
+
+    @Override
+    protected void doMoveOnGenuineVariables(ScoreDirector<EmployeeSchedule> scoreDirector) {
+        for (int i = 0; i < shifts.length; i++) {
+            Shift shift = shifts[i];
+            scoreDirector.beforeVariableChanged(shift, EMPLOYEE_FIELD);
+            shift.setEmployee(employees[i]);
+            scoreDirector.afterVariableChanged(shift, EMPLOYEE_FIELD);
+        }
+    }
+
+    @Override
+    public ShiftAssignmentMove rebase(ScoreDirector<EmployeeSchedule> destinationScoreDirector) {
+        Shift[] rebasedShifts = new Shift[shifts.length];
+        Employee[] rebasedEmployees = new Employee[shifts.length];
+        for (int i = 0; i < shifts.length; i++) {
+            rebasedShifts[i] = destinationScoreDirector.lookUpWorkingObject(shifts[i]);
+            rebasedEmployees[i] = destinationScoreDirector.lookUpWorkingObject(employees[i]);
+        }
+        return new ShiftAssignmentMove(rebasedShifts, rebasedEmployees);
+    }
+
+    @Override
+    public String getSimpleMoveTypeDescription() {
+        return "ShiftAssignmentMove(Shift.employee)";
+    }
+
+    @Override
+    public Collection<Shift> getPlanningEntities() {
+        return Arrays.asList(shifts);
+    }
+
+    @Override
+    public Collection<Employee> getPlanningValues() {
+        return Arrays.asList(employees);
+    }
+
+    @Override
+    public String toString() {
+        return "%s -> %s".formatted(Arrays.toString(shifts), Arrays.toString(employees));
+    }
+}
@@ -0,0 +1,115 @@
+package org.acme.employeescheduling.solver;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+
+import org.acme.employeescheduling.domain.Employee;
+import org.acme.employeescheduling.domain.EmployeeSchedule;
+import org.acme.employeescheduling.domain.Shift;
+import org.acme.employeescheduling.domain.ShiftPinningFilter;
+
+/**
+ * Change and swap moves that only assign a shift to one of its {@link Shift#getSkilledEmployees() skilled employees}:
+ * a change move picks an employee from those, a swap move swaps the employees of two shifts with the same skill.
+ * <p>
+ * The built-in moves select from the same value range, but in this version of Timefold Solver
+ * they add up the size of the value range of every shift on every step,
+ * which on a roster of thousands of shifts costs more than the moves themselves.
+ */
+public class SkilledEmployeeMoveIteratorFactory implements MoveIteratorFactory<EmployeeSchedule, ShiftAssignmentMove> {
+
+    private static final ShiftPinningFilter PINNING_FILTER = new ShiftPinningFilter();
+
+    private List<Shift> movableShifts;
+    private Map<String, List<Shift>> skillToMovableShifts;
+
+    @Override
+    public void phaseStarted(ScoreDirector<EmployeeSchedule> scoreDirector) {
+        EmployeeSchedule schedule = scoreDirector.getWorkingSolution();
+        movableShifts = new ArrayList<>(schedule.getShifts().size());
+        skillToMovableShifts = new LinkedHashMap<>();
+        for (Shift shift : schedule.getShifts()) {
+            // Without any employees, there is nothing to assign a shift to.
+            if (!PINNING_FILTER.accept(schedule, shift) && !shift.getSkilledEmployees().isEmpty()) {
+                movableShifts.add(shift);
+                skillToMovableShifts.computeIfAbsent(shift.getRequiredSkill(), skill -> new ArrayList<>()).add(shift);
+            }
+        }
+    }
+
+    @Override
+    public void phaseEnded(ScoreDirector<EmployeeSchedule> scoreDirector) {
+        movableShifts = null;
+        skillToMovableShifts = null;
+    }
+
+    @Override
+    public long getSize(ScoreDirector<EmployeeSchedule> scoreDirector) {
+        long size = 0L;
+        for (List<Shift> shifts : skillToMovableShifts.values()) {
+            long shiftCount = shifts.size();
+            size += shiftCount * shifts.get(0).getSkilledEmployees().size() + shiftCount * (shiftCount - 1) / 2;
+        }
+        return size;
+    }
+
+    /**
+     * Per skill, each shift in turn with its change moves and then its swap moves with the later shifts,
+     * so that every move of {@link #getSize(ScoreDirector)} is selected exactly once.
+     */
+    @Override
+    public Iterator<ShiftAssignmentMove> createOriginalMoveIterator(ScoreDirector<EmployeeSchedule> scoreDirector) {
+        return skillToMovableShifts.values().stream()
+                .flatMap(shifts -> IntStream.range(0, shifts.size()).boxed()
+                        .flatMap(i -> {
+                            Shift shift = shifts.get(i);
+                            return Stream.concat(
+                                    shift.getSkilledEmployees().stream().map(employee -> changeMove(shift, employee)),
+                                    shifts.subList(i + 1, shifts.size()).stream()
+                                            .map(otherShift -> swapMove(shift, otherShift)));
+                        }))
+                .iterator();
+    }
+
+    @Override
+    public Iterator<ShiftAssignmentMove> createRandomMoveIterator(ScoreDirector<EmployeeSchedule> scoreDirector,
+            Random workingRandom) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                // Empty without any employees, so next() never picks from an empty list.
+                return !movableShifts.isEmpty();
+            }
+
+            @Override
+            public ShiftAssignmentMove next() {
+                Shift shift = movableShifts.get(workingRandom.nextInt(movableShifts.size()));
+                if (workingRandom.nextBoolean()) {
+                    List<Employee> skilledEmployees = shift.getSkilledEmployees();
+                    return changeMove(shift, skilledEmployees.get(workingRandom.nextInt(skilledEmployees.size())));
+                }
+                List<Shift> sameSkillShifts = skillToMovableShifts.get(shift.getRequiredSkill());
+                // Not doable if it is the same shift or the shifts have the same employee, so the solver skips it.
+                return swapMove(shift, sameSkillShifts.get(workingRandom.nextInt(sameSkillShifts.size())));
+            }
+        };
+    }
+
+    private static ShiftAssignmentMove changeMove(Shift shift, Employee employee) {
+        return new ShiftAssignmentMove(new Shift[] { shift }, new Employee[] { employee });
+    }
+
+    private static ShiftAssignmentMove swapMove(Shift shift, Shift otherShift) {
+        return new ShiftAssignmentMove(new Shift[] { shift, otherShift },
+                new Employee[] { otherShift.getEmployee(), shift.getEmployee() });
+    }
+}
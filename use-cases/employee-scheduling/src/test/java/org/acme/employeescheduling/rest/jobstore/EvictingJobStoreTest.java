@@ -0,0 +1,145 @@
+package org.acme.employeescheduling.rest.jobstore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class EvictingJobStoreTest {
+
+    private static final int MAX_IN_MEMORY_JOB_COUNT = 100;
+
+    @TempDir
+    Path spillDirectory;
+
+    private final AtomicLong clock = new AtomicLong(0L);
+    private final List<String> removedJobIds = new ArrayList<>();
+
+    private EvictingJobStore<Job, Solution> buildStore(Duration timeToLive, Set<String> solvingJobIds) {
+        return new EvictingJobStore<>(MAX_IN_MEMORY_JOB_COUNT, timeToLive, spillDirectory, new ObjectMapper(),
+                Solution.class, Job::solution, Job::new, solvingJobIds::contains, "test", removedJobIds::add, clock::get,
+                false);
+    }
+
+    @Test
+    void spilledJobsAreReadBack() {
+        EvictingJobStore<Job, Solution> store = buildStore(Duration.ofDays(1), Set.of());
+        for (int i = 0; i < 2 * MAX_IN_MEMORY_JOB_COUNT; i++) {
+            clock.incrementAndGet();
+            store.put(Integer.toString(i), new Job(new Solution(Integer.toString(i), new int[100])));
+        }
+        assertTrue(store.getInMemoryJobCount() <= MAX_IN_MEMORY_JOB_COUNT);
+        assertEquals(MAX_IN_MEMORY_JOB_COUNT, store.getSpilledJobCount());
+        assertTrue(store.getSpilledByteCount() > 0L);
+        for (int i = 0; i < 2 * MAX_IN_MEMORY_JOB_COUNT; i++) {
+            String jobId = Integer.toString(i);
+            assertEquals(jobId, store.get(jobId).solution().name());
+        }
+        assertNull(store.get(Integer.toString(2 * MAX_IN_MEMORY_JOB_COUNT)));
+    }
+
+    // Spills 100 000 jobs to disk, so it only runs with -Dsoak=true.
+    @Test
+    @EnabledIfSystemProperty(named = "soak", matches = "true")
+    void soak() {
+        EvictingJobStore<Job, Solution> store = buildStore(Duration.ofDays(1), Set.of());
+        int jobCount = 100_000;
+        Random random = new Random(37);
+        for (int i = 0; i < jobCount; i++) {
+            clock.incrementAndGet();
+            store.put(Integer.toString(i), new Job(new Solution(Integer.toString(i), new int[100])));
+            if (i % 10 == 0) {
+                // Reads back an older job, mostly one that was spilled.
+                String jobId = Integer.toString(random.nextInt(i + 1));
+                assertEquals(jobId, store.get(jobId).solution().name());
+            }
+            assertTrue(store.getInMemoryJobCount() <= MAX_IN_MEMORY_JOB_COUNT);
+        }
+        assertEquals(jobCount, store.getJobIds().size());
+        assertEquals(jobCount - MAX_IN_MEMORY_JOB_COUNT, store.getSpilledJobCount());
+        assertTrue(store.getSpilledByteCount() > 0L);
+        assertEquals("0", store.get("0").solution().name());
+        assertNull(store.get(Integer.toString(jobCount)));
+    }
+
+    @Test
+    void solvingJobsStayInMemory() {
+        EvictingJobStore<Job, Solution> store = buildStore(Duration.ofMinutes(10), Set.of("solving"));
+        Job solvingJob = new Job(new Solution("solving", new int[0]));
+        store.put("solving", solvingJob);
+        for (int i = 0; i < MAX_IN_MEMORY_JOB_COUNT; i++) {
+            store.put(Integer.toString(i), new Job(new Solution(Integer.toString(i), new int[0])));
+        }
+        assertEquals(1, store.getSpilledJobCount());
+        assertSame(solvingJob, store.get("solving"));
+        assertEquals("0", store.get("0").solution().name());
+
+        clock.addAndGet(Duration.ofMinutes(10).toMillis());
+        store.put("new", new Job(new Solution("new", new int[0])));
+        assertEquals(Set.of("solving", "new"), Set.copyOf(store.getJobIds()));
+        assertEquals(0L, store.getSpilledByteCount());
+    }
+
+    @Test
+    void jobsWithoutSolutionAreDropped() {
+        EvictingJobStore<Job, Solution> store = buildStore(Duration.ofMinutes(10), Set.of());
+        store.put("failed", new Job(null));
+        for (int i = 0; i < MAX_IN_MEMORY_JOB_COUNT; i++) {
+            store.put(Integer.toString(i), new Job(new Solution(Integer.toString(i), new int[0])));
+        }
+        assertNull(store.get("failed"));
+        assertEquals(List.of("failed"), removedJobIds);
+        assertEquals(0, store.getSpilledJobCount());
+    }
+
+    @Test
+    void expiredJobsAreRemovedWithoutPut() {
+        EvictingJobStore<Job, Solution> store = buildStore(Duration.ofMinutes(10), Set.of());
+        for (int i = 0; i < 2 * MAX_IN_MEMORY_JOB_COUNT; i++) {
+            store.put(Integer.toString(i), new Job(new Solution(Integer.toString(i), new int[0])));
+        }
+        assertEquals(MAX_IN_MEMORY_JOB_COUNT, store.getSpilledJobCount());
+
+        clock.addAndGet(Duration.ofMinutes(10).toMillis());
+        store.removeExpiredJobs();
+        assertTrue(store.getJobIds().isEmpty());
+        assertEquals(0L, store.getSpilledByteCount());
+        assertEquals(2 * MAX_IN_MEMORY_JOB_COUNT, removedJobIds.size());
+    }
+
+    @Test
+    void closeDeletesSpilledJobs() throws IOException {
+        EvictingJobStore<Job, Solution> store = buildStore(Duration.ofMinutes(10), Set.of());
+        for (int i = 0; i < 2 * MAX_IN_MEMORY_JOB_COUNT; i++) {
+            store.put(Integer.toString(i), new Job(new Solution(Integer.toString(i), new int[0])));
+        }
+        store.close();
+        assertEquals(0, store.getSpilledJobCount());
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertEquals(0L, files.count());
+        }
+    }
+
+    private record Solution(String name, int[] data) {
+    }
+
+    private record Job(Solution solution) {
+    }
+}
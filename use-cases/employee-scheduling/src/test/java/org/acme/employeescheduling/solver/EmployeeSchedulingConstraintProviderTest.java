@@ -1,9 +1,12 @@
 package org.acme.employeescheduling.solver;
 
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.List;
 import java.util.Set;
 
 import jakarta.inject.Inject;
@@ -31,6 +34,11 @@ class EmployeeSchedulingConstraintProviderTest {
     @Inject
     ConstraintVerifier<EmployeeSchedulingConstraintProvider, EmployeeSchedule> constraintVerifier;
 
+    // The availabilities are looked up in the index that the schedule builds.
+    private static EmployeeSchedule schedule(Employee employee, Availability availability, Shift shift) {
+        return new EmployeeSchedule(null, List.of(availability), List.of(employee), List.of(shift));
+    }
+
     @Test
     void testRequiredSkill() {
         Employee employee = new Employee("Amy", Set.of());
@@ -46,6 +54,21 @@ class EmployeeSchedulingConstraintProviderTest {
                 .penalizes(0);
     }
 
+    @Test
+    void testRequiredSkillWithIndexedSkills() {
+        Employee employee1 = new Employee("Amy", Set.of("Other skill"));
+        Employee employee2 = new Employee("Beth", Set.of("Skill", "Other skill"));
+        Shift shift = new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee1);
+        EmployeeSchedule schedule = new EmployeeSchedule(null, List.of(), List.of(employee1, employee2), List.of(shift,
+                new Shift("2", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee2),
+                new Shift("3", AFTERNOON_START_TIME, AFTERNOON_END_TIME, "Location", "Other skill", employee1),
+                new Shift("4", AFTERNOON_START_TIME, AFTERNOON_END_TIME, "Location", "Other skill", employee2)));
+        assertNotEquals(0L, shift.getRequiredSkillBit());
+        constraintVerifier.verifyThat(EmployeeSchedulingConstraintProvider::requiredSkill)
+                .givenSolution(schedule)
+                .penalizes(1);
+    }
+
     @Test
     void testOverlappingShifts() {
         Employee employee1 = new Employee("Amy", Set.of("Skill"));
@@ -129,6 +152,54 @@ class EmployeeSchedulingConstraintProviderTest {
                 .penalizes(0);
     }
 
+    @Test
+    void testAtLeast10HoursBetweenEachPairOfShifts() {
+        Employee employee1 = new Employee("Amy", Set.of("Skill"));
+        Employee employee2 = new Employee("Beth", Set.of("Skill"));
+        // 0 hours rest after the first shift and 2 hours after the second, and 6 hours between the first and third.
+        constraintVerifier.verifyThat(EmployeeSchedulingConstraintProvider::atLeast10HoursBetweenTwoShifts)
+                .given(employee1, employee2,
+                       new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee1),
+                       new Shift("2", DAY_END_TIME, AFTERNOON_END_TIME, "Location 2", "Skill", employee1),
+                       new Shift("3", AFTERNOON_END_TIME.plusHours(2), DAY_START_TIME.plusDays(1), "Location", "Skill", employee1),
+                       new Shift("4", DAY_END_TIME, AFTERNOON_END_TIME, "Location 2", "Skill", employee2))
+                .penalizesBy(600 + 480 + 240);
+        // The rest after each earlier shift counts, but overlapping shifts are penalized as an overlap instead.
+        constraintVerifier.verifyThat(EmployeeSchedulingConstraintProvider::atLeast10HoursBetweenTwoShifts)
+                .given(employee1,
+                       new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee1),
+                       new Shift("2", AFTERNOON_START_TIME, AFTERNOON_END_TIME, "Location 2", "Skill", employee1),
+                       new Shift("3", AFTERNOON_END_TIME.plusHours(4), DAY_START_TIME.plusDays(1), "Location", "Skill", employee1))
+                .penalizesBy(360 + 120);
+        // The rest after a long shift counts, even if a shorter shift within it starts after it.
+        constraintVerifier.verifyThat(EmployeeSchedulingConstraintProvider::atLeast10HoursBetweenTwoShifts)
+                .given(employee1,
+                       new Shift("1", DAY_1.atTime(8, 0), DAY_1.atTime(20, 0), "Location", "Skill", employee1),
+                       new Shift("2", DAY_1.atTime(9, 0), DAY_1.atTime(10, 0), "Location 2", "Skill", employee1),
+                       new Shift("3", DAY_1.atTime(22, 0), DAY_START_TIME.plusDays(1), "Location", "Skill", employee1))
+                .penalizesBy(480);
+    }
+
+    @Test
+    void testMaxOneShiftPerDay() {
+        Employee employee1 = new Employee("Amy", Set.of("Skill"));
+        Employee employee2 = new Employee("Beth", Set.of("Skill"));
+        constraintVerifier.verifyThat(EmployeeSchedulingConstraintProvider::oneShiftPerDay)
+                .given(employee1, employee2,
+                       new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee1),
+                       new Shift("2", DAY_START_TIME.plusDays(1), DAY_END_TIME.plusDays(1), "Location 2", "Skill", employee1),
+                       new Shift("3", DAY_START_TIME, DAY_END_TIME, "Location 2", "Skill", employee2))
+                .penalizes(0);
+        // Each pair of shifts on the same day.
+        constraintVerifier.verifyThat(EmployeeSchedulingConstraintProvider::oneShiftPerDay)
+                .given(employee1, employee2,
+                       new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee1),
+                       new Shift("2", AFTERNOON_START_TIME, AFTERNOON_END_TIME, "Location 2", "Skill", employee1),
+                       new Shift("3", AFTERNOON_END_TIME, AFTERNOON_END_TIME.plusHours(2), "Location", "Skill", employee1),
+                       new Shift("4", DAY_START_TIME, DAY_END_TIME, "Location 2", "Skill", employee2))
+                .penalizesBy(3);
+    }
+
     @Test
     void testUnavailableEmployee() {
         Employee employee1 = new Employee("Amy", Set.of("Skill"));
@@ -136,27 +207,38 @@ class EmployeeSchedulingConstraintProviderTest {
         Availability unavailability = new Availability("1", employee1, DAY_1, AvailabilityType.UNAVAILABLE);
         Availability desired = new Availability("2", employee1, DAY_1, AvailabilityType.DESIRED);
         constraintVerifier.verifyThat(EmployeeSchedulingConstraintProvider::unavailableEmployee)
-                .given(employee1,
-                       unavailability,
-                       new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee1))
+                .givenSolution(schedule(employee1, unavailability,
+                       new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee1)))
                 .penalizesBy((int) Duration.ofHours(8).toMinutes());
         constraintVerifier.verifyThat(EmployeeSchedulingConstraintProvider::unavailableEmployee)
-                .given(employee1,
-                       unavailability,
-                       new Shift("1", DAY_START_TIME.plusDays(1), DAY_END_TIME.plusDays(1), "Location", "Skill", employee1))
+                .givenSolution(schedule(employee1, unavailability,
+                       new Shift("1", DAY_START_TIME.plusDays(1), DAY_END_TIME.plusDays(1), "Location", "Skill", employee1)))
                 .penalizes(0);
         constraintVerifier.verifyThat(EmployeeSchedulingConstraintProvider::unavailableEmployee)
-                .given(employee1,
-                       unavailability,
-                       new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee2))
+                .givenSolution(schedule(employee1, unavailability,
+                       new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee2)))
                 .penalizes(0);
         constraintVerifier.verifyThat(EmployeeSchedulingConstraintProvider::unavailableEmployee)
-                .given(employee1,
-                       desired,
-                       new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee1))
+                .givenSolution(schedule(employee1, desired,
+                       new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee1)))
                 .penalizes(0);
     }
 
+    @Test
+    void testUnavailableEmployeeWithAvailabilitiesOutsideOfTheShifts() {
+        Employee employee1 = new Employee("Amy", Set.of("Skill"));
+        // Only the days of the shifts are indexed.
+        List<Availability> availabilities = List.of(
+                new Availability("1", employee1, DAY_1.minusYears(10), AvailabilityType.UNAVAILABLE),
+                new Availability("2", employee1, DAY_1, AvailabilityType.UNAVAILABLE),
+                new Availability("3", employee1, DAY_1.plusYears(10), AvailabilityType.UNAVAILABLE));
+        constraintVerifier.verifyThat(EmployeeSchedulingConstraintProvider::unavailableEmployee)
+                .givenSolution(new EmployeeSchedule(null, availabilities, List.of(employee1), List.of(
+                       new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee1),
+                       new Shift("2", DAY_START_TIME.plusDays(1), DAY_END_TIME.plusDays(1), "Location", "Skill", employee1))))
+                .penalizesBy((int) Duration.ofHours(8).toMinutes());
+    }
+
     @Test
     void testDesiredDayForEmployee() {
         Employee employee1 = new Employee("Amy", Set.of("Skill"));
@@ -164,24 +246,20 @@ class EmployeeSchedulingConstraintProviderTest {
         Availability unavailability = new Availability("1", employee1, DAY_1, AvailabilityType.UNAVAILABLE);
         Availability desired = new Availability("2", employee1, DAY_1, AvailabilityType.DESIRED);
         constraintVerifier.verifyThat(EmployeeSchedulingConstraintProvider::desiredDayForEmployee)
-                .given(employee1,
-                       desired,
-                       new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee1))
+                .givenSolution(schedule(employee1, desired,
+                       new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee1)))
                 .rewardsWith((int) Duration.ofHours(8).toMinutes());
         constraintVerifier.verifyThat(EmployeeSchedulingConstraintProvider::desiredDayForEmployee)
-                .given(employee1,
-                       desired,
-                       new Shift("1", DAY_START_TIME.plusDays(1), DAY_END_TIME.plusDays(1), "Location", "Skill", employee1))
+                .givenSolution(schedule(employee1, desired,
+                       new Shift("1", DAY_START_TIME.plusDays(1), DAY_END_TIME.plusDays(1), "Location", "Skill", employee1)))
                 .rewards(0);
         constraintVerifier.verifyThat(EmployeeSchedulingConstraintProvider::desiredDayForEmployee)
-                .given(employee1,
-                       desired,
-                       new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee2))
+                .givenSolution(schedule(employee1, desired,
+                       new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee2)))
                 .rewards(0);
         constraintVerifier.verifyThat(EmployeeSchedulingConstraintProvider::desiredDayForEmployee)
-                .given(employee1,
-                       unavailability,
-                       new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee1))
+                .givenSolution(schedule(employee1, unavailability,
+                       new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee1)))
                 .rewards(0);
     }
 
@@ -192,24 +270,20 @@ class EmployeeSchedulingConstraintProviderTest {
         Availability unavailability = new Availability("1", employee1, DAY_1, AvailabilityType.UNAVAILABLE);
         Availability undesired = new Availability("2", employee1, DAY_1, AvailabilityType.UNDESIRED);
         constraintVerifier.verifyThat(EmployeeSchedulingConstraintProvider::undesiredDayForEmployee)
-                .given(employee1,
-                       undesired,
-                       new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee1))
+                .givenSolution(schedule(employee1, undesired,
+                       new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee1)))
                 .penalizesBy((int) Duration.ofHours(8).toMinutes());
         constraintVerifier.verifyThat(EmployeeSchedulingConstraintProvider::undesiredDayForEmployee)
-                .given(employee1,
-                       undesired,
-                       new Shift("1", DAY_START_TIME.plusDays(1), DAY_END_TIME.plusDays(1), "Location", "Skill", employee1))
+                .givenSolution(schedule(employee1, undesired,
+                       new Shift("1", DAY_START_TIME.plusDays(1), DAY_END_TIME.plusDays(1), "Location", "Skill", employee1)))
                 .penalizes(0);
         constraintVerifier.verifyThat(EmployeeSchedulingConstraintProvider::undesiredDayForEmployee)
-                .given(employee1,
-                       undesired,
-                       new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee2))
+                .givenSolution(schedule(employee1, undesired,
+                       new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee2)))
                 .penalizes(0);
         constraintVerifier.verifyThat(EmployeeSchedulingConstraintProvider::undesiredDayForEmployee)
-                .given(employee1,
-                       unavailability,
-                       new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee1))
+                .givenSolution(schedule(employee1, unavailability,
+                       new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee1)))
                 .penalizes(0);
     }
 }
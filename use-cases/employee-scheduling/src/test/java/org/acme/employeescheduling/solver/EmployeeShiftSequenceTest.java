@@ -0,0 +1,69 @@
+package org.acme.employeescheduling.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.acme.employeescheduling.domain.Shift;
+import org.junit.jupiter.api.Test;
+
+class EmployeeShiftSequenceTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2021, 2, 1);
+
+    @Test
+    void restPenaltyAfterAddingAndRemovingShifts() {
+        Random random = new Random(37);
+        List<Shift> shifts = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            // Whole hours over 10 days, so that there are shifts with the same times, overlapping and back to back.
+            // Some shifts are long enough to contain others.
+            LocalDateTime start = DAY_1.atStartOfDay().plusHours(random.nextInt(10 * 24));
+            int hours = i % 8 == 0 ? 12 + random.nextInt(24) : 1 + random.nextInt(8);
+            shifts.add(new Shift(Integer.toString(i), start, start.plusHours(hours), "Location", "Skill", null));
+        }
+
+        EmployeeShiftSequence sequence = new EmployeeShiftSequence();
+        Map<Shift, Runnable> removers = new HashMap<>();
+        List<Shift> addedShifts = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            Shift shift = shifts.get(random.nextInt(shifts.size()));
+            Runnable remover = removers.remove(shift);
+            if (remover == null) {
+                removers.put(shift, sequence.add(shift));
+                addedShifts.add(shift);
+            } else {
+                remover.run();
+                addedShifts.remove(shift);
+            }
+            assertEquals(calculateRestPenalty(addedShifts), sequence.getRestPenalty(), addedShifts::toString);
+        }
+    }
+
+    // The original constraint, which paired up the shifts of an employee.
+    private static int calculateRestPenalty(List<Shift> shifts) {
+        int restPenalty = 0;
+        for (int i = 0; i < shifts.size(); i++) {
+            for (int j = i + 1; j < shifts.size(); j++) {
+                restPenalty += calculateRestPenalty(shifts.get(i), shifts.get(j))
+                        + calculateRestPenalty(shifts.get(j), shifts.get(i));
+            }
+        }
+        return restPenalty;
+    }
+
+    private static int calculateRestPenalty(Shift firstShift, Shift secondShift) {
+        if (firstShift.getEnd().isAfter(secondShift.getStart())) {
+            return 0;
+        }
+        Duration rest = Duration.between(firstShift.getEnd(), secondShift.getStart());
+        return rest.toHours() < 10 ? 10 * 60 - (int) rest.toMinutes() : 0;
+    }
+}
@@ -0,0 +1,142 @@
+package org.acme.employeescheduling.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import ai.timefold.solver.core.config.heuristic.selector.common.SelectionOrder;
+import ai.timefold.solver.core.config.heuristic.selector.move.factory.MoveIteratorFactoryConfig;
+import ai.timefold.solver.core.config.localsearch.LocalSearchPhaseConfig;
+import ai.timefold.solver.core.config.solver.EnvironmentMode;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+
+import org.acme.employeescheduling.domain.Employee;
+import org.acme.employeescheduling.domain.EmployeeSchedule;
+import org.acme.employeescheduling.domain.ScheduleState;
+import org.acme.employeescheduling.domain.Shift;
+import org.junit.jupiter.api.Test;
+
+class SkilledEmployeeMoveIteratorFactoryTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2021, 2, 1);
+    private static final List<Employee> EMPLOYEES = List.of(
+            new Employee("Amy", Set.of("Doctor")),
+            new Employee("Beth", Set.of("Doctor", "Cardiology")),
+            new Employee("Chad", Set.of("Nurse")),
+            new Employee("Dan", Set.of("Nurse", "Cardiology")),
+            new Employee("Elsa", Set.of("Nurse")),
+            new Employee("Flo", Set.of("Doctor", "Nurse")));
+
+    @Test
+    void solveWithOnlySkilledEmployeeMoves() {
+        solve(SelectionOrder.RANDOM);
+    }
+
+    @Test
+    void solveWithOriginalSelectionOrder() {
+        solve(SelectionOrder.ORIGINAL);
+    }
+
+    private static void solve(SelectionOrder selectionOrder) {
+        EmployeeSchedule schedule = createSchedule(EMPLOYEES);
+        LocalSearchPhaseConfig localSearchPhaseConfig = new LocalSearchPhaseConfig()
+                .withMoveSelectorConfig(new MoveIteratorFactoryConfig()
+                        .withMoveIteratorFactoryClass(SkilledEmployeeMoveIteratorFactory.class)
+                        .withSelectionOrder(selectionOrder))
+                .withTerminationConfig(new TerminationConfig().withStepCountLimit(1_000));
+        // Fails fast if a move, or its undo move, corrupts the score.
+        SolverConfig solverConfig = new SolverConfig()
+                .withSolutionClass(EmployeeSchedule.class)
+                .withEntityClasses(Shift.class)
+                .withConstraintProviderClass(EmployeeSchedulingConstraintProvider.class)
+                .withEnvironmentMode(EnvironmentMode.FULL_ASSERT)
+                .withPhases(new ConstructionHeuristicPhaseConfig(), localSearchPhaseConfig);
+        EmployeeSchedule solution = SolverFactory.<EmployeeSchedule> create(solverConfig).buildSolver().solve(schedule);
+
+        for (Shift shift : solution.getShifts()) {
+            assertTrue(shift.getEmployee().getSkills().contains(shift.getRequiredSkill()), shift::toString);
+        }
+    }
+
+    @Test
+    void originalMoveIteratorSelectsEveryMoveOnce() {
+        EmployeeSchedule schedule = createSchedule(EMPLOYEES);
+        ScoreDirector<EmployeeSchedule> scoreDirector = createScoreDirector(schedule);
+        SkilledEmployeeMoveIteratorFactory moveIteratorFactory = new SkilledEmployeeMoveIteratorFactory();
+        moveIteratorFactory.phaseStarted(scoreDirector);
+
+        Set<List<Object>> moves = new HashSet<>();
+        long moveCount = 0L;
+        for (Iterator<ShiftAssignmentMove> it = moveIteratorFactory.createOriginalMoveIterator(scoreDirector);
+                it.hasNext();) {
+            ShiftAssignmentMove move = it.next();
+            List<Shift> shifts = List.copyOf(move.getPlanningEntities());
+            List<Employee> employees = new ArrayList<>(move.getPlanningValues());
+            for (int i = 0; i < shifts.size(); i++) {
+                Employee employee = employees.get(i);
+                assertTrue(employee == null || employee.getSkills().contains(shifts.get(i).getRequiredSkill()),
+                        move::toString);
+            }
+            moves.add(List.of(shifts.stream().map(Shift::getId).toList(), employees));
+            moveCount++;
+        }
+        assertEquals(moveIteratorFactory.getSize(scoreDirector), moveCount);
+        assertEquals(moveCount, moves.size());
+    }
+
+    @Test
+    void noMovesWithoutEmployees() {
+        EmployeeSchedule schedule = createSchedule(List.of());
+        ScoreDirector<EmployeeSchedule> scoreDirector = createScoreDirector(schedule);
+        SkilledEmployeeMoveIteratorFactory moveIteratorFactory = new SkilledEmployeeMoveIteratorFactory();
+        moveIteratorFactory.phaseStarted(scoreDirector);
+
+        assertEquals(0L, moveIteratorFactory.getSize(scoreDirector));
+        assertFalse(moveIteratorFactory.createRandomMoveIterator(scoreDirector, new Random(37)).hasNext());
+        assertFalse(moveIteratorFactory.createOriginalMoveIterator(scoreDirector).hasNext());
+    }
+
+    private static EmployeeSchedule createSchedule(List<Employee> employees) {
+        String[] skills = { "Doctor", "Nurse", "Cardiology" };
+        List<Shift> shifts = new ArrayList<>();
+        for (int day = 0; day < 5; day++) {
+            for (int i = 0; i < 4; i++) {
+                LocalDateTime start = DAY_1.plusDays(day).atTime(6 + 8 * (i % 2), 0);
+                shifts.add(new Shift(Integer.toString(shifts.size()), start, start.plusHours(8), "Location",
+                        skills[(day + i) % skills.length], null));
+            }
+        }
+        ScheduleState scheduleState = new ScheduleState();
+        scheduleState.setLastHistoricDate(DAY_1.minusDays(1));
+        scheduleState.setFirstDraftDate(DAY_1);
+        scheduleState.setPublishLength(7);
+        scheduleState.setDraftLength(7);
+        return new EmployeeSchedule(scheduleState, List.of(), employees, shifts);
+    }
+
+    // The move iterator factory only needs the working solution.
+    @SuppressWarnings("unchecked")
+    private static ScoreDirector<EmployeeSchedule> createScoreDirector(EmployeeSchedule schedule) {
+        return (ScoreDirector<EmployeeSchedule>) Proxy.newProxyInstance(ScoreDirector.class.getClassLoader(),
+                new Class<?>[] { ScoreDirector.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("getWorkingSolution")) {
+                        return schedule;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -2,9 +2,8 @@ package org.acme.maintenancescheduling.rest;
 
 import java.util.Collection;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
+import jakarta.annotation.PreDestroy;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
@@ -24,6 +23,9 @@ import ai.timefold.solver.core.api.solver.SolverStatus;
 import org.acme.maintenancescheduling.domain.MaintenanceSchedule;
 import org.acme.maintenancescheduling.rest.exception.ErrorInfo;
 import org.acme.maintenancescheduling.rest.exception.MaintenanceScheduleSolverException;
+import org.acme.maintenancescheduling.rest.jobstore.EvictingJobStore;
+import org.acme.maintenancescheduling.rest.jobstore.JobStore;
+import org.acme.maintenancescheduling.rest.jobstore.JobStoreConfig;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
@@ -34,6 +36,8 @@ import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 @Path("schedules")
 public class MaintenanceScheduleResource {
 
@@ -44,14 +48,30 @@ public class MaintenanceScheduleResource {
     SolverManager<MaintenanceSchedule, String> solverManager;
     SolutionManager<MaintenanceSchedule, HardSoftScore> solutionManager;
 
-    // TODO: Without any "time to live", the map may eventually grow out of memory.
-    private final ConcurrentMap<String, Job> jobIdToJob = new ConcurrentHashMap<>();
+    private final JobStore<Job> jobIdToJob;
 
     @Inject
     public MaintenanceScheduleResource(SolverManager<MaintenanceSchedule, String> solverManager,
-            SolutionManager<MaintenanceSchedule, HardSoftScore> solutionManager) {
+            SolutionManager<MaintenanceSchedule, HardSoftScore> solutionManager, JobStoreConfig jobStoreConfig,
+            ObjectMapper objectMapper) {
         this.solverManager = solverManager;
         this.solutionManager = solutionManager;
+        this.jobIdToJob = new EvictingJobStore<>(jobStoreConfig.maxInMemoryJobCount(), jobStoreConfig.timeToLive(),
+                jobStoreConfig.spillDirectoryOrDefault(), objectMapper, MaintenanceSchedule.class, Job::schedule,
+                schedule -> {
+                    // The end dates are shadow variables, so they are recalculated instead of trusted from disk.
+                    solutionManager.update(schedule);
+                    return Job.ofSchedule(schedule);
+                },
+                jobId -> solverManager.getSolverStatus(jobId) != SolverStatus.NOT_SOLVING, "maintenance-schedules");
+    }
+
+    @PreDestroy
+    void closeJobStore() {
+        // Deletes the spilled jobs, which a restarted server no longer knows about.
+        if (jobIdToJob != null) {
+            jobIdToJob.close();
+        }
     }
 
     @Operation(summary = "List the job IDs of all submitted schedules.")
@@ -62,7 +82,7 @@ public class MaintenanceScheduleResource {
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public Collection<String> list() {
-        return jobIdToJob.keySet();
+        return jobIdToJob.getJobIds();
     }
 
     @Operation(summary = "Submit a schedule to start solving as soon as CPU resources are available.")
@@ -2,9 +2,8 @@ package org.acme.schooltimetabling.rest;
 
 import java.util.Collection;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
+import jakarta.annotation.PreDestroy;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
@@ -28,6 +27,9 @@ import ai.timefold.solver.core.api.solver.SolverStatus;
 import org.acme.schooltimetabling.domain.Timetable;
 import org.acme.schooltimetabling.rest.exception.ErrorInfo;
 import org.acme.schooltimetabling.rest.exception.TimetableSolverException;
+import org.acme.schooltimetabling.rest.jobstore.EvictingJobStore;
+import org.acme.schooltimetabling.rest.jobstore.JobStore;
+import org.acme.schooltimetabling.rest.jobstore.JobStoreConfig;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
@@ -39,6 +41,8 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 @Tag(name = "School Timetables", description = "School timetable service assigning lessons to rooms and timeslots.")
 @Path("timetables")
 public class TimetableResource {
@@ -48,20 +52,33 @@ public class TimetableResource {
     private final SolverManager<Timetable, String> solverManager;
     private final SolutionManager<Timetable, HardSoftScore> solutionManager;
 
-    // TODO: Without any "time to live", the map may eventually grow out of memory.
-    private final ConcurrentMap<String, Job> jobIdToJob = new ConcurrentHashMap<>();
+    private final JobStore<Job> jobIdToJob;
 
     // Workaround to make Quarkus CDI happy. Do not use.
     public TimetableResource() {
         this.solverManager = null;
         this.solutionManager = null;
+        this.jobIdToJob = null;
     }
 
     @Inject
     public TimetableResource(SolverManager<Timetable, String> solverManager,
-            SolutionManager<Timetable, HardSoftScore> solutionManager) {
+            SolutionManager<Timetable, HardSoftScore> solutionManager, JobStoreConfig jobStoreConfig,
+            ObjectMapper objectMapper) {
         this.solverManager = solverManager;
         this.solutionManager = solutionManager;
+        this.jobIdToJob = new EvictingJobStore<>(jobStoreConfig.maxInMemoryJobCount(), jobStoreConfig.timeToLive(),
+                jobStoreConfig.spillDirectoryOrDefault(), objectMapper, Timetable.class, Job::timetable,
+                Job::ofTimetable, jobId -> solverManager.getSolverStatus(jobId) != SolverStatus.NOT_SOLVING,
+                "timetables");
+    }
+
+    @PreDestroy
+    void closeJobStore() {
+        // Deletes the spilled jobs, which a restarted server no longer knows about.
+        if (jobIdToJob != null) {
+            jobIdToJob.close();
+        }
     }
 
     @Operation(summary = "List the job IDs of all submitted timetables.")
@@ -72,7 +89,7 @@ public class TimetableResource {
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public Collection<String> list() {
-        return jobIdToJob.keySet();
+        return jobIdToJob.getJobIds();
     }
 
     @Operation(summary = "Submit a timetable to start solving as soon as CPU resources are available.")
@@ -0,0 +1,462 @@
+package org.acme.schooltimetabling.rest.jobstore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * {@link JobStore} that keeps a bounded number of jobs in memory
+ * and spills the least recently used jobs that are not solving to disk, as gzipped JSON.
+ * A spilled job is read back into memory when it is used again.
+ * <p>
+ * Jobs that have not been used for longer than the time to live are removed, from memory as well as from disk,
+ * regularly in the background and whenever a job is put.
+ * Jobs that are still solving are never spilled or removed, because the solver keeps updating them.
+ * A job without a solution, for example because solving failed, is removed instead of spilled.
+ * <p>
+ * Reading and writing the files happens outside the lock of the store,
+ * so a slow disk does not block the jobs in memory.
+ * Closing the store deletes its directory.
+ *
+ * @param <Job_> the job type
+ * @param <Solution_> the solution type, written to disk
+ */
+public final class EvictingJobStore<Job_, Solution_> implements JobStore<Job_> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EvictingJobStore.class);
+
+    public static final String METER_NAME_PREFIX = "job.store";
+
+    private static final String FILE_SUFFIX = ".json.gz";
+
+    private final int maxInMemoryJobCount;
+    private final long timeToLiveMillis;
+    private final Path spillDirectory;
+    private final ObjectMapper objectMapper;
+    private final Class<Solution_> solutionClass;
+    private final Function<Job_, Solution_> jobToSolution;
+    private final Function<Solution_, Job_> solutionToJob;
+    private final Predicate<String> isSolving;
+    private final Consumer<String> removalListener;
+    private final LongSupplier clock;
+    // Null if the expired jobs are only removed when a job is put.
+    private final ScheduledExecutorService expiryExecutor;
+
+    private final Object lock = new Object();
+    // Access ordered, so the least recently used job comes first.
+    private final LinkedHashMap<String, InMemoryJob<Job_>> jobIdToInMemoryJob = new LinkedHashMap<>(16, 0.75f, true);
+    // Jobs that are being written to disk, still readable meanwhile.
+    private final Map<String, Job_> jobIdToSpillingJob = new HashMap<>();
+    // Insertion ordered, so the job that was spilled first, which was also used least recently, comes first.
+    private final LinkedHashMap<String, SpilledJob> jobIdToSpilledJob = new LinkedHashMap<>();
+    private long spilledByteCount = 0L;
+    // File names are numbered, so they never depend on a job ID that comes from a URL.
+    private long spilledFileCount = 0L;
+    private long lastExpiryMillis;
+    private boolean closed = false;
+
+    /**
+     * @param maxInMemoryJobCount at least 1, exceeded only if all jobs in memory are solving
+     * @param timeToLive never null, how long an unused job that is not solving is kept
+     * @param spillDirectory never null, a new directory is created in it for the files of this store
+     * @param objectMapper never null, reads and writes the solutions
+     * @param solutionClass never null
+     * @param jobToSolution never null, returns null if the job has no solution to spill
+     * @param solutionToJob never null, recreates a job from a solution read from disk
+     * @param isSolving never null, tests if the job with the given ID is solving or scheduled
+     * @param name never null, tags the metrics of this store
+     */
+    public EvictingJobStore(int maxInMemoryJobCount, Duration timeToLive, Path spillDirectory,
+            ObjectMapper objectMapper, Class<Solution_> solutionClass, Function<Job_, Solution_> jobToSolution,
+            Function<Solution_, Job_> solutionToJob, Predicate<String> isSolving, String name) {
+        this(maxInMemoryJobCount, timeToLive, spillDirectory, objectMapper, solutionClass, jobToSolution,
+                solutionToJob, isSolving, name, jobId -> {
+                });
+    }
+
+    /**
+     * As {@link #EvictingJobStore(int, Duration, Path, ObjectMapper, Class, Function, Function, Predicate, String)}.
+     *
+     * @param removalListener never null, called with the ID of each job that expired or was dropped,
+     *        not with those that are replaced or spilled
+     */
+    public EvictingJobStore(int maxInMemoryJobCount, Duration timeToLive, Path spillDirectory,
+            ObjectMapper objectMapper, Class<Solution_> solutionClass, Function<Job_, Solution_> jobToSolution,
+            Function<Solution_, Job_> solutionToJob, Predicate<String> isSolving, String name,
+            Consumer<String> removalListener) {
+        this(maxInMemoryJobCount, timeToLive, spillDirectory, objectMapper, solutionClass, jobToSolution,
+                solutionToJob, isSolving, name, removalListener, System::currentTimeMillis, true);
+    }
+
+    EvictingJobStore(int maxInMemoryJobCount, Duration timeToLive, Path spillDirectory,
+            ObjectMapper objectMapper, Class<Solution_> solutionClass, Function<Job_, Solution_> jobToSolution,
+            Function<Solution_, Job_> solutionToJob, Predicate<String> isSolving, String name,
+            Consumer<String> removalListener, LongSupplier clock, boolean expireInBackground) {
+        if (maxInMemoryJobCount < 1) {
+            throw new IllegalArgumentException("The maxInMemoryJobCount (%d) must be at least 1."
+                    .formatted(maxInMemoryJobCount));
+        }
+        this.maxInMemoryJobCount = maxInMemoryJobCount;
+        this.timeToLiveMillis = timeToLive.toMillis();
+        try {
+            Files.createDirectories(spillDirectory);
+            this.spillDirectory = Files.createTempDirectory(spillDirectory, name + "-");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create a directory in the spillDirectory (%s)."
+                    .formatted(spillDirectory), e);
+        }
+        this.objectMapper = objectMapper;
+        this.solutionClass = solutionClass;
+        this.jobToSolution = jobToSolution;
+        this.solutionToJob = solutionToJob;
+        this.isSolving = isSolving;
+        this.removalListener = removalListener;
+        this.clock = clock;
+        this.lastExpiryMillis = clock.getAsLong();
+        Tags tags = Tags.of("store", name);
+        Metrics.gauge(METER_NAME_PREFIX + ".jobs", tags.and("location", "memory"), this,
+                store -> store.getInMemoryJobCount());
+        Metrics.gauge(METER_NAME_PREFIX + ".jobs", tags.and("location", "disk"), this,
+                store -> store.getSpilledJobCount());
+        Metrics.gauge(METER_NAME_PREFIX + ".disk.bytes", tags, this, store -> store.getSpilledByteCount());
+        if (expireInBackground) {
+            expiryExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name + "-job-store-expiry");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long expiryPeriodMillis = Math.max(1000L, timeToLiveMillis / 10);
+            expiryExecutor.scheduleWithFixedDelay(() -> {
+                try {
+                    removeExpiredJobs();
+                } catch (RuntimeException e) {
+                    // Otherwise the executor stops running it.
+                    LOGGER.warn("Failed removing the expired jobs.", e);
+                }
+            }, expiryPeriodMillis, expiryPeriodMillis, TimeUnit.MILLISECONDS);
+        } else {
+            expiryExecutor = null;
+        }
+    }
+
+    @Override
+    public void put(String jobId, Job_ job) {
+        List<EvictedJob<Job_>> evictedJobs;
+        List<Path> obsoleteFiles = new ArrayList<>();
+        List<String> removedJobIds = new ArrayList<>();
+        synchronized (lock) {
+            long now = clock.getAsLong();
+            jobIdToInMemoryJob.put(jobId, new InMemoryJob<>(job, now));
+            jobIdToSpillingJob.remove(jobId);
+            SpilledJob spilledJob = jobIdToSpilledJob.remove(jobId);
+            if (spilledJob != null) {
+                spilledByteCount -= spilledJob.byteCount;
+                obsoleteFiles.add(spilledJob.file);
+            }
+            if (now - lastExpiryMillis >= timeToLiveMillis / 10) {
+                lastExpiryMillis = now;
+                removeExpiredJobs(now, removedJobIds, obsoleteFiles);
+            }
+            evictedJobs = evictLeastRecentlyUsedJobs(removedJobIds);
+        }
+        obsoleteFiles.forEach(EvictingJobStore::deleteFile);
+        notifyRemoved(removedJobIds);
+        evictedJobs.forEach(this::spill);
+    }
+
+    @Override
+    public Job_ get(String jobId) {
+        SpilledJob spilledJob;
+        synchronized (lock) {
+            long now = clock.getAsLong();
+            InMemoryJob<Job_> inMemoryJob = jobIdToInMemoryJob.get(jobId);
+            if (inMemoryJob != null) {
+                inMemoryJob.lastAccessMillis = now;
+                return inMemoryJob.job;
+            }
+            Job_ spillingJob = jobIdToSpillingJob.get(jobId);
+            if (spillingJob != null) {
+                return spillingJob;
+            }
+            spilledJob = jobIdToSpilledJob.get(jobId);
+            if (spilledJob == null) {
+                return null;
+            }
+        }
+        // Another thread might read the same file meanwhile, only the first one puts its job in memory.
+        Solution_ solution = read(spilledJob.file);
+        Job_ job = solution == null ? null : solutionToJob.apply(solution);
+        List<EvictedJob<Job_>> evictedJobs = null;
+        List<String> removedJobIds = new ArrayList<>();
+        synchronized (lock) {
+            if (jobIdToSpilledJob.get(jobId) == spilledJob) {
+                if (job == null) {
+                    throw new IllegalStateException("The file (%s) of job (%s) was deleted."
+                            .formatted(spilledJob.file, jobId));
+                }
+                jobIdToSpilledJob.remove(jobId);
+                spilledByteCount -= spilledJob.byteCount;
+                jobIdToInMemoryJob.put(jobId, new InMemoryJob<>(job, clock.getAsLong()));
+                evictedJobs = evictLeastRecentlyUsedJobs(removedJobIds);
+            }
+        }
+        if (evictedJobs == null) {
+            // Read, replaced or expired meanwhile, so the file might have been deleted before it was read.
+            return get(jobId);
+        }
+        deleteFile(spilledJob.file);
+        notifyRemoved(removedJobIds);
+        evictedJobs.forEach(this::spill);
+        return job;
+    }
+
+    /**
+     * Removes the jobs that have not been used for longer than the time to live.
+     * Also happens regularly in the background, unless the store was created for a test.
+     */
+    public void removeExpiredJobs() {
+        List<String> removedJobIds = new ArrayList<>();
+        List<Path> expiredFiles = new ArrayList<>();
+        synchronized (lock) {
+            long now = clock.getAsLong();
+            lastExpiryMillis = now;
+            removeExpiredJobs(now, removedJobIds, expiredFiles);
+        }
+        expiredFiles.forEach(EvictingJobStore::deleteFile);
+        notifyRemoved(removedJobIds);
+    }
+
+    /**
+     * Deletes the files of the spilled jobs and the directory of this store.
+     * The jobs in memory are kept, but no longer spilled.
+     */
+    @Override
+    public void close() {
+        if (expiryExecutor != null) {
+            expiryExecutor.shutdownNow();
+        }
+        List<Path> spilledFiles;
+        synchronized (lock) {
+            spilledFiles = new ArrayList<>(jobIdToSpilledJob.size());
+            jobIdToSpilledJob.values().forEach(spilledJob -> spilledFiles.add(spilledJob.file));
+            jobIdToSpilledJob.clear();
+            spilledByteCount = 0L;
+            closed = true;
+        }
+        spilledFiles.forEach(EvictingJobStore::deleteFile);
+        // A job that is still being spilled fails to write its file once the directory is gone, so it stays in memory.
+        deleteFile(spillDirectory);
+    }
+
+    @Override
+    public Collection<String> getJobIds() {
+        synchronized (lock) {
+            Set<String> jobIds = new LinkedHashSet<>(jobIdToInMemoryJob.keySet());
+            jobIds.addAll(jobIdToSpillingJob.keySet());
+            jobIds.addAll(jobIdToSpilledJob.keySet());
+            return jobIds;
+        }
+    }
+
+    public int getInMemoryJobCount() {
+        synchronized (lock) {
+            return jobIdToInMemoryJob.size() + jobIdToSpillingJob.size();
+        }
+    }
+
+    public int getSpilledJobCount() {
+        synchronized (lock) {
+            return jobIdToSpilledJob.size();
+        }
+    }
+
+    public long getSpilledByteCount() {
+        synchronized (lock) {
+            return spilledByteCount;
+        }
+    }
+
+    // ************************************************************************
+    // Eviction, only while holding the lock
+    // ************************************************************************
+
+    private void removeExpiredJobs(long now, List<String> removedJobIds, List<Path> expiredFiles) {
+        Iterator<Map.Entry<String, InMemoryJob<Job_>>> inMemoryIterator = jobIdToInMemoryJob.entrySet().iterator();
+        while (inMemoryIterator.hasNext()) {
+            Map.Entry<String, InMemoryJob<Job_>> entry = inMemoryIterator.next();
+            if (now - entry.getValue().lastAccessMillis < timeToLiveMillis) {
+                // The other jobs have been used more recently.
+                break;
+            }
+            if (!isSolving.test(entry.getKey())) {
+                inMemoryIterator.remove();
+                removedJobIds.add(entry.getKey());
+            }
+        }
+        Iterator<Map.Entry<String, SpilledJob>> spilledIterator = jobIdToSpilledJob.entrySet().iterator();
+        while (spilledIterator.hasNext()) {
+            Map.Entry<String, SpilledJob> entry = spilledIterator.next();
+            SpilledJob spilledJob = entry.getValue();
+            if (now - spilledJob.lastAccessMillis < timeToLiveMillis) {
+                break;
+            }
+            spilledIterator.remove();
+            spilledByteCount -= spilledJob.byteCount;
+            removedJobIds.add(entry.getKey());
+            expiredFiles.add(spilledJob.file);
+        }
+    }
+
+    private List<EvictedJob<Job_>> evictLeastRecentlyUsedJobs(List<String> removedJobIds) {
+        int excessJobCount = jobIdToInMemoryJob.size() - maxInMemoryJobCount;
+        if (excessJobCount <= 0 || closed) {
+            return List.of();
+        }
+        List<EvictedJob<Job_>> evictedJobs = new ArrayList<>(excessJobCount);
+        Iterator<Map.Entry<String, InMemoryJob<Job_>>> iterator = jobIdToInMemoryJob.entrySet().iterator();
+        while (excessJobCount > 0 && iterator.hasNext()) {
+            Map.Entry<String, InMemoryJob<Job_>> entry = iterator.next();
+            String jobId = entry.getKey();
+            if (isSolving.test(jobId)) {
+                continue;
+            }
+            iterator.remove();
+            excessJobCount--;
+            InMemoryJob<Job_> inMemoryJob = entry.getValue();
+            if (jobToSolution.apply(inMemoryJob.job) != null) {
+                jobIdToSpillingJob.put(jobId, inMemoryJob.job);
+                Path file = spillDirectory.resolve(spilledFileCount++ + FILE_SUFFIX);
+                evictedJobs.add(new EvictedJob<>(jobId, inMemoryJob.job, inMemoryJob.lastAccessMillis, file));
+            } else {
+                removedJobIds.add(jobId);
+            }
+        }
+        return evictedJobs;
+    }
+
+    // Never while holding the lock, and never fails, like deleteFile().
+    private void notifyRemoved(List<String> removedJobIds) {
+        for (String jobId : removedJobIds) {
+            try {
+                removalListener.accept(jobId);
+            } catch (RuntimeException e) {
+                LOGGER.warn("The removal listener failed for job ({}).", jobId, e);
+            }
+        }
+    }
+
+    // ************************************************************************
+    // Disk access, never while holding the lock
+    // ************************************************************************
+
+    private void spill(EvictedJob<Job_> evictedJob) {
+        String jobId = evictedJob.jobId;
+        long byteCount;
+        try {
+            byteCount = write(evictedJob.file, jobToSolution.apply(evictedJob.job));
+        } catch (UncheckedIOException e) {
+            LOGGER.warn("Keeping job ({}) in memory, because it cannot be spilled.", jobId, e);
+            synchronized (lock) {
+                if (jobIdToSpillingJob.get(jobId) == evictedJob.job) {
+                    jobIdToSpillingJob.remove(jobId);
+                    jobIdToInMemoryJob.put(jobId, new InMemoryJob<>(evictedJob.job, evictedJob.lastAccessMillis));
+                }
+            }
+            deleteFile(evictedJob.file);
+            return;
+        }
+        synchronized (lock) {
+            if (jobIdToSpillingJob.get(jobId) == evictedJob.job) {
+                jobIdToSpillingJob.remove(jobId);
+                jobIdToSpilledJob.put(jobId, new SpilledJob(evictedJob.file, byteCount, evictedJob.lastAccessMillis));
+                spilledByteCount += byteCount;
+                return;
+            }
+        }
+        // Replaced meanwhile, so the file is already outdated.
+        deleteFile(evictedJob.file);
+    }
+
+    private long write(Path file, Solution_ solution) {
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            objectMapper.writeValue(out, solution);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write the solution to file (%s).".formatted(file), e);
+        }
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the size of file (%s).".formatted(file), e);
+        }
+    }
+
+    /**
+     * @return null if the file no longer exists
+     */
+    private Solution_ read(Path file) {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return objectMapper.readValue(in, solutionClass);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the solution from file (%s).".formatted(file), e);
+        }
+    }
+
+    // Never fails, because a put() of the solver's best solution consumer must not fail on an obsolete file.
+    private static void deleteFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.warn("Cannot delete file ({}).", file, e);
+        }
+    }
+
+    private static final class InMemoryJob<Job_> {
+
+        private final Job_ job;
+        private long lastAccessMillis;
+
+        private InMemoryJob(Job_ job, long lastAccessMillis) {
+            this.job = job;
+            this.lastAccessMillis = lastAccessMillis;
+        }
+    }
+
+    private record EvictedJob<Job_>(String jobId, Job_ job, long lastAccessMillis, Path file) {
+    }
+
+    private record SpilledJob(Path file, long byteCount, long lastAccessMillis) {
+    }
+}
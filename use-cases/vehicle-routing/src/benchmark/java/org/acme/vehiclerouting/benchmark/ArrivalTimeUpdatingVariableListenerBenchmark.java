@@ -0,0 +1,110 @@
+package org.acme.vehiclerouting.benchmark;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+
+import org.acme.vehiclerouting.domain.Location;
+import org.acme.vehiclerouting.domain.Vehicle;
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.acme.vehiclerouting.domain.Visit;
+import org.acme.vehiclerouting.domain.geo.HaversineDrivingTimeCalculator;
+import org.acme.vehiclerouting.solver.ArrivalTimeUpdatingVariableListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Moves per second of the {@link ArrivalTimeUpdatingVariableListener} on a single long route.
+ * <p>
+ * Each move swaps two adjacent visits, like a small list change move of the solver,
+ * after which the listener recalculates the arrival times of the rest of the route.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ArrivalTimeUpdatingVariableListenerBenchmark {
+
+    private static final int MOVE_COUNT = 1 << 12;
+
+    @Param({ "50", "200", "1000" })
+    int routeLength;
+
+    private final ArrivalTimeUpdatingVariableListener listener = new ArrivalTimeUpdatingVariableListener();
+    private final ScoreDirector<VehicleRoutePlan> scoreDirector = new NoChangeTrackingScoreDirector();
+    private List<Visit> route;
+    private int[] swapIndexes;
+    private int move = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(0);
+        List<Location> locations = BenchmarkData.generateLocations(routeLength + 1, random);
+        HaversineDrivingTimeCalculator.getInstance().initDrivingTimeMaps(locations);
+
+        LocalDateTime departureTime = LocalDateTime.of(2024, 1, 1, 7, 0);
+        Vehicle vehicle = new Vehicle("0", Integer.MAX_VALUE, locations.get(0), departureTime);
+        route = new ArrayList<>(routeLength);
+        for (int i = 1; i <= routeLength; i++) {
+            // Alternate morning and afternoon windows, so that some visits have to wait before their service starts.
+            LocalDateTime minStartTime = LocalDateTime.of(departureTime.toLocalDate(),
+                    i % 2 == 0 ? LocalTime.of(8, 0) : LocalTime.of(13, 0));
+            route.add(new Visit(Integer.toString(i), "Visit " + i, locations.get(i), 1,
+                    minStartTime, minStartTime.plusHours(4), Duration.ofMinutes(5 + random.nextInt(26))));
+        }
+        vehicle.setVisits(route);
+        for (int i = 0; i < routeLength; i++) {
+            Visit visit = route.get(i);
+            visit.setVehicle(vehicle);
+            visit.setPreviousVisit(i == 0 ? null : route.get(i - 1));
+            visit.setNextVisit(i == routeLength - 1 ? null : route.get(i + 1));
+        }
+        listener.afterVariableChanged(scoreDirector, route.get(0));
+
+        swapIndexes = new int[MOVE_COUNT];
+        for (int i = 0; i < MOVE_COUNT; i++) {
+            swapIndexes[i] = random.nextInt(routeLength - 1);
+        }
+    }
+
+    @Benchmark
+    public Visit swapAdjacentVisits() {
+        int index = swapIndexes[move++ & (MOVE_COUNT - 1)];
+        Visit first = route.get(index);
+        Visit second = route.get(index + 1);
+        Visit previous = first.getPreviousVisit();
+        Visit next = second.getNextVisit();
+        route.set(index, second);
+        route.set(index + 1, first);
+        second.setPreviousVisit(previous);
+        second.setNextVisit(first);
+        first.setPreviousVisit(second);
+        first.setNextVisit(next);
+        if (previous != null) {
+            previous.setNextVisit(second);
+        }
+        if (next != null) {
+            next.setPreviousVisit(first);
+        }
+        listener.afterVariableChanged(scoreDirector, second);
+        return route.get(routeLength - 1);
+    }
+}
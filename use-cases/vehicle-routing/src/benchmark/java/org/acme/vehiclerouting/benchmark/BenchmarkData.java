@@ -0,0 +1,29 @@
+package org.acme.vehiclerouting.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.acme.vehiclerouting.domain.Location;
+
+final class BenchmarkData {
+
+    // Roughly the Philadelphia demo data area, so that driving times stay realistic for a day of driving.
+    private static final double MIN_LATITUDE = 39.7656099067391;
+    private static final double MAX_LATITUDE = 40.77636644354855;
+    private static final double MIN_LONGITUDE = -76.83782328143754;
+    private static final double MAX_LONGITUDE = -74.9300739430771;
+
+    static List<Location> generateLocations(int count, Random random) {
+        List<Location> locations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            locations.add(new Location(
+                    MIN_LATITUDE + random.nextDouble() * (MAX_LATITUDE - MIN_LATITUDE),
+                    MIN_LONGITUDE + random.nextDouble() * (MAX_LONGITUDE - MIN_LONGITUDE)));
+        }
+        return locations;
+    }
+
+    private BenchmarkData() {
+    }
+}
@@ -0,0 +1,68 @@
+package org.acme.vehiclerouting.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.acme.vehiclerouting.domain.Location;
+import org.acme.vehiclerouting.domain.geo.HaversineDrivingTimeCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Driving times per microsecond, calculated as the crow flies and looked up in the dense matrix.
+ * Both run for every pair of consecutive visits that a move touches, so neither should allocate.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DrivingTimeBenchmark {
+
+    private static final int LOOKUP_COUNT = 1 << 16;
+
+    // The matrix of the largest size no longer fits in the CPU caches.
+    @Param({ "1000", "10000" })
+    int locationCount;
+
+    private Location[] fromLocations;
+    private Location[] toLocations;
+    private int lookup = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(0);
+        List<Location> locations = BenchmarkData.generateLocations(locationCount, random);
+        HaversineDrivingTimeCalculator.getInstance().initDrivingTimeMaps(locations);
+        fromLocations = new Location[LOOKUP_COUNT];
+        toLocations = new Location[LOOKUP_COUNT];
+        for (int i = 0; i < LOOKUP_COUNT; i++) {
+            fromLocations[i] = locations.get(random.nextInt(locationCount));
+            toLocations[i] = locations.get(random.nextInt(locationCount));
+        }
+    }
+
+    @Benchmark
+    public long haversine() {
+        int i = lookup++ & (LOOKUP_COUNT - 1);
+        return HaversineDrivingTimeCalculator.getInstance().calculateDrivingTime(fromLocations[i], toLocations[i]);
+    }
+
+    @Benchmark
+    public long drivingTimeTo() {
+        int i = lookup++ & (LOOKUP_COUNT - 1);
+        return fromLocations[i].getDrivingTimeTo(toLocations[i]);
+    }
+}
@@ -0,0 +1,105 @@
+package org.acme.vehiclerouting.benchmark;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.acme.vehiclerouting.domain.Location;
+import org.acme.vehiclerouting.domain.Vehicle;
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.acme.vehiclerouting.domain.Visit;
+import org.acme.vehiclerouting.domain.geo.DrivingTimeMatrix;
+import org.acme.vehiclerouting.domain.geo.HaversineDrivingTimeCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Matrix build time of a route plan whose visits are partly at the same address,
+ * with a matrix row per visit (as before interning) and with a row per unique address.
+ * The heap taken by both dense matrices is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+public class LocationInterningBenchmark {
+
+    private static final LocalDateTime DEPARTURE_TIME = LocalDateTime.of(2024, 1, 1, 7, 0);
+
+    @Param({ "5000", "10000" })
+    int visitCount;
+
+    @Param({ "40" })
+    int duplicatePercentage;
+
+    private List<Location> uniqueLocations;
+    private int[] locationIndexes;
+    private List<Vehicle> vehicles;
+    private List<Visit> visits;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        int uniqueLocationCount = visitCount * (100 - duplicatePercentage) / 100;
+        uniqueLocations = BenchmarkData.generateLocations(uniqueLocationCount, new Random(0));
+        // Every address has at least one visit, the duplicates are spread randomly over them.
+        Random random = new Random(1);
+        locationIndexes = new int[visitCount];
+        for (int i = 0; i < visitCount; i++) {
+            locationIndexes[i] = i < uniqueLocationCount ? i : random.nextInt(uniqueLocationCount);
+        }
+        // The depots are at some of those addresses too.
+        int perVisitSize = visitCount + visitCount / 100;
+        System.out.printf("%nA dense matrix per visit takes %.1f MB, per unique address (%d) %.1f MB.%n",
+                4.0 * perVisitSize * perVisitSize / 1e6, uniqueLocationCount,
+                4.0 * uniqueLocationCount * uniqueLocationCount / 1e6);
+    }
+
+    /**
+     * Every visit has its own location instance, as it does after deserialization.
+     */
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        vehicles = new ArrayList<>(visitCount / 100);
+        for (int i = 0; i < visitCount / 100; i++) {
+            Location depot = uniqueLocations.get(i);
+            vehicles.add(new Vehicle(Integer.toString(i), 100, new Location(depot.getLatitude(), depot.getLongitude()),
+                    DEPARTURE_TIME));
+        }
+        visits = new ArrayList<>(visitCount);
+        for (int i = 0; i < visitCount; i++) {
+            Location address = uniqueLocations.get(locationIndexes[i]);
+            visits.add(new Visit(Integer.toString(i), "Visit " + i,
+                    new Location(address.getLatitude(), address.getLongitude()), 1, DEPARTURE_TIME,
+                    DEPARTURE_TIME.plusHours(10), Duration.ofMinutes(10)));
+        }
+    }
+
+    @Benchmark
+    public DrivingTimeMatrix buildPerVisit() {
+        List<Location> locations = Stream.concat(vehicles.stream().map(Vehicle::getHomeLocation),
+                visits.stream().map(Visit::getLocation)).toList();
+        return HaversineDrivingTimeCalculator.getInstance().calculateBulkDrivingTime(locations);
+    }
+
+    @Benchmark
+    public VehicleRoutePlan buildInterned() {
+        return new VehicleRoutePlan("benchmark", null, null, DEPARTURE_TIME, DEPARTURE_TIME.plusDays(1), vehicles,
+                visits);
+    }
+}
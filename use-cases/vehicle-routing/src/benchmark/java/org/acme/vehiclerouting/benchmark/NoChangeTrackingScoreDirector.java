@@ -0,0 +1,62 @@
+package org.acme.vehiclerouting.benchmark;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+
+/**
+ * Ignores the variable change notifications, so that only a variable listener itself is measured.
+ */
+final class NoChangeTrackingScoreDirector implements ScoreDirector<VehicleRoutePlan> {
+
+    @Override
+    public VehicleRoutePlan getWorkingSolution() {
+        return null;
+    }
+
+    @Override
+    public void beforeVariableChanged(Object entity, String variableName) {
+    }
+
+    @Override
+    public void afterVariableChanged(Object entity, String variableName) {
+    }
+
+    @Override
+    public void beforeListVariableElementAssigned(Object entity, String variableName, Object element) {
+    }
+
+    @Override
+    public void afterListVariableElementAssigned(Object entity, String variableName, Object element) {
+    }
+
+    @Override
+    public void beforeListVariableElementUnassigned(Object entity, String variableName, Object element) {
+    }
+
+    @Override
+    public void afterListVariableElementUnassigned(Object entity, String variableName, Object element) {
+    }
+
+    @Override
+    public void beforeListVariableChanged(Object entity, String variableName, int fromIndex, int toIndex) {
+    }
+
+    @Override
+    public void afterListVariableChanged(Object entity, String variableName, int fromIndex, int toIndex) {
+    }
+
+    @Override
+    public void triggerVariableListeners() {
+    }
+
+    @Override
+    public <E> E lookUpWorkingObject(E externalObject) {
+        return externalObject;
+    }
+
+    @Override
+    public <E> E lookUpWorkingObjectOrReturnNull(E externalObject) {
+        return externalObject;
+    }
+}
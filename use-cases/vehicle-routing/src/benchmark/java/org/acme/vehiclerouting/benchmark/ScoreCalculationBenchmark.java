@@ -0,0 +1,173 @@
+package org.acme.vehiclerouting.benchmark;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.impl.score.director.InnerScoreDirector;
+import ai.timefold.solver.core.impl.solver.DefaultSolverFactory;
+
+import org.acme.vehiclerouting.domain.Location;
+import org.acme.vehiclerouting.domain.Vehicle;
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.acme.vehiclerouting.domain.Visit;
+import org.acme.vehiclerouting.solver.VehicleRoutingConstraintProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Score calculations per second of the {@link VehicleRoutingConstraintProvider} on long routes,
+ * with the incremental score director the solver uses, including the variable listeners.
+ * <p>
+ * Each operation does a move like the solver's list swap and list change moves,
+ * triggers the variable listeners and calculates the score.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ScoreCalculationBenchmark {
+
+    private static final String VISITS = "visits";
+    private static final int MOVE_COUNT = 1 << 12;
+    private static final Duration TIME_SLOT = Duration.ofHours(3);
+
+    @Param({ "200" })
+    int routeLength;
+
+    @Param({ "10" })
+    int vehicleCount;
+
+    private InnerScoreDirector<VehicleRoutePlan, HardSoftLongScore> scoreDirector;
+    private List<Vehicle> vehicles;
+    private int[] randomNumbers;
+    private int move = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(0);
+        List<Location> locations = BenchmarkData.generateLocations(vehicleCount * (routeLength + 1), random);
+        LocalDateTime departureTime = LocalDateTime.of(2024, 1, 1, 7, 0);
+        vehicles = new ArrayList<>(vehicleCount);
+        List<Visit> visits = new ArrayList<>(vehicleCount * routeLength);
+        for (int i = 0; i < vehicleCount; i++) {
+            vehicles.add(new Vehicle(Integer.toString(i), 2 * routeLength, locations.get(i), departureTime));
+        }
+        for (int i = 0; i < vehicleCount * routeLength; i++) {
+            // Each position of a route gets its own time slot, long enough to drive across the area,
+            // so that a vehicle mostly waits for the next slot and a move only shifts a few arrival times,
+            // like on a real route with time windows.
+            LocalDateTime minStartTime = departureTime.plus(TIME_SLOT.multipliedBy(1 + i % routeLength));
+            visits.add(new Visit(Integer.toString(i), "Visit " + i, locations.get(vehicleCount + i),
+                    1 + random.nextInt(3), minStartTime, minStartTime.plus(TIME_SLOT), Duration.ofMinutes(10)));
+        }
+        for (int i = 0; i < visits.size(); i++) {
+            Vehicle vehicle = vehicles.get(i / routeLength);
+            Visit visit = visits.get(i);
+            Visit previousVisit = i % routeLength == 0 ? null : visits.get(i - 1);
+            visit.setVehicle(vehicle);
+            visit.setPreviousVisit(previousVisit);
+            if (previousVisit != null) {
+                previousVisit.setNextVisit(visit);
+            }
+            vehicle.getVisits().add(visit);
+        }
+        VehicleRoutePlan plan = new VehicleRoutePlan("benchmark", null, null, departureTime,
+                departureTime.plusDays(1), vehicles, visits);
+
+        SolverConfig solverConfig = new SolverConfig()
+                .withSolutionClass(VehicleRoutePlan.class)
+                .withEntityClasses(Vehicle.class, Visit.class)
+                .withConstraintProviderClass(VehicleRoutingConstraintProvider.class);
+        DefaultSolverFactory<VehicleRoutePlan> solverFactory =
+                (DefaultSolverFactory<VehicleRoutePlan>) SolverFactory.<VehicleRoutePlan> create(solverConfig);
+        scoreDirector = solverFactory.<HardSoftLongScore> getScoreDirectorFactory().buildScoreDirector(false, false);
+        scoreDirector.setWorkingSolution(plan);
+        scoreDirector.forceTriggerVariableListeners();
+        System.out.printf("%nInitial score: %s%n", scoreDirector.calculateScore());
+
+        randomNumbers = new int[MOVE_COUNT];
+        for (int i = 0; i < MOVE_COUNT; i++) {
+            randomNumbers[i] = random.nextInt(Integer.MAX_VALUE);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scoreDirector.close();
+    }
+
+    private int nextRandom(int bound) {
+        return randomNumbers[move++ & (MOVE_COUNT - 1)] % bound;
+    }
+
+    /**
+     * Swaps two adjacent visits of a route.
+     */
+    @Benchmark
+    public HardSoftLongScore swapMove() {
+        Vehicle vehicle = vehicles.get(nextRandom(vehicleCount));
+        List<Visit> route = vehicle.getVisits();
+        if (route.size() < 2) {
+            return scoreDirector.calculateScore();
+        }
+        int index = nextRandom(route.size() - 1);
+        scoreDirector.beforeListVariableChanged(vehicle, VISITS, index, index + 2);
+        route.set(index, route.set(index + 1, route.get(index)));
+        scoreDirector.afterListVariableChanged(vehicle, VISITS, index, index + 2);
+        scoreDirector.triggerVariableListeners();
+        return scoreDirector.calculateScore();
+    }
+
+    /**
+     * Moves a visit to another position, possibly of another route.
+     */
+    @Benchmark
+    public HardSoftLongScore changeMove() {
+        Vehicle sourceVehicle = vehicles.get(nextRandom(vehicleCount));
+        List<Visit> sourceRoute = sourceVehicle.getVisits();
+        if (sourceRoute.isEmpty()) {
+            return scoreDirector.calculateScore();
+        }
+        int sourceIndex = nextRandom(sourceRoute.size());
+        Vehicle destinationVehicle = vehicles.get(nextRandom(vehicleCount));
+        List<Visit> destinationRoute = destinationVehicle.getVisits();
+        if (sourceVehicle == destinationVehicle) {
+            int destinationIndex = nextRandom(sourceRoute.size());
+            int fromIndex = Math.min(sourceIndex, destinationIndex);
+            int toIndex = Math.max(sourceIndex, destinationIndex) + 1;
+            scoreDirector.beforeListVariableChanged(sourceVehicle, VISITS, fromIndex, toIndex);
+            sourceRoute.add(destinationIndex, sourceRoute.remove(sourceIndex));
+            scoreDirector.afterListVariableChanged(sourceVehicle, VISITS, fromIndex, toIndex);
+        } else {
+            int destinationIndex = nextRandom(destinationRoute.size() + 1);
+            scoreDirector.beforeListVariableChanged(sourceVehicle, VISITS, sourceIndex, sourceIndex + 1);
+            Visit visit = sourceRoute.remove(sourceIndex);
+            scoreDirector.afterListVariableChanged(sourceVehicle, VISITS, sourceIndex, sourceIndex);
+            scoreDirector.beforeListVariableChanged(destinationVehicle, VISITS, destinationIndex, destinationIndex);
+            destinationRoute.add(destinationIndex, visit);
+            scoreDirector.afterListVariableChanged(destinationVehicle, VISITS, destinationIndex, destinationIndex + 1);
+        }
+        scoreDirector.triggerVariableListeners();
+        return scoreDirector.calculateScore();
+    }
+}
@@ -0,0 +1,113 @@
+package org.acme.vehiclerouting.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.acme.vehiclerouting.domain.Location;
+import org.acme.vehiclerouting.domain.geo.HaversineDrivingTimeCalculator;
+import org.acme.vehiclerouting.domain.geo.NearestNeighbourIndex;
+import org.acme.vehiclerouting.domain.geo.SparseDrivingTimeMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Build time, retained heap and lookup throughput of the {@link SparseDrivingTimeMatrix}.
+ * The retained heap is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SparseDrivingTimeMatrixBenchmark {
+
+    private static final int LOOKUP_COUNT = 1 << 16;
+
+    @Param({ "10000", "50000", "100000" })
+    int locationCount;
+
+    private List<Location> locations;
+    private SparseDrivingTimeMatrix drivingTimeMatrix;
+    private int[] neighbourFromIndexes;
+    private int[] neighbourToIndexes;
+    private int[] randomFromIndexes;
+    private int[] randomToIndexes;
+    private int lookup = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        locations = BenchmarkData.generateLocations(locationCount, new Random(0));
+
+        MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long usedHeapBefore = memoryMXBean.getHeapMemoryUsage().getUsed();
+        drivingTimeMatrix = buildSparseMatrix();
+        System.gc();
+        long usedHeapAfter = memoryMXBean.getHeapMemoryUsage().getUsed();
+        System.out.printf("%nSparse matrix of %d locations retains %.1f MB (a dense matrix would take %.1f MB).%n",
+                locationCount, (usedHeapAfter - usedHeapBefore) / 1e6, 4.0 * locationCount * locationCount / 1e6);
+
+        Random random = new Random(1);
+        NearestNeighbourIndex nearestNeighbourIndex = new NearestNeighbourIndex(locations);
+        neighbourFromIndexes = new int[LOOKUP_COUNT];
+        neighbourToIndexes = new int[LOOKUP_COUNT];
+        randomFromIndexes = new int[LOOKUP_COUNT];
+        randomToIndexes = new int[LOOKUP_COUNT];
+        for (int i = 0; i < LOOKUP_COUNT; i++) {
+            int from = random.nextInt(locationCount);
+            int[] neighbours = nearestNeighbourIndex.findNearestNeighbours(from, 8);
+            neighbourFromIndexes[i] = from;
+            neighbourToIndexes[i] = neighbours[random.nextInt(neighbours.length)];
+            randomFromIndexes[i] = random.nextInt(locationCount);
+            randomToIndexes[i] = random.nextInt(locationCount);
+        }
+    }
+
+    private SparseDrivingTimeMatrix buildSparseMatrix() {
+        return new SparseDrivingTimeMatrix(locations, HaversineDrivingTimeCalculator.getInstance(),
+                SparseDrivingTimeMatrix.DEFAULT_NEIGHBOUR_COUNT, SparseDrivingTimeMatrix.DEFAULT_CACHE_SIZE);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public SparseDrivingTimeMatrix build() {
+        return buildSparseMatrix();
+    }
+
+    /**
+     * The typical lookup of a good route: the next visit is one of the nearest neighbours.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long neighbourLookup() {
+        int i = lookup++ & (LOOKUP_COUNT - 1);
+        return drivingTimeMatrix.getDrivingTime(neighbourFromIndexes[i], neighbourToIndexes[i]);
+    }
+
+    /**
+     * The worst case lookup: an arbitrary pair, mostly calculated on demand or found in the cache.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long randomLookup() {
+        int i = lookup++ & (LOOKUP_COUNT - 1);
+        return drivingTimeMatrix.getDrivingTime(randomFromIndexes[i], randomToIndexes[i]);
+    }
+}
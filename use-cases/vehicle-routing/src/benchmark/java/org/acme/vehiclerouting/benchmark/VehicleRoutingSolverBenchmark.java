@@ -0,0 +1,45 @@
+package org.acme.vehiclerouting.benchmark;
+
+import java.io.File;
+import java.util.Arrays;
+
+import ai.timefold.solver.benchmark.api.PlannerBenchmark;
+import ai.timefold.solver.benchmark.api.PlannerBenchmarkFactory;
+
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.acme.vehiclerouting.domain.geo.ArrayDrivingTimeMatrix;
+import org.acme.vehiclerouting.domain.geo.DrivingTimeMatrixMode;
+import org.acme.vehiclerouting.rest.VehicleRouteDemoResource;
+import org.acme.vehiclerouting.rest.VehicleRouteDemoResource.DemoData;
+
+/**
+ * Runs the solver configurations of {@code vehicleRoutingBenchmarkConfig.xml}
+ * on route plans of 1 000 up to 50 000 visits, generated like the {@link DemoData#PHILADELPHIA} demo data.
+ * The HTML report, with the best score over time, the score calculation speed and the memory use,
+ * is written to {@code target/benchmarks}.
+ * <p>
+ * The arguments override the visit counts, for example {@code 1000 5000} for a quicker run.
+ */
+public final class VehicleRoutingSolverBenchmark {
+
+    private static final String BENCHMARK_CONFIG = "org/acme/vehiclerouting/benchmark/vehicleRoutingBenchmarkConfig.xml";
+    private static final int[] DEFAULT_VISIT_COUNTS = { 1_000, 5_000, 10_000, 50_000 };
+
+    public static void main(String[] args) {
+        int[] visitCounts = args.length == 0 ? DEFAULT_VISIT_COUNTS
+                : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        VehicleRouteDemoResource demoDataGenerator = new VehicleRouteDemoResource();
+        VehicleRoutePlan[] problems = Arrays.stream(visitCounts)
+                .mapToObj(visitCount -> demoDataGenerator.build(DemoData.PHILADELPHIA, visitCount,
+                        // The vehicles add about 10% locations, which a dense matrix of 50 000 visits cannot hold.
+                        visitCount * 11 / 10 > ArrayDrivingTimeMatrix.MAX_SIZE ? DrivingTimeMatrixMode.SPARSE : null))
+                .toArray(VehicleRoutePlan[]::new);
+        PlannerBenchmark benchmark = PlannerBenchmarkFactory.createFromXmlResource(BENCHMARK_CONFIG)
+                .buildPlannerBenchmark(problems);
+        File benchmarkDirectory = benchmark.benchmark();
+        System.out.printf("The benchmark report is in %s.%n", benchmarkDirectory.getAbsolutePath());
+    }
+
+    private VehicleRoutingSolverBenchmark() {
+    }
+}
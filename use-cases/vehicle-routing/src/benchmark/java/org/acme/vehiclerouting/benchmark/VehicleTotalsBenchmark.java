@@ -0,0 +1,94 @@
+package org.acme.vehiclerouting.benchmark;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+
+import org.acme.vehiclerouting.domain.Location;
+import org.acme.vehiclerouting.domain.Vehicle;
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.acme.vehiclerouting.domain.Visit;
+import org.acme.vehiclerouting.domain.geo.HaversineDrivingTimeCalculator;
+import org.acme.vehiclerouting.solver.VehicleTotalsUpdatingVariableListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Operations per second on the {@link Vehicle#getTotalDrivingTimeSeconds() total driving time} of a single long route,
+ * which the {@link VehicleTotalsUpdatingVariableListener} keeps up to date.
+ * <p>
+ * The incremental update after swapping two adjacent visits only looks at the changed part of the route,
+ * so unlike the full recalculation it should not depend on the route length.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class VehicleTotalsBenchmark {
+
+    private static final int MOVE_COUNT = 1 << 12;
+
+    @Param({ "50", "200", "1000" })
+    int routeLength;
+
+    private final VehicleTotalsUpdatingVariableListener listener = new VehicleTotalsUpdatingVariableListener();
+    private final ScoreDirector<VehicleRoutePlan> scoreDirector = new NoChangeTrackingScoreDirector();
+    private Vehicle vehicle;
+    private List<Visit> route;
+    private int[] swapIndexes;
+    private int move = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(0);
+        List<Location> locations = BenchmarkData.generateLocations(routeLength + 1, random);
+        HaversineDrivingTimeCalculator.getInstance().initDrivingTimeMaps(locations);
+
+        LocalDateTime departureTime = LocalDateTime.of(2024, 1, 1, 7, 0);
+        vehicle = new Vehicle("0", Integer.MAX_VALUE, locations.get(0), departureTime);
+        route = new ArrayList<>(routeLength);
+        for (int i = 1; i <= routeLength; i++) {
+            route.add(new Visit(Integer.toString(i), "Visit " + i, locations.get(i), 1 + random.nextInt(3),
+                    departureTime, departureTime.plusHours(10), Duration.ofMinutes(10)));
+        }
+        vehicle.setVisits(route);
+        VehicleTotalsUpdatingVariableListener.updateTotals(vehicle);
+
+        swapIndexes = new int[MOVE_COUNT];
+        for (int i = 0; i < MOVE_COUNT; i++) {
+            swapIndexes[i] = random.nextInt(routeLength - 1);
+        }
+    }
+
+    @Benchmark
+    public Long swapAdjacentVisits() {
+        int index = swapIndexes[move++ & (MOVE_COUNT - 1)];
+        listener.beforeListVariableChanged(scoreDirector, vehicle, index, index + 2);
+        route.set(index, route.set(index + 1, route.get(index)));
+        listener.afterListVariableChanged(scoreDirector, vehicle, index, index + 2);
+        return vehicle.getTotalDrivingTimeSeconds();
+    }
+
+    @Benchmark
+    public Long recalculate() {
+        VehicleTotalsUpdatingVariableListener.updateTotals(vehicle);
+        return vehicle.getTotalDrivingTimeSeconds();
+    }
+}
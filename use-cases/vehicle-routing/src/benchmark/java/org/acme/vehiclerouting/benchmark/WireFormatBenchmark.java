@@ -0,0 +1,123 @@
+package org.acme.vehiclerouting.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.acme.vehiclerouting.domain.Vehicle;
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.acme.vehiclerouting.domain.Visit;
+import org.acme.vehiclerouting.domain.geo.DrivingTimeMatrixMode;
+import org.acme.vehiclerouting.rest.SmileMessageBodyProvider;
+import org.acme.vehiclerouting.rest.VehicleRouteDemoResource;
+import org.acme.vehiclerouting.rest.VehicleRouteDemoResource.DemoData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writing and reading a route plan as JSON and as Smile, each with and without gzip.
+ * The payload size of each is printed once per trial.
+ * <p>
+ * Reading a route plan also builds its driving time matrix, which costs the same for every format,
+ * so {@link #parse()} measures the reading without it.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class WireFormatBenchmark {
+
+    public enum WireFormat {
+        JSON,
+        JSON_GZIP,
+        SMILE,
+        SMILE_GZIP
+    }
+
+    @Param({ "1000", "10000" })
+    int visitCount;
+
+    @Param
+    WireFormat wireFormat;
+
+    private ObjectMapper objectMapper;
+    private boolean gzip;
+    private VehicleRoutePlan routePlan;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        // The same configuration as Quarkus gives its JSON mapper.
+        ObjectMapper jsonMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        objectMapper = switch (wireFormat) {
+            case JSON, JSON_GZIP -> jsonMapper;
+            case SMILE, SMILE_GZIP -> SmileMessageBodyProvider.buildSmileMapper(jsonMapper);
+        };
+        gzip = wireFormat == WireFormat.JSON_GZIP || wireFormat == WireFormat.SMILE_GZIP;
+        // A sparse matrix keeps the matrix build out of the way for both sizes.
+        routePlan = new VehicleRouteDemoResource().build(DemoData.PHILADELPHIA, visitCount,
+                DrivingTimeMatrixMode.SPARSE);
+        // Assigned like a solution, so the vehicles refer to all visits.
+        List<Vehicle> vehicles = routePlan.getVehicles();
+        List<Visit> visits = routePlan.getVisits();
+        for (int i = 0; i < visits.size(); i++) {
+            vehicles.get(i % vehicles.size()).getVisits().add(visits.get(i));
+        }
+        payload = write();
+        System.out.printf("%n%s of %d visits takes %.1f kB.%n", wireFormat, visitCount, payload.length / 1e3);
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream(payload == null ? 1 << 16 : payload.length);
+        try (OutputStream outputStream = gzip ? new GZIPOutputStream(byteStream) : byteStream) {
+            objectMapper.writeValue(outputStream, routePlan);
+        }
+        return byteStream.toByteArray();
+    }
+
+    @Benchmark
+    public JsonNode parse() throws IOException {
+        try (InputStream inputStream = openPayload()) {
+            return objectMapper.readTree(inputStream);
+        }
+    }
+
+    @Benchmark
+    public VehicleRoutePlan read() throws IOException {
+        try (InputStream inputStream = openPayload()) {
+            return objectMapper.readValue(inputStream, VehicleRoutePlan.class);
+        }
+    }
+
+    private InputStream openPayload() throws IOException {
+        InputStream inputStream = new ByteArrayInputStream(payload);
+        return gzip ? new GZIPInputStream(inputStream) : inputStream;
+    }
+}
@@ -1,6 +1,9 @@
 package org.acme.vehiclerouting.domain;
 
-import java.util.Map;
+import java.util.List;
+
+import org.acme.vehiclerouting.domain.geo.DrivingTimeMatrix;
+import org.acme.vehiclerouting.domain.geo.DrivingTimeProfile;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonFormat;
@@ -14,7 +17,13 @@ public class Location {
     private double longitude;
 
     @JsonIgnore
-    private Map<Location, Long> drivingTimeSeconds;
+    private DrivingTimeMatrix drivingTimeMatrix;
+    @JsonIgnore
+    private int index;
+    @JsonIgnore
+    private DrivingTimeProfile drivingTimeProfile;
+    @JsonIgnore
+    private List<Location> nearbyLocations = List.of();
 
     @JsonCreator
     public Location(@JsonProperty("latitude") double latitude, @JsonProperty("longitude") double longitude) {
@@ -30,27 +39,78 @@ public class Location {
         return longitude;
     }
 
-    public Map<Location, Long> getDrivingTimeSeconds() {
-        return drivingTimeSeconds;
+    public DrivingTimeMatrix getDrivingTimeMatrix() {
+        return drivingTimeMatrix;
+    }
+
+    /**
+     * @return the index of this location in its {@link #getDrivingTimeMatrix() driving time matrix}
+     */
+    public int getIndex() {
+        return index;
     }
 
     /**
-     * Set the driving time map (in seconds).
+     * Set the driving time matrix (in seconds).
      *
-     * @param drivingTimeSeconds a map containing driving time from here to other locations
+     * @param drivingTimeMatrix a matrix containing driving time between all locations of the plan
+     * @param index the index of this location in that matrix
      */
-    public void setDrivingTimeSeconds(Map<Location, Long> drivingTimeSeconds) {
-        this.drivingTimeSeconds = drivingTimeSeconds;
+    public void setDrivingTimeMatrix(DrivingTimeMatrix drivingTimeMatrix, int index) {
+        this.drivingTimeMatrix = drivingTimeMatrix;
+        this.index = index;
     }
 
     /**
-     * Driving time to the given location in seconds.
+     * @return null if the driving times do not depend on the time of day
+     */
+    public DrivingTimeProfile getDrivingTimeProfile() {
+        return drivingTimeProfile;
+    }
+
+    /**
+     * @param drivingTimeProfile null if the driving times do not depend on the time of day
+     */
+    public void setDrivingTimeProfile(DrivingTimeProfile drivingTimeProfile) {
+        this.drivingTimeProfile = drivingTimeProfile;
+    }
+
+    /**
+     * @return never null, the nearby locations of the plan, nearest driving time first
+     * @see org.acme.vehiclerouting.domain.geo.NearbyLocations
+     */
+    public List<Location> getNearbyLocations() {
+        return nearbyLocations;
+    }
+
+    /**
+     * @param nearbyLocations never null, nearest driving time first
+     */
+    public void setNearbyLocations(List<Location> nearbyLocations) {
+        this.nearbyLocations = nearbyLocations;
+    }
+
+    /**
+     * Driving time to the given location in seconds, regardless of the time of day.
      *
-     * @param location other location
+     * @param location other location, sharing the same driving time matrix
      * @return driving time in seconds
      */
     public long getDrivingTimeTo(Location location) {
-        return drivingTimeSeconds.get(location);
+        return drivingTimeMatrix.getDrivingTime(index, location.index);
+    }
+
+    /**
+     * Driving time to the given location in seconds, when departing at the given time.
+     *
+     * @param location other location, sharing the same driving time matrix
+     * @param departureTimeEpochSecond the departure from this location
+     * @return driving time in seconds, according to the {@link #getDrivingTimeProfile() driving time profile}
+     */
+    public long getDrivingTimeTo(Location location, long departureTimeEpochSecond) {
+        long drivingTime = drivingTimeMatrix.getDrivingTime(index, location.index);
+        return drivingTimeProfile == null ? drivingTime
+                : drivingTimeProfile.apply(drivingTime, departureTimeEpochSecond);
     }
 
     @Override
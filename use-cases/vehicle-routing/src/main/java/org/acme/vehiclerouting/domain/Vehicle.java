@@ -6,10 +6,15 @@ import java.util.List;
 
 import ai.timefold.solver.core.api.domain.entity.PlanningEntity;
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
+import ai.timefold.solver.core.api.domain.variable.PiggybackShadowVariable;
 import ai.timefold.solver.core.api.domain.variable.PlanningListVariable;
+import ai.timefold.solver.core.api.domain.variable.ShadowVariable;
+
+import org.acme.vehiclerouting.solver.VehicleTotalsUpdatingVariableListener;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIdentityReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 
@@ -23,12 +28,17 @@ public class Vehicle {
     @JsonIdentityReference
     private Location homeLocation;
 
-    private LocalDateTime departureTime;
+    private long departureTimeEpochSecond;
 
     @JsonIdentityReference(alwaysAsId = true)
     @PlanningListVariable
     private List<Visit> visits;
 
+    // Kept up to date by the VehicleTotalsUpdatingVariableListener, so that constraints don't loop over the visits.
+    // The solver does not allow a shadow variable of a primitive type, so only the accessors box the totals.
+    private int totalDemand;
+    private long totalDrivingTimeSeconds;
+
     public Vehicle() {
     }
 
@@ -36,7 +46,7 @@ public class Vehicle {
         this.id = id;
         this.capacity = capacity;
         this.homeLocation = homeLocation;
-        this.departureTime = departureTime;
+        setDepartureTime(departureTime);
         this.visits = new ArrayList<>();
     }
 
@@ -65,7 +75,16 @@ public class Vehicle {
     }
 
     public LocalDateTime getDepartureTime() {
-        return departureTime;
+        return Visit.toLocalDateTime(departureTimeEpochSecond);
+    }
+
+    public void setDepartureTime(LocalDateTime departureTime) {
+        this.departureTimeEpochSecond = Visit.toEpochSecond(departureTime);
+    }
+
+    @JsonIgnore
+    public long getDepartureTimeEpochSecond() {
+        return departureTimeEpochSecond;
     }
 
     public List<Visit> getVisits() {
@@ -76,45 +95,40 @@ public class Vehicle {
         this.visits = visits;
     }
 
-    // ************************************************************************
-    // Complex methods
-    // ************************************************************************
-
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
-    public int getTotalDemand() {
-        int totalDemand = 0;
-        for (Visit visit : visits) {
-            totalDemand += visit.getDemand();
-        }
+    @ShadowVariable(variableListenerClass = VehicleTotalsUpdatingVariableListener.class, sourceVariableName = "visits")
+    public Integer getTotalDemand() {
         return totalDemand;
     }
 
-    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
-    public long getTotalDrivingTimeSeconds() {
-        if (visits.isEmpty()) {
-            return 0;
-        }
-
-        long totalDrivingTime = 0;
-        Location previousLocation = homeLocation;
+    public void setTotalDemand(Integer totalDemand) {
+        this.totalDemand = totalDemand;
+    }
 
-        for (Visit visit : visits) {
-            totalDrivingTime += previousLocation.getDrivingTimeTo(visit.getLocation());
-            previousLocation = visit.getLocation();
-        }
-        totalDrivingTime += previousLocation.getDrivingTimeTo(homeLocation);
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @PiggybackShadowVariable(shadowVariableName = "totalDemand")
+    public Long getTotalDrivingTimeSeconds() {
+        return totalDrivingTimeSeconds;
+    }
 
-        return totalDrivingTime;
+    public void setTotalDrivingTimeSeconds(Long totalDrivingTimeSeconds) {
+        this.totalDrivingTimeSeconds = totalDrivingTimeSeconds;
     }
 
+    // ************************************************************************
+    // Complex methods
+    // ************************************************************************
+
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     public LocalDateTime arrivalTime() {
         if (visits.isEmpty()) {
-            return departureTime;
+            return getDepartureTime();
         }
 
         Visit lastVisit = visits.get(visits.size() - 1);
-        return lastVisit.getDepartureTime().plusSeconds(lastVisit.getLocation().getDrivingTimeTo(homeLocation));
+        long departureTime = lastVisit.getDepartureTimeEpochSecond();
+        return Visit.toLocalDateTime(
+                departureTime + lastVisit.getLocation().getDrivingTimeTo(homeLocation, departureTime));
     }
 
     @Override
@@ -1,7 +1,10 @@
 package org.acme.vehiclerouting.domain;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Stream;
 
 import ai.timefold.solver.core.api.domain.solution.PlanningEntityCollectionProperty;
@@ -13,7 +16,11 @@ import ai.timefold.solver.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
 import ai.timefold.solver.core.api.solver.SolverStatus;
 
 import org.acme.vehiclerouting.domain.geo.DrivingTimeCalculator;
+import org.acme.vehiclerouting.domain.geo.DrivingTimeMatrixMode;
+import org.acme.vehiclerouting.domain.geo.DrivingTimeProfile;
+import org.acme.vehiclerouting.domain.geo.ExtendedDrivingTimeMatrix;
 import org.acme.vehiclerouting.domain.geo.HaversineDrivingTimeCalculator;
+import org.acme.vehiclerouting.domain.geo.NearbyLocations;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonInclude;
@@ -35,6 +42,17 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 @PlanningSolution
 public class VehicleRoutePlan {
 
+    private static volatile DrivingTimeCalculator drivingTimeCalculator = HaversineDrivingTimeCalculator.getInstance();
+
+    /**
+     * Replace the calculator used to initialize the driving time matrix of every plan constructed from now on.
+     *
+     * @param drivingTimeCalculator never null
+     */
+    public static void setDrivingTimeCalculator(DrivingTimeCalculator drivingTimeCalculator) {
+        VehicleRoutePlan.drivingTimeCalculator = Objects.requireNonNull(drivingTimeCalculator);
+    }
+
     private String name;
 
     private Location southWestCorner;
@@ -44,6 +62,10 @@ public class VehicleRoutePlan {
 
     private LocalDateTime endDateTime;
 
+    private DrivingTimeMatrixMode drivingTimeMatrixMode;
+
+    private DrivingTimeProfile drivingTimeProfile;
+
     @PlanningEntityCollectionProperty
     private List<Vehicle> vehicles;
 
@@ -67,12 +89,26 @@ public class VehicleRoutePlan {
         this.solverStatus = solverStatus;
     }
 
+    public VehicleRoutePlan(String name, Location southWestCorner, Location northEastCorner,
+            LocalDateTime startDateTime, LocalDateTime endDateTime, List<Vehicle> vehicles, List<Visit> visits) {
+        this(name, southWestCorner, northEastCorner, startDateTime, endDateTime, null, vehicles, visits);
+    }
+
+    public VehicleRoutePlan(String name, Location southWestCorner, Location northEastCorner,
+            LocalDateTime startDateTime, LocalDateTime endDateTime, DrivingTimeMatrixMode drivingTimeMatrixMode,
+            List<Vehicle> vehicles, List<Visit> visits) {
+        this(name, southWestCorner, northEastCorner, startDateTime, endDateTime, drivingTimeMatrixMode, null, vehicles,
+                visits);
+    }
+
     @JsonCreator
     public VehicleRoutePlan(@JsonProperty("name") String name,
             @JsonProperty("southWestCorner") Location southWestCorner,
             @JsonProperty("northEastCorner") Location northEastCorner,
             @JsonProperty("startDateTime") LocalDateTime startDateTime,
             @JsonProperty("endDateTime") LocalDateTime endDateTime,
+            @JsonProperty("drivingTimeMatrixMode") DrivingTimeMatrixMode drivingTimeMatrixMode,
+            @JsonProperty("drivingTimeProfile") DrivingTimeProfile drivingTimeProfile,
             @JsonProperty("vehicles") List<Vehicle> vehicles,
             @JsonProperty("visits") List<Visit> visits) {
         this.name = name;
@@ -80,14 +116,18 @@ public class VehicleRoutePlan {
         this.northEastCorner = northEastCorner;
         this.startDateTime = startDateTime;
         this.endDateTime = endDateTime;
+        this.drivingTimeMatrixMode = drivingTimeMatrixMode;
+        this.drivingTimeProfile = drivingTimeProfile;
         this.vehicles = vehicles;
         this.visits = visits;
-        List<Location> locations = Stream.concat(
-                vehicles.stream().map(Vehicle::getHomeLocation),
-                visits.stream().map(Visit::getLocation)).toList();
-
-        DrivingTimeCalculator drivingTimeCalculator = HaversineDrivingTimeCalculator.getInstance();
-        drivingTimeCalculator.initDrivingTimeMaps(locations);
+        internLocations();
+        List<Location> locations = getLocations();
+        drivingTimeCalculator.initDrivingTimeMaps(locations,
+                drivingTimeMatrixMode == null ? DrivingTimeMatrixMode.DENSE : drivingTimeMatrixMode);
+        for (Location location : locations) {
+            location.setDrivingTimeProfile(drivingTimeProfile);
+        }
+        NearbyLocations.assign(locations, NearbyLocations.DEFAULT_NEARBY_COUNT);
     }
 
     public String getName() {
@@ -110,6 +150,23 @@ public class VehicleRoutePlan {
         return endDateTime;
     }
 
+    /**
+     * @return null if {@link DrivingTimeMatrixMode#DENSE}
+     */
+    public DrivingTimeMatrixMode getDrivingTimeMatrixMode() {
+        return drivingTimeMatrixMode;
+    }
+
+    /**
+     * The arrival times follow this profile, but the total driving time that is minimized does not:
+     * it is the sum of the driving times of the matrix, so the solver does not favor routes just for avoiding the peak.
+     *
+     * @return null if the driving times do not depend on the time of day
+     */
+    public DrivingTimeProfile getDrivingTimeProfile() {
+        return drivingTimeProfile;
+    }
+
     public List<Vehicle> getVehicles() {
         return vehicles;
     }
@@ -130,6 +187,81 @@ public class VehicleRoutePlan {
     // Complex methods
     // ************************************************************************
 
+    /**
+     * Creates a plan with the same settings as this one, for other vehicles and visits.
+     * Unlike the constructors, it does not initialize the driving time matrix,
+     * so all their locations must already be part of the matrix of this plan.
+     *
+     * @param vehicles never null
+     * @param visits never null
+     * @return never null, without a score
+     */
+    public VehicleRoutePlan withVehiclesAndVisits(List<Vehicle> vehicles, List<Visit> visits) {
+        VehicleRoutePlan plan = new VehicleRoutePlan();
+        plan.name = name;
+        plan.southWestCorner = southWestCorner;
+        plan.northEastCorner = northEastCorner;
+        plan.startDateTime = startDateTime;
+        plan.endDateTime = endDateTime;
+        plan.drivingTimeMatrixMode = drivingTimeMatrixMode;
+        plan.drivingTimeProfile = drivingTimeProfile;
+        plan.vehicles = vehicles;
+        plan.visits = visits;
+        return plan;
+    }
+
+    /**
+     * Adds a location to the driving time matrix of this plan, for example for a new visit while it is being solved.
+     * Only the driving times from and to that location are calculated.
+     * If the plan already has a location with the same coordinates, the matrix is not extended.
+     *
+     * @param location never null, not yet part of the matrix
+     * @return never null, the location of the plan with the same coordinates if there is one, otherwise the given one
+     */
+    public Location addLocation(Location location) {
+        List<Location> locations = getLocations();
+        for (Location existingLocation : locations) {
+            if (existingLocation.getLatitude() == location.getLatitude()
+                    && existingLocation.getLongitude() == location.getLongitude()) {
+                return existingLocation;
+            }
+        }
+        ExtendedDrivingTimeMatrix.extend(locations, location, drivingTimeCalculator);
+        location.setDrivingTimeProfile(drivingTimeProfile);
+        NearbyLocations.assign(locations, location, NearbyLocations.DEFAULT_NEARBY_COUNT);
+        return location;
+    }
+
+    /**
+     * Many visits can be at the same address, such as an apartment block or a mall.
+     * Those share a single location, so the driving time matrix only has a row and a column per unique address.
+     */
+    private void internLocations() {
+        Map<Coordinates, Location> coordinatesToLocation = new HashMap<>(vehicles.size() + visits.size());
+        for (Vehicle vehicle : vehicles) {
+            vehicle.setHomeLocation(intern(coordinatesToLocation, vehicle.getHomeLocation()));
+        }
+        for (Visit visit : visits) {
+            visit.setLocation(intern(coordinatesToLocation, visit.getLocation()));
+        }
+    }
+
+    private static Location intern(Map<Coordinates, Location> coordinatesToLocation, Location location) {
+        return coordinatesToLocation.computeIfAbsent(new Coordinates(location.getLatitude(), location.getLongitude()),
+                coordinates -> location);
+    }
+
+    /**
+     * @return never null, each location once, because locations with the same coordinates are interned
+     */
+    private List<Location> getLocations() {
+        return Stream.concat(
+                vehicles.stream().map(Vehicle::getHomeLocation),
+                visits.stream().map(Visit::getLocation))
+                .distinct()
+                .toList();
+    }
+
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     public long getTotalDrivingTimeSeconds() {
         return vehicles == null ? 0 : vehicles.stream().mapToLong(Vehicle::getTotalDrivingTimeSeconds).sum();
@@ -151,4 +283,7 @@ public class VehicleRoutePlan {
     public void setScoreExplanation(String scoreExplanation) {
         this.scoreExplanation = scoreExplanation;
     }
+
+    private record Coordinates(double latitude, double longitude) {
+    }
 }
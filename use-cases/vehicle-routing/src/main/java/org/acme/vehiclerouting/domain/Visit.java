@@ -2,9 +2,11 @@ package org.acme.vehiclerouting.domain;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
 import ai.timefold.solver.core.api.domain.entity.PlanningEntity;
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
+import ai.timefold.solver.core.api.domain.variable.IndexShadowVariable;
 import ai.timefold.solver.core.api.domain.variable.InverseRelationShadowVariable;
 import ai.timefold.solver.core.api.domain.variable.NextElementShadowVariable;
 import ai.timefold.solver.core.api.domain.variable.PreviousElementShadowVariable;
@@ -22,14 +24,21 @@ import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 @PlanningEntity
 public class Visit {
 
+    /**
+     * The value of {@link #getArrivalTimeEpochSecond()} when the visit is not assigned to a vehicle.
+     */
+    public static final long NO_ARRIVAL_TIME = Long.MIN_VALUE;
+
     @PlanningId
     private String id;
     private String name;
     private Location location;
     private int demand;
-    private LocalDateTime minStartTime;
-    private LocalDateTime maxEndTime;
-    private Duration serviceDuration;
+    // The times are kept in epoch seconds (of a UTC clock), so that the solver does plain long arithmetic on them.
+    // They are only converted to and from LocalDateTime for JSON.
+    private long minStartTimeEpochSecond;
+    private long maxEndTimeEpochSecond;
+    private long serviceDurationSeconds;
 
     private Vehicle vehicle;
 
@@ -37,7 +46,9 @@ public class Visit {
 
     private Visit nextVisit;
 
-    private LocalDateTime arrivalTime;
+    private Integer index;
+
+    private long arrivalTimeEpochSecond = NO_ARRIVAL_TIME;
 
     public Visit() {
     }
@@ -48,9 +59,9 @@ public class Visit {
         this.name = name;
         this.location = location;
         this.demand = demand;
-        this.minStartTime = minStartTime;
-        this.maxEndTime = maxEndTime;
-        this.serviceDuration = serviceDuration;
+        setMinStartTime(minStartTime);
+        setMaxEndTime(maxEndTime);
+        setServiceDuration(serviceDuration);
     }
 
     public String getId() {
@@ -82,15 +93,27 @@ public class Visit {
     }
 
     public LocalDateTime getMinStartTime() {
-        return minStartTime;
+        return toLocalDateTime(minStartTimeEpochSecond);
+    }
+
+    public void setMinStartTime(LocalDateTime minStartTime) {
+        this.minStartTimeEpochSecond = toEpochSecond(minStartTime);
     }
 
     public LocalDateTime getMaxEndTime() {
-        return maxEndTime;
+        return toLocalDateTime(maxEndTimeEpochSecond);
+    }
+
+    public void setMaxEndTime(LocalDateTime maxEndTime) {
+        this.maxEndTimeEpochSecond = toEpochSecond(maxEndTime);
     }
 
     public Duration getServiceDuration() {
-        return serviceDuration;
+        return Duration.ofSeconds(serviceDurationSeconds);
+    }
+
+    public void setServiceDuration(Duration serviceDuration) {
+        this.serviceDurationSeconds = serviceDuration.getSeconds();
     }
 
     @JsonIdentityReference(alwaysAsId = true)
@@ -123,48 +146,91 @@ public class Visit {
         this.nextVisit = nextVisit;
     }
 
+    /**
+     * @return the position of the visit in {@link Vehicle#getVisits()}, null if the visit is not assigned to a vehicle
+     */
+    @JsonIgnore
+    @IndexShadowVariable(sourceVariableName = "visits")
+    public Integer getIndex() {
+        return index;
+    }
+
+    public void setIndex(Integer index) {
+        this.index = index;
+    }
+
+    /**
+     * @return {@link #NO_ARRIVAL_TIME} if the visit is not assigned to a vehicle
+     */
+    @JsonIgnore
+    public long getArrivalTimeEpochSecond() {
+        return arrivalTimeEpochSecond;
+    }
+
+    public void setArrivalTimeEpochSecond(long arrivalTimeEpochSecond) {
+        this.arrivalTimeEpochSecond = arrivalTimeEpochSecond;
+    }
+
+    // The solver does not allow a shadow variable of a primitive type,
+    // so this view is declared as the shadow variable, but the listener only updates the epoch second.
     @ShadowVariable(variableListenerClass = ArrivalTimeUpdatingVariableListener.class, sourceVariableName = "vehicle")
     @ShadowVariable(variableListenerClass = ArrivalTimeUpdatingVariableListener.class, sourceVariableName = "previousVisit")
     public LocalDateTime getArrivalTime() {
-        return arrivalTime;
+        return arrivalTimeEpochSecond == NO_ARRIVAL_TIME ? null : toLocalDateTime(arrivalTimeEpochSecond);
     }
 
     public void setArrivalTime(LocalDateTime arrivalTime) {
-        this.arrivalTime = arrivalTime;
+        this.arrivalTimeEpochSecond = arrivalTime == null ? NO_ARRIVAL_TIME : toEpochSecond(arrivalTime);
     }
 
     // ************************************************************************
     // Complex methods
     // ************************************************************************
 
+    /**
+     * Only valid if the visit is assigned to a vehicle.
+     */
+    @JsonIgnore
+    public long getStartServiceTimeEpochSecond() {
+        return Math.max(arrivalTimeEpochSecond, minStartTimeEpochSecond);
+    }
+
+    /**
+     * Only valid if the visit is assigned to a vehicle.
+     */
+    @JsonIgnore
+    public long getDepartureTimeEpochSecond() {
+        return getStartServiceTimeEpochSecond() + serviceDurationSeconds;
+    }
+
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     public LocalDateTime getDepartureTime() {
-        if (arrivalTime == null) {
+        if (arrivalTimeEpochSecond == NO_ARRIVAL_TIME) {
             return null;
         }
-        return getStartServiceTime().plus(serviceDuration);
+        return toLocalDateTime(getDepartureTimeEpochSecond());
     }
 
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     public LocalDateTime getStartServiceTime() {
-        if (arrivalTime == null) {
+        if (arrivalTimeEpochSecond == NO_ARRIVAL_TIME) {
             return null;
         }
-        return arrivalTime.isBefore(minStartTime) ? minStartTime : arrivalTime;
+        return toLocalDateTime(getStartServiceTimeEpochSecond());
     }
 
     @JsonIgnore
     public boolean isServiceFinishedAfterMaxEndTime() {
-        return arrivalTime != null
-                && arrivalTime.plus(serviceDuration).isAfter(maxEndTime);
+        return arrivalTimeEpochSecond != NO_ARRIVAL_TIME
+                && arrivalTimeEpochSecond + serviceDurationSeconds > maxEndTimeEpochSecond;
     }
 
     @JsonIgnore
     public long getServiceFinishedDelayInMinutes() {
-        if (arrivalTime == null) {
+        if (arrivalTimeEpochSecond == NO_ARRIVAL_TIME) {
             return 0;
         }
-        return Duration.between(maxEndTime, arrivalTime.plus(serviceDuration)).toMinutes();
+        return (arrivalTimeEpochSecond + serviceDurationSeconds - maxEndTimeEpochSecond) / 60;
     }
 
     @JsonIgnore
@@ -174,9 +240,23 @@ public class Visit {
                     "This method must not be called when the shadow variables are not initialized yet.");
         }
         if (previousVisit == null) {
-            return vehicle.getHomeLocation().getDrivingTimeTo(location);
+            return getDrivingTimeSecondsFromPreviousStandstill(vehicle.getDepartureTimeEpochSecond());
         }
-        return previousVisit.getLocation().getDrivingTimeTo(location);
+        return getDrivingTimeSecondsFromPreviousStandstill(previousVisit.getDepartureTimeEpochSecond());
+    }
+
+    /**
+     * @param departureTimeEpochSecond the departure from the previous visit, or from the home location of the vehicle
+     * @return the driving time in seconds, which depends on that departure time if the plan has a driving time profile
+     */
+    @JsonIgnore
+    public long getDrivingTimeSecondsFromPreviousStandstill(long departureTimeEpochSecond) {
+        if (vehicle == null) {
+            throw new IllegalStateException(
+                    "This method must not be called when the shadow variables are not initialized yet.");
+        }
+        Location previousLocation = previousVisit == null ? vehicle.getHomeLocation() : previousVisit.getLocation();
+        return previousLocation.getDrivingTimeTo(location, departureTimeEpochSecond);
     }
 
     // Required by the web UI even before the solution has been initialized.
@@ -188,6 +268,14 @@ public class Visit {
         return getDrivingTimeSecondsFromPreviousStandstill();
     }
 
+    static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    static LocalDateTime toLocalDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
     @Override
     public String toString() {
         return id;
@@ -0,0 +1,4 @@
+package org.acme.vehiclerouting.domain.dto;
+
+public record ApplyJobRecommendationRequest(String visitId, String vehicleId, int index) {
+}
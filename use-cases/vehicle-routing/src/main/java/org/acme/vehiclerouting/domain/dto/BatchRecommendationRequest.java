@@ -0,0 +1,6 @@
+package org.acme.vehiclerouting.domain.dto;
+
+import java.util.List;
+
+public record BatchRecommendationRequest(List<String> visitIds) {
+}
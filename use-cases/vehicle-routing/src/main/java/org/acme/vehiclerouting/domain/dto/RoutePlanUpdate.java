@@ -0,0 +1,20 @@
+package org.acme.vehiclerouting.domain.dto;
+
+import java.util.List;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+import ai.timefold.solver.core.api.solver.SolverStatus;
+
+import org.acme.vehiclerouting.domain.Vehicle;
+
+/**
+ * A new best solution of a route plan, compared to the previous update sent to the same client.
+ *
+ * @param score never null
+ * @param solverStatus never null
+ * @param vehicles never null, only the vehicles that are new or whose visits changed
+ * @param removedVehicleIds never null, the vehicles that are no longer part of the route plan
+ */
+public record RoutePlanUpdate(HardSoftLongScore score, SolverStatus solverStatus, List<Vehicle> vehicles,
+        List<String> removedVehicleIds) {
+}
@@ -0,0 +1,6 @@
+package org.acme.vehiclerouting.domain.dto;
+
+import java.time.LocalDateTime;
+
+public record TimeWindowRequest(LocalDateTime minStartTime, LocalDateTime maxEndTime) {
+}
@@ -0,0 +1,51 @@
+package org.acme.vehiclerouting.domain.geo;
+
+/**
+ * Dense {@link DrivingTimeMatrix} on the heap.
+ * <p>
+ * The matrix is stored row-major in a single primitive {@code int[]}, so a lookup is a single array read
+ * without hashing or unboxing.
+ * At 5 000 locations it takes 100 MB of heap, whereas the former map of {@code Map<Location, Long>} per location
+ * needed about 64 bytes per entry (hash map node, boxed {@link Long} and table slot), roughly 1.6 GB.
+ */
+public final class ArrayDrivingTimeMatrix implements DrivingTimeMatrix {
+
+    /**
+     * The largest number of locations for which the row-major array still fits into a single Java array.
+     */
+    public static final int MAX_SIZE = 46_340;
+
+    private final int size;
+    private final int[] drivingTimeSeconds;
+
+    public ArrayDrivingTimeMatrix(int size) {
+        if (size < 0 || size > MAX_SIZE) {
+            throw new IllegalArgumentException(
+                    "The size (%d) must be between 0 and %d. Use the %s driving time matrix mode for larger plans."
+                            .formatted(size, MAX_SIZE, DrivingTimeMatrixMode.SPARSE));
+        }
+        this.size = size;
+        this.drivingTimeSeconds = new int[size * size];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long getDrivingTime(int fromIndex, int toIndex) {
+        return drivingTimeSeconds[fromIndex * size + toIndex];
+    }
+
+    /**
+     * Set the driving time between two locations in seconds.
+     *
+     * @param fromIndex index of the starting location
+     * @param toIndex index of the target location
+     * @param drivingTime driving time in seconds, must fit into an {@code int}
+     */
+    public void setDrivingTime(int fromIndex, int toIndex, long drivingTime) {
+        drivingTimeSeconds[fromIndex * size + toIndex] = Math.toIntExact(drivingTime);
+    }
+}
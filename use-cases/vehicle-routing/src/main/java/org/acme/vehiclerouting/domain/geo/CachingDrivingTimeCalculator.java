@@ -0,0 +1,449 @@
+package org.acme.vehiclerouting.domain.geo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.acme.vehiclerouting.domain.Location;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decorates another {@link DrivingTimeCalculator} with a persistent cache of driving time matrices on local disk.
+ * <p>
+ * Each matrix is stored in its own file, named after a hash of the delegate calculator and of the location coordinates.
+ * When the same locations are submitted again, that file is memory-mapped and read without copying it to the heap.
+ * When the locations mostly match a previously cached matrix, only the driving times from and to the new locations
+ * are calculated by the delegate and the rest is copied from the cached matrix.
+ * <p>
+ * The least recently used files are deleted once the cache directory grows beyond its maximum size.
+ * Files that cannot be read, for example of an older version, are ignored.
+ */
+public final class CachingDrivingTimeCalculator implements DrivingTimeCalculator {
+
+    /**
+     * The largest number of locations for which the matrix still fits into a single memory-mapped region.
+     */
+    public static final int MAX_CACHED_SIZE = 23_170;
+
+    public static final long DEFAULT_MAX_CACHE_BYTES = 4L * 1024 * 1024 * 1024;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingDrivingTimeCalculator.class);
+
+    private static final String FILE_EXTENSION = ".dtm";
+    private static final int MAGIC_NUMBER = 0x44544d32; // "DTM2"
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + Long.BYTES;
+    private static final int COORDINATE_BYTES = 2 * Double.BYTES;
+    private static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private final DrivingTimeCalculator delegate;
+    private final Path cacheDirectory;
+    private final long maxCacheBytes;
+    private final byte[] delegateHash;
+    private final long delegateId;
+
+    // The coordinates of the cached matrices of this delegate, so that a cache miss does not read every cache file.
+    // Lazily loaded from the cache directory.
+    private Map<Path, CachedMatrix> cacheFileToMatrix = null;
+
+    public CachingDrivingTimeCalculator(DrivingTimeCalculator delegate, Path cacheDirectory) {
+        this(delegate, cacheDirectory, DEFAULT_MAX_CACHE_BYTES);
+    }
+
+    /**
+     * @param delegate never null
+     * @param cacheDirectory never null
+     * @param maxCacheBytes the size of the cache files above which the least recently used ones are deleted
+     */
+    public CachingDrivingTimeCalculator(DrivingTimeCalculator delegate, Path cacheDirectory, long maxCacheBytes) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.cacheDirectory = Objects.requireNonNull(cacheDirectory);
+        if (maxCacheBytes <= 0L) {
+            throw new IllegalArgumentException("The maxCacheBytes (%d) must be positive.".formatted(maxCacheBytes));
+        }
+        this.maxCacheBytes = maxCacheBytes;
+        this.delegateHash = sha256(delegate.getCacheKey().getBytes(StandardCharsets.UTF_8));
+        this.delegateId = ByteBuffer.wrap(delegateHash).getLong();
+    }
+
+    @Override
+    public long calculateDrivingTime(Location from, Location to) {
+        return delegate.calculateDrivingTime(from, to);
+    }
+
+    @Override
+    public String getCacheKey() {
+        return delegate.getCacheKey();
+    }
+
+    @Override
+    public int getMaxBulkSize() {
+        return delegate.getMaxBulkSize();
+    }
+
+    @Override
+    public DrivingTimeMatrix calculateBulkDrivingTime(List<Location> locations) {
+        if (locations.size() > MAX_CACHED_SIZE || locations.size() > delegate.getMaxBulkSize()) {
+            return delegate.calculateBulkDrivingTime(locations);
+        }
+        try {
+            Files.createDirectories(cacheDirectory);
+        } catch (IOException e) {
+            LOGGER.warn("Failed creating the driving time cache directory ({}), calculating the matrix instead.",
+                    cacheDirectory, e);
+            return delegate.calculateBulkDrivingTime(locations);
+        }
+        Path cacheFile = cacheDirectory.resolve(computeKey(locations) + FILE_EXTENSION);
+        DrivingTimeMatrix cachedDrivingTimeMatrix = readIfCached(cacheFile, locations);
+        if (cachedDrivingTimeMatrix != null) {
+            return cachedDrivingTimeMatrix;
+        }
+        DrivingTimeMatrix drivingTimeMatrix = calculateIncrementally(locations);
+        try {
+            write(cacheFile, locations, drivingTimeMatrix);
+            evictLeastRecentlyUsed(cacheFile);
+        } catch (IOException e) {
+            LOGGER.warn("Failed writing the driving time cache file ({}).", cacheFile, e);
+        }
+        return drivingTimeMatrix;
+    }
+
+    /**
+     * @return null if the file does not exist, cannot be read or does not hold the matrix of the locations
+     */
+    private DrivingTimeMatrix readIfCached(Path cacheFile, List<Location> locations) {
+        if (!Files.exists(cacheFile)) {
+            return null;
+        }
+        try {
+            CachedMatrix cachedMatrix = CachedMatrix.read(cacheFile);
+            if (cachedMatrix.delegateId != delegateId || !cachedMatrix.hasSameLocations(locations)) {
+                return null;
+            }
+            MappedDrivingTimeMatrix drivingTimeMatrix = cachedMatrix.map();
+            // The modification time orders the files for eviction.
+            Files.setLastModifiedTime(cacheFile, FileTime.from(Instant.now()));
+            return drivingTimeMatrix;
+        } catch (IOException e) {
+            LOGGER.warn("Ignoring the unreadable driving time cache file ({}).", cacheFile, e);
+            return null;
+        }
+    }
+
+    private DrivingTimeMatrix calculateIncrementally(List<Location> locations) {
+        CachedMatrix baseMatrix = findLargestOverlap(locations);
+        if (baseMatrix == null) {
+            return delegate.calculateBulkDrivingTime(locations);
+        }
+        DrivingTimeMatrix baseDrivingTimeMatrix;
+        try {
+            baseDrivingTimeMatrix = baseMatrix.map();
+        } catch (IOException e) {
+            // For example evicted in the meantime.
+            LOGGER.warn("Ignoring the unreadable driving time cache file ({}).", baseMatrix.cacheFile, e);
+            forget(baseMatrix.cacheFile);
+            return delegate.calculateBulkDrivingTime(locations);
+        }
+        int size = locations.size();
+        int[] baseIndexes = baseMatrix.indexesOf(locations);
+        ArrayDrivingTimeMatrix drivingTimeMatrix = new ArrayDrivingTimeMatrix(size);
+        IntStream.range(0, size).parallel().forEach(fromIndex -> {
+            Location from = locations.get(fromIndex);
+            int baseFromIndex = baseIndexes[fromIndex];
+            for (int toIndex = 0; toIndex < size; toIndex++) {
+                int baseToIndex = baseIndexes[toIndex];
+                long drivingTime = baseFromIndex >= 0 && baseToIndex >= 0
+                        ? baseDrivingTimeMatrix.getDrivingTime(baseFromIndex, baseToIndex)
+                        : delegate.calculateDrivingTime(from, locations.get(toIndex));
+                drivingTimeMatrix.setDrivingTime(fromIndex, toIndex, drivingTime);
+            }
+        });
+        return drivingTimeMatrix;
+    }
+
+    /**
+     * @return null if no cached matrix of the same delegate contains at least half of the locations
+     */
+    private CachedMatrix findLargestOverlap(List<Location> locations) {
+        Map<Coordinates, Integer> coordinatesToCount = new HashMap<>(locations.size());
+        for (Location location : locations) {
+            coordinatesToCount.merge(Coordinates.of(location), 1, Integer::sum);
+        }
+        CachedMatrix largestOverlapMatrix = null;
+        int largestOverlap = (locations.size() + 1) / 2 - 1;
+        for (CachedMatrix cachedMatrix : getCachedMatrices()) {
+            int overlap = cachedMatrix.countOverlap(coordinatesToCount);
+            if (overlap > largestOverlap) {
+                largestOverlapMatrix = cachedMatrix;
+                largestOverlap = overlap;
+            }
+        }
+        return largestOverlapMatrix;
+    }
+
+    private synchronized List<CachedMatrix> getCachedMatrices() {
+        if (cacheFileToMatrix == null) {
+            cacheFileToMatrix = new HashMap<>();
+            try (Stream<Path> cacheFiles = Files.list(cacheDirectory)) {
+                for (Path cacheFile : (Iterable<Path>) cacheFiles::iterator) {
+                    if (!cacheFile.getFileName().toString().endsWith(FILE_EXTENSION)) {
+                        continue;
+                    }
+                    try {
+                        CachedMatrix cachedMatrix = CachedMatrix.read(cacheFile);
+                        if (cachedMatrix.delegateId == delegateId) {
+                            cacheFileToMatrix.put(cacheFile, cachedMatrix);
+                        }
+                    } catch (IOException e) {
+                        LOGGER.warn("Ignoring the unreadable driving time cache file ({}).", cacheFile, e);
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Failed listing the driving time cache directory ({}).", cacheDirectory, e);
+            }
+        }
+        return List.copyOf(cacheFileToMatrix.values());
+    }
+
+    private synchronized void remember(Path cacheFile, CachedMatrix cachedMatrix) {
+        if (cacheFileToMatrix != null) {
+            cacheFileToMatrix.put(cacheFile, cachedMatrix);
+        }
+    }
+
+    private synchronized void forget(Path cacheFile) {
+        if (cacheFileToMatrix != null) {
+            cacheFileToMatrix.remove(cacheFile);
+        }
+    }
+
+    /**
+     * Deletes the cache files that were used the longest ago, until the cache files fit into the maximum size.
+     *
+     * @param keptCacheFile never null, the file just written, which is never deleted
+     */
+    private synchronized void evictLeastRecentlyUsed(Path keptCacheFile) throws IOException {
+        record CacheFile(Path path, long size, FileTime lastModifiedTime) {
+        }
+        List<CacheFile> cacheFiles = new ArrayList<>();
+        long totalSize = 0L;
+        try (Stream<Path> paths = Files.list(cacheDirectory)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (!path.getFileName().toString().endsWith(FILE_EXTENSION)) {
+                    continue;
+                }
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                } catch (IOException e) {
+                    // Deleted in the meantime.
+                    continue;
+                }
+                cacheFiles.add(new CacheFile(path, attributes.size(), attributes.lastModifiedTime()));
+                totalSize += attributes.size();
+            }
+        }
+        if (totalSize <= maxCacheBytes) {
+            return;
+        }
+        cacheFiles.sort(Comparator.comparing(CacheFile::lastModifiedTime));
+        for (CacheFile cacheFile : cacheFiles) {
+            if (totalSize <= maxCacheBytes) {
+                break;
+            }
+            if (cacheFile.path.equals(keptCacheFile)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(cacheFile.path);
+                forget(cacheFile.path);
+                totalSize -= cacheFile.size;
+                LOGGER.debug("Evicted the driving time cache file ({}).", cacheFile.path);
+            } catch (IOException e) {
+                // For example still mapped on Windows.
+                LOGGER.warn("Failed deleting the driving time cache file ({}).", cacheFile.path, e);
+            }
+        }
+    }
+
+    private String computeKey(List<Location> locations) {
+        MessageDigest digest = createSha256Digest();
+        digest.update(delegateHash);
+        ByteBuffer coordinates = ByteBuffer.allocate(COORDINATE_BYTES);
+        for (Location location : locations) {
+            coordinates.clear();
+            coordinates.putDouble(location.getLatitude()).putDouble(location.getLongitude());
+            digest.update(coordinates.array());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        return createSha256Digest().digest(bytes);
+    }
+
+    private static MessageDigest createSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Every Java platform must support SHA-256.", e);
+        }
+    }
+
+    private void write(Path cacheFile, List<Location> locations, DrivingTimeMatrix drivingTimeMatrix)
+            throws IOException {
+        int size = locations.size();
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        for (int i = 0; i < size; i++) {
+            latitudes[i] = locations.get(i).getLatitude();
+            longitudes[i] = locations.get(i).getLongitude();
+        }
+        Path temporaryFile = Files.createTempFile(cacheDirectory, "driving-time-", ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + size * COORDINATE_BYTES).order(BYTE_ORDER);
+            header.putInt(MAGIC_NUMBER).putInt(size).putLong(delegateId);
+            for (int i = 0; i < size; i++) {
+                header.putDouble(latitudes[i]).putDouble(longitudes[i]);
+            }
+            writeFully(channel, header.flip());
+            ByteBuffer row = ByteBuffer.allocate(size * Integer.BYTES).order(BYTE_ORDER);
+            for (int fromIndex = 0; fromIndex < size; fromIndex++) {
+                row.clear();
+                for (int toIndex = 0; toIndex < size; toIndex++) {
+                    row.putInt((int) drivingTimeMatrix.getDrivingTime(fromIndex, toIndex));
+                }
+                writeFully(channel, row.flip());
+            }
+        }
+        Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        remember(cacheFile, new CachedMatrix(cacheFile, delegateId, latitudes, longitudes));
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private record Coordinates(double latitude, double longitude) {
+
+        static Coordinates of(Location location) {
+            return new Coordinates(location.getLatitude(), location.getLongitude());
+        }
+
+    }
+
+    /**
+     * A cache file of which only the coordinates have been read so far.
+     */
+    private record CachedMatrix(Path cacheFile, long delegateId, double[] latitudes, double[] longitudes) {
+
+        static CachedMatrix read(Path cacheFile) throws IOException {
+            try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+                if (channel.size() < HEADER_BYTES) {
+                    throw new IOException("The file (%s) is not a driving time cache file.".formatted(cacheFile));
+                }
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+                header.order(BYTE_ORDER);
+                if (header.getInt(0) != MAGIC_NUMBER) {
+                    throw new IOException("The file (%s) is not a driving time cache file.".formatted(cacheFile));
+                }
+                int size = header.getInt(Integer.BYTES);
+                long delegateId = header.getLong(2 * Integer.BYTES);
+                if (size < 0 || size > MAX_CACHED_SIZE) {
+                    throw new IOException("The driving time cache file (%s) has an invalid size (%d)."
+                            .formatted(cacheFile, size));
+                }
+                long expectedFileSize = HEADER_BYTES + (long) size * COORDINATE_BYTES + (long) size * size * Integer.BYTES;
+                if (channel.size() != expectedFileSize) {
+                    throw new IOException("The driving time cache file (%s) has size (%d) instead of (%d)."
+                            .formatted(cacheFile, channel.size(), expectedFileSize));
+                }
+                MappedByteBuffer coordinates = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES,
+                        (long) size * COORDINATE_BYTES);
+                coordinates.order(BYTE_ORDER);
+                double[] latitudes = new double[size];
+                double[] longitudes = new double[size];
+                for (int i = 0; i < size; i++) {
+                    latitudes[i] = coordinates.getDouble();
+                    longitudes[i] = coordinates.getDouble();
+                }
+                return new CachedMatrix(cacheFile, delegateId, latitudes, longitudes);
+            }
+        }
+
+        int size() {
+            return latitudes.length;
+        }
+
+        boolean hasSameLocations(List<Location> locations) {
+            if (locations.size() != size()) {
+                return false;
+            }
+            for (int i = 0; i < size(); i++) {
+                Location location = locations.get(i);
+                if (Double.compare(location.getLatitude(), latitudes[i]) != 0
+                        || Double.compare(location.getLongitude(), longitudes[i]) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int countOverlap(Map<Coordinates, Integer> coordinatesToCount) {
+            int overlap = 0;
+            for (int i = 0; i < size(); i++) {
+                Integer count = coordinatesToCount.get(new Coordinates(latitudes[i], longitudes[i]));
+                if (count != null) {
+                    overlap += count;
+                }
+            }
+            return overlap;
+        }
+
+        /**
+         * @return for each location, its index in this cached matrix, or -1 if it is not in it
+         */
+        int[] indexesOf(List<Location> locations) {
+            Map<Coordinates, Integer> coordinatesToIndex = new HashMap<>(size());
+            for (int i = 0; i < size(); i++) {
+                coordinatesToIndex.putIfAbsent(new Coordinates(latitudes[i], longitudes[i]), i);
+            }
+            return locations.stream()
+                    .mapToInt(location -> coordinatesToIndex.getOrDefault(Coordinates.of(location), -1))
+                    .toArray();
+        }
+
+        MappedDrivingTimeMatrix map() throws IOException {
+            int size = size();
+            try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+                MappedByteBuffer matrix = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_BYTES + (long) size * COORDINATE_BYTES, (long) size * size * Integer.BYTES);
+                matrix.order(BYTE_ORDER);
+                return new MappedDrivingTimeMatrix(size, matrix.asIntBuffer());
+            }
+        }
+    }
+}
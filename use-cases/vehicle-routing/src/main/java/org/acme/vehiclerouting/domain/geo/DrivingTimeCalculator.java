@@ -1,11 +1,10 @@
 package org.acme.vehiclerouting.domain.geo;
 
 import java.util.Collection;
-import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.List;
 
 import org.acme.vehiclerouting.domain.Location;
+import org.slf4j.LoggerFactory;
 
 public interface DrivingTimeCalculator {
 
@@ -18,31 +17,75 @@ public interface DrivingTimeCalculator {
      */
     long calculateDrivingTime(Location from, Location to);
 
+    /**
+     * Identifies the driving times this calculator returns,
+     * so that a cache never returns those of another calculator, or of the same calculator configured differently.
+     *
+     * @return never null
+     */
+    default String getCacheKey() {
+        return getClass().getName();
+    }
+
+    /**
+     * @return the largest number of locations for which {@link #calculateBulkDrivingTime(List)} is feasible
+     */
+    default int getMaxBulkSize() {
+        return ArrayDrivingTimeMatrix.MAX_SIZE;
+    }
+
     /**
      * Bulk calculation of driving time.
      * Typically, much more scalable than {@link #calculateDrivingTime(Location, Location)} iteratively.
      *
-     * @param fromLocations never null
-     * @param toLocations never null
-     * @return never null
+     * @param locations never null
+     * @return never null, a matrix indexed by the position of each location in {@code locations}
      */
-    default Map<Location, Map<Location, Long>> calculateBulkDrivingTime(
-            Collection<Location> fromLocations,
-            Collection<Location> toLocations) {
-        return fromLocations.stream().collect(Collectors.toMap(
-                Function.identity(),
-                from -> toLocations.stream().collect(Collectors.toMap(
-                        Function.identity(),
-                        to -> calculateDrivingTime(from, to)))));
+    default DrivingTimeMatrix calculateBulkDrivingTime(List<Location> locations) {
+        int size = locations.size();
+        ArrayDrivingTimeMatrix drivingTimeMatrix = new ArrayDrivingTimeMatrix(size);
+        for (int fromIndex = 0; fromIndex < size; fromIndex++) {
+            Location from = locations.get(fromIndex);
+            for (int toIndex = 0; toIndex < size; toIndex++) {
+                drivingTimeMatrix.setDrivingTime(fromIndex, toIndex, calculateDrivingTime(from, locations.get(toIndex)));
+            }
+        }
+        return drivingTimeMatrix;
     }
 
     /**
-     * Calculate driving time matrix for the given list of locations and assign driving time maps accordingly.
+     * Calculate driving time matrix for the given list of locations and assign it to each location,
+     * together with the location's index in that matrix.
      *
      * @param locations locations list
      */
     default void initDrivingTimeMaps(Collection<Location> locations) {
-        Map<Location, Map<Location, Long>> drivingTimeMatrix = calculateBulkDrivingTime(locations, locations);
-        locations.forEach(location -> location.setDrivingTimeSeconds(drivingTimeMatrix.get(location)));
+        initDrivingTimeMaps(locations, DrivingTimeMatrixMode.DENSE);
+    }
+
+    /**
+     * As {@link #initDrivingTimeMaps(Collection)}, with the given kind of matrix.
+     * A {@link DrivingTimeMatrixMode#DENSE dense} matrix of more than {@link #getMaxBulkSize()} locations
+     * falls back to a {@link DrivingTimeMatrixMode#SPARSE sparse} matrix.
+     *
+     * @param locations locations list
+     * @param drivingTimeMatrixMode never null
+     */
+    default void initDrivingTimeMaps(Collection<Location> locations, DrivingTimeMatrixMode drivingTimeMatrixMode) {
+        List<Location> locationList = List.copyOf(locations);
+        if (drivingTimeMatrixMode == DrivingTimeMatrixMode.DENSE && locationList.size() > getMaxBulkSize()) {
+            LoggerFactory.getLogger(DrivingTimeCalculator.class).warn(
+                    "Using a {} driving time matrix, because the {} locations exceed the maximum ({}) for a {} matrix.",
+                    DrivingTimeMatrixMode.SPARSE, locationList.size(), getMaxBulkSize(), DrivingTimeMatrixMode.DENSE);
+            drivingTimeMatrixMode = DrivingTimeMatrixMode.SPARSE;
+        }
+        DrivingTimeMatrix drivingTimeMatrix = switch (drivingTimeMatrixMode) {
+            case DENSE -> calculateBulkDrivingTime(locationList);
+            case SPARSE -> new SparseDrivingTimeMatrix(locationList, this,
+                    SparseDrivingTimeMatrix.DEFAULT_NEIGHBOUR_COUNT, SparseDrivingTimeMatrix.DEFAULT_CACHE_SIZE);
+        };
+        for (int i = 0; i < locationList.size(); i++) {
+            locationList.get(i).setDrivingTimeMatrix(drivingTimeMatrix, i);
+        }
     }
 }
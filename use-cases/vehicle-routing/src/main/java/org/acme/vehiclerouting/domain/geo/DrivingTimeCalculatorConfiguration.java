@@ -0,0 +1,62 @@
+package org.acme.vehiclerouting.domain.geo;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.runtime.configuration.MemorySize;
+
+/**
+ * Selects the {@link DrivingTimeCalculator} used by every {@link VehicleRoutePlan},
+ * according to the {@code vehicle-routing.driving-time.*} properties in {@code application.properties}.
+ */
+@ApplicationScoped
+public class DrivingTimeCalculatorConfiguration {
+
+    @ConfigProperty(name = "vehicle-routing.driving-time.cache-directory")
+    Optional<Path> cacheDirectory;
+
+    @ConfigProperty(name = "vehicle-routing.driving-time.cache-max-size", defaultValue = "4G")
+    MemorySize cacheMaxSize;
+
+    @ConfigProperty(name = "vehicle-routing.driving-time.road-network.osm-file")
+    Optional<Path> osmFile;
+
+    @ConfigProperty(name = "vehicle-routing.driving-time.road-network.graph-directory")
+    Optional<Path> graphDirectory;
+
+    @ConfigProperty(name = "vehicle-routing.driving-time.road-network.max-bulk-size",
+            defaultValue = "" + RoadNetworkDrivingTimeCalculator.DEFAULT_MAX_BULK_SIZE)
+    int maxBulkSize;
+
+    private RoadNetworkDrivingTimeCalculator roadNetworkDrivingTimeCalculator;
+
+    void onStart(@Observes StartupEvent startupEvent) {
+        DrivingTimeCalculator drivingTimeCalculator = HaversineDrivingTimeCalculator.getInstance();
+        if (osmFile.isPresent()) {
+            Path osmFilePath = osmFile.get();
+            roadNetworkDrivingTimeCalculator = new RoadNetworkDrivingTimeCalculator(osmFilePath,
+                    graphDirectory.orElseGet(() -> osmFilePath.resolveSibling(osmFilePath.getFileName() + "-graph")),
+                    maxBulkSize);
+            drivingTimeCalculator = roadNetworkDrivingTimeCalculator;
+        }
+        if (cacheDirectory.isPresent()) {
+            drivingTimeCalculator = new CachingDrivingTimeCalculator(drivingTimeCalculator, cacheDirectory.get(),
+                    cacheMaxSize.asLongValue());
+        }
+        VehicleRoutePlan.setDrivingTimeCalculator(drivingTimeCalculator);
+    }
+
+    void onStop(@Observes ShutdownEvent shutdownEvent) {
+        if (roadNetworkDrivingTimeCalculator != null) {
+            roadNetworkDrivingTimeCalculator.close();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.acme.vehiclerouting.domain.geo;
+
+import org.acme.vehiclerouting.domain.Location;
+
+/**
+ * Driving time (in seconds) between {@link Location locations} identified by their index.
+ *
+ * @see ArrayDrivingTimeMatrix
+ */
+public interface DrivingTimeMatrix {
+
+    /**
+     * @return the number of locations in this matrix
+     */
+    int size();
+
+    /**
+     * Driving time between two locations in seconds.
+     *
+     * @param fromIndex index of the starting location
+     * @param toIndex index of the target location
+     * @return driving time in seconds
+     */
+    long getDrivingTime(int fromIndex, int toIndex);
+}
@@ -0,0 +1,17 @@
+package org.acme.vehiclerouting.domain.geo;
+
+/**
+ * How the driving times between all locations of a plan are stored.
+ */
+public enum DrivingTimeMatrixMode {
+    /**
+     * All driving times are calculated up front, see {@link DrivingTimeCalculator#calculateBulkDrivingTime}.
+     * The fastest lookups, but the memory grows quadratically with the number of locations.
+     */
+    DENSE,
+    /**
+     * Only the driving times to the nearest neighbours are calculated up front, see {@link SparseDrivingTimeMatrix}.
+     * Intended for plans with tens of thousands of locations.
+     */
+    SPARSE
+}
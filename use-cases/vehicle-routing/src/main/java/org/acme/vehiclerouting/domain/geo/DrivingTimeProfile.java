@@ -0,0 +1,93 @@
+package org.acme.vehiclerouting.domain.geo;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Time of day dependent driving times, such as a morning peak that is twice as slow as the rest of the day.
+ * <p>
+ * The day is divided into a few buckets, each with a multiplier for the driving times of the {@link DrivingTimeMatrix}.
+ * So all buckets share that one matrix: a profile of 6 buckets takes a few bytes,
+ * whereas a matrix per bucket would take 6 times the heap of the matrix.
+ * The bucket is chosen by the time of day of the departure, in UTC like all times of the plan.
+ * A bucket lasts until the next one starts, and the last one until the first one starts the next day.
+ */
+public final class DrivingTimeProfile {
+
+    private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+
+    private final List<Bucket> buckets;
+    private final int[] bucketStartSecondOfDay;
+    // The multipliers are kept in permille, so that applying them is plain long arithmetic.
+    private final int[] multiplierPermille;
+
+    /**
+     * @param buckets never null, never empty, in ascending order of their start time
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public DrivingTimeProfile(List<Bucket> buckets) {
+        if (buckets == null || buckets.isEmpty()) {
+            throw new IllegalArgumentException("The driving time profile needs at least one bucket.");
+        }
+        this.buckets = List.copyOf(buckets);
+        bucketStartSecondOfDay = new int[buckets.size()];
+        multiplierPermille = new int[buckets.size()];
+        for (int i = 0; i < buckets.size(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket.startTime() == null) {
+                throw new IllegalArgumentException("The bucket (%s) has no start time.".formatted(bucket));
+            }
+            if (!(bucket.multiplier() > 0.0)) {
+                throw new IllegalArgumentException("The bucket (%s) has a multiplier that is not positive."
+                        .formatted(bucket));
+            }
+            bucketStartSecondOfDay[i] = bucket.startTime().toSecondOfDay();
+            if (i > 0 && bucketStartSecondOfDay[i] <= bucketStartSecondOfDay[i - 1]) {
+                throw new IllegalArgumentException("The bucket (%s) does not start after the previous bucket (%s)."
+                        .formatted(bucket, buckets.get(i - 1)));
+            }
+            multiplierPermille[i] = Math.toIntExact(Math.round(bucket.multiplier() * 1000.0));
+        }
+    }
+
+    @JsonValue
+    public List<Bucket> getBuckets() {
+        return buckets;
+    }
+
+    /**
+     * @param drivingTime in seconds, as in the driving time matrix
+     * @param departureTimeEpochSecond the departure from the first location
+     * @return the driving time in seconds, multiplied by the multiplier of the bucket of that departure
+     */
+    public long apply(long drivingTime, long departureTimeEpochSecond) {
+        return (drivingTime * multiplierPermille[getBucketIndex(departureTimeEpochSecond)] + 500L) / 1000L;
+    }
+
+    int getBucketIndex(long departureTimeEpochSecond) {
+        int secondOfDay = (int) Math.floorMod(departureTimeEpochSecond, (long) SECONDS_PER_DAY);
+        // There are only a few buckets, so a linear search is faster than a binary search.
+        for (int i = bucketStartSecondOfDay.length - 1; i >= 0; i--) {
+            if (bucketStartSecondOfDay[i] <= secondOfDay) {
+                return i;
+            }
+        }
+        // Before the first bucket of the day, the last bucket of the previous day still applies.
+        return bucketStartSecondOfDay.length - 1;
+    }
+
+    @Override
+    public String toString() {
+        return buckets.toString();
+    }
+
+    /**
+     * @param startTime never null
+     * @param multiplier the factor applied to the driving times that depart from this time on, for example 2.0
+     */
+    public record Bucket(LocalTime startTime, double multiplier) {
+    }
+}
@@ -0,0 +1,109 @@
+package org.acme.vehiclerouting.domain.geo;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.acme.vehiclerouting.domain.Location;
+
+/**
+ * {@link DrivingTimeMatrix} with locations added to another matrix after it was calculated.
+ * <p>
+ * Adding a location to a plan that is being solved only calculates the driving times from and to that location,
+ * instead of recalculating the whole matrix.
+ * Those are stored per added location, as a row with the driving times to the locations with a lower index
+ * and a column with the driving times from them.
+ */
+public final class ExtendedDrivingTimeMatrix implements DrivingTimeMatrix {
+
+    private final DrivingTimeMatrix base;
+    private final int baseSize;
+    // Indexed by location index, so the locations of the base matrix that are no longer part of the plan are null.
+    private final Location[] locations;
+    private final int[][] addedRows;
+    private final int[][] addedColumns;
+
+    private ExtendedDrivingTimeMatrix(DrivingTimeMatrix base, Location[] locations, int[][] addedRows,
+            int[][] addedColumns) {
+        this.base = base;
+        this.baseSize = base.size();
+        this.locations = locations;
+        this.addedRows = addedRows;
+        this.addedColumns = addedColumns;
+    }
+
+    /**
+     * Add a location to the driving time matrix shared by the given locations
+     * and assign the extended matrix to all locations in it, together with the index of the new location.
+     * <p>
+     * The extended matrix is a new instance, so a thread that still reads the previous matrix is unaffected.
+     * It must only start using the new location after this method returns.
+     *
+     * @param locations never null, never empty, the locations of the plan, all sharing the same matrix
+     * @param newLocation never null, not yet part of the matrix
+     * @param drivingTimeCalculator never null, calculates the driving times from and to the new location
+     */
+    public static synchronized void extend(Collection<Location> locations, Location newLocation,
+            DrivingTimeCalculator drivingTimeCalculator) {
+        DrivingTimeMatrix matrix = locations.iterator().next().getDrivingTimeMatrix();
+        ExtendedDrivingTimeMatrix extendedMatrix;
+        if (matrix instanceof ExtendedDrivingTimeMatrix previousExtendedMatrix) {
+            extendedMatrix = previousExtendedMatrix.with(newLocation, drivingTimeCalculator);
+        } else {
+            Location[] baseLocations = new Location[matrix.size()];
+            for (Location location : locations) {
+                if (location.getDrivingTimeMatrix() != matrix) {
+                    throw new IllegalArgumentException("The location (%s) does not share the driving time matrix of the other locations."
+                            .formatted(location));
+                }
+                baseLocations[location.getIndex()] = location;
+            }
+            extendedMatrix = new ExtendedDrivingTimeMatrix(matrix, baseLocations, new int[0][], new int[0][])
+                    .with(newLocation, drivingTimeCalculator);
+        }
+        for (int i = 0; i < extendedMatrix.locations.length; i++) {
+            Location location = extendedMatrix.locations[i];
+            if (location != null) {
+                location.setDrivingTimeMatrix(extendedMatrix, i);
+            }
+        }
+    }
+
+    private ExtendedDrivingTimeMatrix with(Location newLocation, DrivingTimeCalculator drivingTimeCalculator) {
+        int newIndex = locations.length;
+        int[] row = new int[newIndex];
+        int[] column = new int[newIndex];
+        for (int i = 0; i < newIndex; i++) {
+            Location location = locations[i];
+            // A location that is no longer part of the plan is never asked for, so it can be skipped.
+            if (location != null) {
+                row[i] = Math.toIntExact(drivingTimeCalculator.calculateDrivingTime(newLocation, location));
+                column[i] = Math.toIntExact(drivingTimeCalculator.calculateDrivingTime(location, newLocation));
+            }
+        }
+        Location[] newLocations = Arrays.copyOf(locations, newIndex + 1);
+        newLocations[newIndex] = newLocation;
+        int[][] newAddedRows = Arrays.copyOf(addedRows, addedRows.length + 1);
+        newAddedRows[addedRows.length] = row;
+        int[][] newAddedColumns = Arrays.copyOf(addedColumns, addedColumns.length + 1);
+        newAddedColumns[addedColumns.length] = column;
+        return new ExtendedDrivingTimeMatrix(base, newLocations, newAddedRows, newAddedColumns);
+    }
+
+    @Override
+    public int size() {
+        return locations.length;
+    }
+
+    @Override
+    public long getDrivingTime(int fromIndex, int toIndex) {
+        if (fromIndex < baseSize && toIndex < baseSize) {
+            return base.getDrivingTime(fromIndex, toIndex);
+        }
+        if (fromIndex == toIndex) {
+            return 0L;
+        }
+        return fromIndex > toIndex
+                ? addedRows[fromIndex - baseSize][toIndex]
+                : addedColumns[toIndex - baseSize][fromIndex];
+    }
+}
@@ -1,5 +1,8 @@
 package org.acme.vehiclerouting.domain.geo;
 
+import java.util.List;
+import java.util.stream.IntStream;
+
 import org.acme.vehiclerouting.domain.Location;
 
 /**
@@ -32,34 +35,66 @@ public final class HaversineDrivingTimeCalculator implements DrivingTimeCalculat
             return 0L;
         }
 
-        CartesianCoordinate fromCartesian = locationToCartesian(from);
-        CartesianCoordinate toCartesian = locationToCartesian(to);
-        return metersToDrivingSeconds(calculateDistance(fromCartesian, toCartesian));
+        double fromLatitudeInRads = Math.toRadians(from.getLatitude());
+        double fromLongitudeInRads = Math.toRadians(from.getLongitude());
+        double toLatitudeInRads = Math.toRadians(to.getLatitude());
+        double toLongitudeInRads = Math.toRadians(to.getLongitude());
+        double dX = cartesianX(fromLatitudeInRads, fromLongitudeInRads) - cartesianX(toLatitudeInRads, toLongitudeInRads);
+        double dY = cartesianY(fromLatitudeInRads, fromLongitudeInRads) - cartesianY(toLatitudeInRads, toLongitudeInRads);
+        double dZ = cartesianZ(fromLatitudeInRads) - cartesianZ(toLatitudeInRads);
+        return metersToDrivingSeconds(calculateDistance(dX, dY, dZ));
     }
 
-    private long calculateDistance(CartesianCoordinate from, CartesianCoordinate to) {
-        if (from.equals(to)) {
-            return 0L;
+    /**
+     * Converts every location to Cartesian coordinates only once
+     * and then fills the rows of the matrix in parallel on the common fork-join pool.
+     */
+    @Override
+    public DrivingTimeMatrix calculateBulkDrivingTime(List<Location> locations) {
+        int size = locations.size();
+        double[] cartesianXs = new double[size];
+        double[] cartesianYs = new double[size];
+        double[] cartesianZs = new double[size];
+        for (int i = 0; i < size; i++) {
+            Location location = locations.get(i);
+            double latitudeInRads = Math.toRadians(location.getLatitude());
+            double longitudeInRads = Math.toRadians(location.getLongitude());
+            cartesianXs[i] = cartesianX(latitudeInRads, longitudeInRads);
+            cartesianYs[i] = cartesianY(latitudeInRads, longitudeInRads);
+            cartesianZs[i] = cartesianZ(latitudeInRads);
         }
 
-        double dX = from.x - to.x;
-        double dY = from.y - to.y;
-        double dZ = from.z - to.z;
+        ArrayDrivingTimeMatrix drivingTimeMatrix = new ArrayDrivingTimeMatrix(size);
+        IntStream.range(0, size).parallel().forEach(fromIndex -> {
+            double fromX = cartesianXs[fromIndex];
+            double fromY = cartesianYs[fromIndex];
+            double fromZ = cartesianZs[fromIndex];
+            for (int toIndex = 0; toIndex < size; toIndex++) {
+                long drivingTime = fromIndex == toIndex ? 0L
+                        : metersToDrivingSeconds(calculateDistance(fromX - cartesianXs[toIndex],
+                                fromY - cartesianYs[toIndex], fromZ - cartesianZs[toIndex]));
+                drivingTimeMatrix.setDrivingTime(fromIndex, toIndex, drivingTime);
+            }
+        });
+        return drivingTimeMatrix;
+    }
+
+    private static long calculateDistance(double dX, double dY, double dZ) {
         double r = Math.sqrt((dX * dX) + (dY * dY) + (dZ * dZ));
         return Math.round(TWICE_EARTH_RADIUS_IN_M * Math.asin(r));
     }
 
-    private CartesianCoordinate locationToCartesian(Location location) {
-        double latitudeInRads = Math.toRadians(location.getLatitude());
-        double longitudeInRads = Math.toRadians(location.getLongitude());
-        // Cartesian coordinates, normalized for a sphere of diameter 1.0
-        double cartesianX = 0.5 * Math.cos(latitudeInRads) * Math.sin(longitudeInRads);
-        double cartesianY = 0.5 * Math.cos(latitudeInRads) * Math.cos(longitudeInRads);
-        double cartesianZ = 0.5 * Math.sin(latitudeInRads);
-        return new CartesianCoordinate(cartesianX, cartesianY, cartesianZ);
+    // Cartesian coordinates, normalized for a sphere of diameter 1.0
+
+    static double cartesianX(double latitudeInRads, double longitudeInRads) {
+        return 0.5 * Math.cos(latitudeInRads) * Math.sin(longitudeInRads);
     }
 
-    private record CartesianCoordinate(double x, double y, double z) {
+    static double cartesianY(double latitudeInRads, double longitudeInRads) {
+        return 0.5 * Math.cos(latitudeInRads) * Math.cos(longitudeInRads);
+    }
 
+    static double cartesianZ(double latitudeInRads) {
+        return 0.5 * Math.sin(latitudeInRads);
     }
 }
@@ -0,0 +1,33 @@
+package org.acme.vehiclerouting.domain.geo;
+
+import java.nio.IntBuffer;
+
+/**
+ * Dense {@link DrivingTimeMatrix} read directly from a memory-mapped file, without copying it to the heap.
+ *
+ * @see CachingDrivingTimeCalculator
+ */
+final class MappedDrivingTimeMatrix implements DrivingTimeMatrix {
+
+    private final int size;
+    private final IntBuffer drivingTimeSeconds;
+
+    MappedDrivingTimeMatrix(int size, IntBuffer drivingTimeSeconds) {
+        if (drivingTimeSeconds.capacity() != size * size) {
+            throw new IllegalArgumentException("The buffer capacity (%d) must be the square of the size (%d)."
+                    .formatted(drivingTimeSeconds.capacity(), size));
+        }
+        this.size = size;
+        this.drivingTimeSeconds = drivingTimeSeconds;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long getDrivingTime(int fromIndex, int toIndex) {
+        return drivingTimeSeconds.get(fromIndex * size + toIndex);
+    }
+}
@@ -0,0 +1,80 @@
+package org.acme.vehiclerouting.domain.geo;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.acme.vehiclerouting.domain.Location;
+
+/**
+ * Assigns every location its nearby locations, nearest driving time first,
+ * so the solver can try to move a visit next to the visits around it instead of anywhere in the city.
+ * <p>
+ * The candidates are the {@link NearestNeighbourIndex nearest neighbours} as the crow flies,
+ * which are then sorted by their driving time.
+ * That only reads driving times that a {@link SparseDrivingTimeMatrix} calculated up front,
+ * so it takes no more than a few hundred milliseconds for 50 000 locations.
+ */
+public final class NearbyLocations {
+
+    public static final int DEFAULT_NEARBY_COUNT = 40;
+
+    /**
+     * @param locations never null, all sharing the same driving time matrix
+     * @param nearbyCount the maximum number of nearby locations per location
+     */
+    public static void assign(List<Location> locations, int nearbyCount) {
+        NearestNeighbourIndex nearestNeighbourIndex = new NearestNeighbourIndex(locations);
+        IntStream.range(0, locations.size()).parallel().forEach(i -> {
+            Location location = locations.get(i);
+            Location[] nearbyLocations = Arrays.stream(nearestNeighbourIndex.findNearestNeighbours(i, nearbyCount))
+                    .mapToObj(locations::get)
+                    .toArray(Location[]::new);
+            sortByDrivingTime(location, nearbyLocations);
+            location.setNearbyLocations(List.of(nearbyLocations));
+        });
+    }
+
+    /**
+     * Assigns a location added to the matrix after the others its nearby locations.
+     * The nearby locations of the others are not updated, so they do not include the new location.
+     *
+     * @param locations never null, the other locations, all sharing the same driving time matrix
+     * @param newLocation never null, already part of that matrix
+     * @param nearbyCount the maximum number of nearby locations
+     */
+    public static void assign(Collection<Location> locations, Location newLocation, int nearbyCount) {
+        // The driving times of a new location were all just calculated, so there is no need for a spatial index.
+        Location[] nearbyLocations = locations.stream()
+                .filter(location -> location != newLocation)
+                .sorted(Comparator.comparingLong(newLocation::getDrivingTimeTo))
+                .limit(nearbyCount)
+                .toArray(Location[]::new);
+        newLocation.setNearbyLocations(List.of(nearbyLocations));
+    }
+
+    private static void sortByDrivingTime(Location location, Location[] nearbyLocations) {
+        long[] drivingTimes = new long[nearbyLocations.length];
+        for (int i = 0; i < nearbyLocations.length; i++) {
+            drivingTimes[i] = location.getDrivingTimeTo(nearbyLocations[i]);
+        }
+        // Insertion sort, because there are only a few dozen nearby locations.
+        for (int i = 1; i < nearbyLocations.length; i++) {
+            Location nearbyLocation = nearbyLocations[i];
+            long drivingTime = drivingTimes[i];
+            int j = i - 1;
+            while (j >= 0 && drivingTimes[j] > drivingTime) {
+                nearbyLocations[j + 1] = nearbyLocations[j];
+                drivingTimes[j + 1] = drivingTimes[j];
+                j--;
+            }
+            nearbyLocations[j + 1] = nearbyLocation;
+            drivingTimes[j + 1] = drivingTime;
+        }
+    }
+
+    private NearbyLocations() {
+    }
+}
@@ -0,0 +1,214 @@
+package org.acme.vehiclerouting.domain.geo;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.acme.vehiclerouting.domain.Location;
+
+/**
+ * Spatial index to find the nearest neighbours of a location as the crow flies.
+ * <p>
+ * It is a static k-d tree over the Cartesian coordinates of the locations on the unit sphere,
+ * in which the straight-line distance grows monotonically with the great-circle distance.
+ * The tree is implicit: each range of {@link #tree} is split by its middle element.
+ */
+public final class NearestNeighbourIndex {
+
+    private static final int DIMENSIONS = 3;
+
+    private final double[][] coordinates;
+    private final int[] tree;
+
+    public NearestNeighbourIndex(List<Location> locations) {
+        int size = locations.size();
+        coordinates = new double[DIMENSIONS][size];
+        tree = new int[size];
+        for (int i = 0; i < size; i++) {
+            Location location = locations.get(i);
+            double latitudeInRads = Math.toRadians(location.getLatitude());
+            double longitudeInRads = Math.toRadians(location.getLongitude());
+            coordinates[0][i] = HaversineDrivingTimeCalculator.cartesianX(latitudeInRads, longitudeInRads);
+            coordinates[1][i] = HaversineDrivingTimeCalculator.cartesianY(latitudeInRads, longitudeInRads);
+            coordinates[2][i] = HaversineDrivingTimeCalculator.cartesianZ(latitudeInRads);
+            tree[i] = i;
+        }
+        build(0, size, 0);
+    }
+
+    private void build(int from, int to, int axis) {
+        if (to - from <= 1) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        select(from, to - 1, middle, coordinates[axis]);
+        int nextAxis = (axis + 1) % DIMENSIONS;
+        build(from, middle, nextAxis);
+        build(middle + 1, to, nextAxis);
+    }
+
+    /**
+     * Quickselect: reorders {@code tree[left..right]} so that {@code tree[target]} has the median coordinate,
+     * lower coordinates before it and higher coordinates after it.
+     */
+    private void select(int left, int right, int target, double[] axisCoordinates) {
+        while (left < right) {
+            double pivot = axisCoordinates[tree[(left + right) >>> 1]];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (axisCoordinates[tree[i]] < pivot) {
+                    i++;
+                }
+                while (axisCoordinates[tree[j]] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = tree[i];
+                    tree[i] = tree[j];
+                    tree[j] = swap;
+                    i++;
+                    j--;
+                }
+            }
+            if (target <= j) {
+                right = j;
+            } else if (target >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the number of locations in this index
+     */
+    public int size() {
+        return tree.length;
+    }
+
+    /**
+     * Find the nearest other locations, as the crow flies.
+     *
+     * @param locationIndex index of the location in the list this index was built from
+     * @param neighbourCount the maximum number of neighbours
+     * @return never null, the indexes of at most {@code neighbourCount} nearest neighbours, nearest first,
+     *         never including {@code locationIndex} itself
+     */
+    public int[] findNearestNeighbours(int locationIndex, int neighbourCount) {
+        Search search = new Search(locationIndex, Math.min(neighbourCount, size() - 1));
+        if (search.capacity > 0) {
+            search(search, 0, size(), 0);
+        }
+        return search.sortedNeighbours();
+    }
+
+    private void search(Search search, int from, int to, int axis) {
+        if (from >= to) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        int node = tree[middle];
+        if (node != search.locationIndex) {
+            search.offer(node, squaredDistance(search.locationIndex, node));
+        }
+        double delta = coordinates[axis][search.locationIndex] - coordinates[axis][node];
+        int nextAxis = (axis + 1) % DIMENSIONS;
+        if (delta < 0) {
+            search(search, from, middle, nextAxis);
+            if (!search.isFull() || delta * delta < search.farthestSquaredDistance()) {
+                search(search, middle + 1, to, nextAxis);
+            }
+        } else {
+            search(search, middle + 1, to, nextAxis);
+            if (!search.isFull() || delta * delta < search.farthestSquaredDistance()) {
+                search(search, from, middle, nextAxis);
+            }
+        }
+    }
+
+    private double squaredDistance(int a, int b) {
+        double squaredDistance = 0.0;
+        for (int axis = 0; axis < DIMENSIONS; axis++) {
+            double delta = coordinates[axis][a] - coordinates[axis][b];
+            squaredDistance += delta * delta;
+        }
+        return squaredDistance;
+    }
+
+    /**
+     * The nearest neighbours found so far, in a binary max-heap on their squared distance.
+     */
+    private static final class Search {
+
+        private final int locationIndex;
+        private final int capacity;
+        private final int[] neighbours;
+        private final double[] squaredDistances;
+        private int size = 0;
+
+        private Search(int locationIndex, int capacity) {
+            this.locationIndex = locationIndex;
+            this.capacity = Math.max(capacity, 0);
+            this.neighbours = new int[this.capacity];
+            this.squaredDistances = new double[this.capacity];
+        }
+
+        boolean isFull() {
+            return size == capacity;
+        }
+
+        double farthestSquaredDistance() {
+            return squaredDistances[0];
+        }
+
+        void offer(int neighbour, double squaredDistance) {
+            if (!isFull()) {
+                int child = size++;
+                while (child > 0) {
+                    int parent = (child - 1) >>> 1;
+                    if (squaredDistances[parent] >= squaredDistance) {
+                        break;
+                    }
+                    neighbours[child] = neighbours[parent];
+                    squaredDistances[child] = squaredDistances[parent];
+                    child = parent;
+                }
+                neighbours[child] = neighbour;
+                squaredDistances[child] = squaredDistance;
+            } else if (squaredDistance < squaredDistances[0]) {
+                int parent = 0;
+                while (true) {
+                    int child = 2 * parent + 1;
+                    if (child >= size) {
+                        break;
+                    }
+                    if (child + 1 < size && squaredDistances[child + 1] > squaredDistances[child]) {
+                        child++;
+                    }
+                    if (squaredDistances[child] <= squaredDistance) {
+                        break;
+                    }
+                    neighbours[parent] = neighbours[child];
+                    squaredDistances[parent] = squaredDistances[child];
+                    parent = child;
+                }
+                neighbours[parent] = neighbour;
+                squaredDistances[parent] = squaredDistance;
+            }
+        }
+
+        int[] sortedNeighbours() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(squaredDistances[a], squaredDistances[b]));
+            int[] sortedNeighbours = new int[size];
+            for (int i = 0; i < size; i++) {
+                sortedNeighbours[i] = neighbours[order[i]];
+            }
+            return sortedNeighbours;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.acme.vehiclerouting.domain.geo;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+import org.acme.vehiclerouting.domain.Location;
+
+/**
+ * Sparse {@link DrivingTimeMatrix} for plans too large for a dense matrix.
+ * <p>
+ * Only the driving times from each location to its {@link NearestNeighbourIndex nearest neighbours} are calculated
+ * up front, which are the pairs a good route mostly consists of.
+ * Any other pair is calculated on demand and kept in a bounded, direct-mapped cache,
+ * in which a newer pair simply overwrites an older pair with the same hash.
+ * At 100 000 locations and the default settings it takes about 40 MB of heap,
+ * whereas a dense matrix would need 40 GB.
+ */
+public final class SparseDrivingTimeMatrix implements DrivingTimeMatrix {
+
+    public static final int DEFAULT_NEIGHBOUR_COUNT = 40;
+    public static final int DEFAULT_CACHE_SIZE = 1 << 20;
+
+    /**
+     * The largest number of locations for which a pair of indexes still fits into {@link #KEY_BITS}.
+     */
+    public static final int MAX_SIZE = 1 << 18;
+
+    // A cache entry packs the driving time in the upper bits and (fromIndex * size + toIndex + 1) in the lower bits,
+    // so that 0 means an empty entry.
+    private static final int KEY_BITS = 36;
+    private static final long KEY_MASK = (1L << KEY_BITS) - 1L;
+    private static final long MAX_CACHED_DRIVING_TIME = (1L << (Long.SIZE - KEY_BITS)) - 1L;
+
+    private final List<Location> locations;
+    private final DrivingTimeCalculator drivingTimeCalculator;
+    private final int size;
+    private final int neighbourCount;
+    // Per location, the indexes of its neighbours in ascending order, so they can be binary searched.
+    private final int[] neighbourIndexes;
+    private final int[] neighbourDrivingTimes;
+    private final AtomicLongArray cache;
+    private final int cacheMask;
+
+    /**
+     * Calculates the driving times to the nearest neighbours of every location, in parallel.
+     *
+     * @param locations never null, the index of each location in the matrix is its position in this list
+     * @param drivingTimeCalculator never null, calculates every driving time
+     * @param neighbourCount the number of nearest neighbours per location
+     * @param cacheSize the number of on demand calculated driving times kept, must be a power of 2
+     */
+    public SparseDrivingTimeMatrix(List<Location> locations, DrivingTimeCalculator drivingTimeCalculator,
+            int neighbourCount, int cacheSize) {
+        if (locations.size() > MAX_SIZE) {
+            throw new IllegalArgumentException("The size (%d) must be at most %d."
+                    .formatted(locations.size(), MAX_SIZE));
+        }
+        if (cacheSize < 1 || Integer.bitCount(cacheSize) != 1) {
+            throw new IllegalArgumentException("The cacheSize (%d) must be a power of 2.".formatted(cacheSize));
+        }
+        this.locations = List.copyOf(locations);
+        this.drivingTimeCalculator = drivingTimeCalculator;
+        this.size = locations.size();
+        this.neighbourCount = Math.max(Math.min(neighbourCount, size - 1), 0);
+        this.neighbourIndexes = new int[Math.multiplyExact(size, this.neighbourCount)];
+        this.neighbourDrivingTimes = new int[neighbourIndexes.length];
+        this.cache = new AtomicLongArray(cacheSize);
+        this.cacheMask = cacheSize - 1;
+
+        NearestNeighbourIndex nearestNeighbourIndex = new NearestNeighbourIndex(this.locations);
+        IntStream.range(0, size).parallel().forEach(fromIndex -> {
+            int[] neighbours = nearestNeighbourIndex.findNearestNeighbours(fromIndex, this.neighbourCount);
+            Arrays.sort(neighbours);
+            Location from = this.locations.get(fromIndex);
+            int offset = fromIndex * this.neighbourCount;
+            for (int i = 0; i < neighbours.length; i++) {
+                neighbourIndexes[offset + i] = neighbours[i];
+                neighbourDrivingTimes[offset + i] = Math.toIntExact(
+                        drivingTimeCalculator.calculateDrivingTime(from, this.locations.get(neighbours[i])));
+            }
+        });
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long getDrivingTime(int fromIndex, int toIndex) {
+        if (fromIndex == toIndex) {
+            return 0L;
+        }
+        int offset = fromIndex * neighbourCount;
+        int neighbourPosition = Arrays.binarySearch(neighbourIndexes, offset, offset + neighbourCount, toIndex);
+        if (neighbourPosition >= 0) {
+            return neighbourDrivingTimes[neighbourPosition];
+        }
+        long key = (long) fromIndex * size + toIndex + 1L;
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> Integer.SIZE) & cacheMask;
+        long entry = cache.getOpaque(slot);
+        if ((entry & KEY_MASK) == key) {
+            return entry >>> KEY_BITS;
+        }
+        long drivingTime = drivingTimeCalculator.calculateDrivingTime(locations.get(fromIndex), locations.get(toIndex));
+        if (drivingTime <= MAX_CACHED_DRIVING_TIME) {
+            cache.setOpaque(slot, (drivingTime << KEY_BITS) | key);
+        }
+        return drivingTime;
+    }
+
+    /**
+     * @param fromIndex index of the starting location
+     * @param toIndex index of the target location
+     * @return true if the driving time between both locations was calculated up front
+     */
+    public boolean isNeighbour(int fromIndex, int toIndex) {
+        int offset = fromIndex * neighbourCount;
+        return Arrays.binarySearch(neighbourIndexes, offset, offset + neighbourCount, toIndex) >= 0;
+    }
+}
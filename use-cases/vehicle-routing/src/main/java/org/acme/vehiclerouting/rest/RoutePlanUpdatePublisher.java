@@ -0,0 +1,193 @@
+package org.acme.vehiclerouting.rest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+
+import ai.timefold.solver.core.api.solver.SolverStatus;
+
+import org.acme.vehiclerouting.domain.Vehicle;
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.acme.vehiclerouting.domain.Visit;
+import org.acme.vehiclerouting.domain.dto.RoutePlanUpdate;
+
+/**
+ * Pushes the best solutions of a job to Server-Sent Events clients, as {@link RoutePlanUpdate}s.
+ * <p>
+ * Each client has at most one event in flight.
+ * The best solutions that arrive meanwhile replace each other, so a slow client only receives the latest one
+ * and the solver thread never waits for a client.
+ * The connection of a client is closed after the final best solution, sent with {@link SolverStatus#NOT_SOLVING}.
+ */
+final class RoutePlanUpdatePublisher {
+
+    static final String EVENT_NAME = "route-plan-update";
+
+    // Each list of subscribers is guarded by its own lock, and is removed from the map once it is empty.
+    private final ConcurrentMap<String, List<Subscriber>> jobIdToSubscribers = new ConcurrentHashMap<>();
+
+    /**
+     * Starts sending the best solutions of a job to a client, starting with the current one.
+     *
+     * @param jobId never null
+     * @param eventSink never null
+     * @param sse never null
+     * @param routePlanSupplier never null, supplies the current best solution, or null if there is none
+     * @param solverStatusSupplier never null, supplies the status of the current best solution
+     */
+    void subscribe(String jobId, SseEventSink eventSink, Sse sse, Supplier<VehicleRoutePlan> routePlanSupplier,
+            Supplier<SolverStatus> solverStatusSupplier) {
+        Subscriber subscriber = new Subscriber(jobId, eventSink, sse);
+        while (true) {
+            List<Subscriber> subscribers = jobIdToSubscribers.computeIfAbsent(jobId, id -> new ArrayList<>());
+            synchronized (subscribers) {
+                // The list was removed after it became empty, so add the subscriber to a new one.
+                if (jobIdToSubscribers.get(jobId) != subscribers) {
+                    continue;
+                }
+                subscribers.add(subscriber);
+                // Within the lock, so a newer best solution, or the final one, is offered after the current one.
+                VehicleRoutePlan routePlan = routePlanSupplier.get();
+                if (routePlan != null) {
+                    subscriber.offer(routePlan, solverStatusSupplier.get());
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Called from the solver thread, so it only hands the route plan over to the subscribers.
+     *
+     * @param jobId never null
+     * @param routePlan never null, a best solution that is no longer changed by the solver
+     * @param solverStatus never null
+     */
+    void publish(String jobId, VehicleRoutePlan routePlan, SolverStatus solverStatus) {
+        List<Subscriber> subscribers = jobIdToSubscribers.get(jobId);
+        if (subscribers == null) {
+            return;
+        }
+        synchronized (subscribers) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(routePlan, solverStatus);
+            }
+        }
+    }
+
+    /**
+     * Closes the connections of all clients of a job, for example because solving failed.
+     *
+     * @param jobId never null
+     */
+    void close(String jobId) {
+        List<Subscriber> subscribers = jobIdToSubscribers.remove(jobId);
+        if (subscribers == null) {
+            return;
+        }
+        synchronized (subscribers) {
+            subscribers.forEach(subscriber -> subscriber.eventSink.close());
+            subscribers.clear();
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.eventSink.close();
+        List<Subscriber> subscribers = jobIdToSubscribers.get(subscriber.jobId);
+        if (subscribers == null) {
+            return;
+        }
+        synchronized (subscribers) {
+            subscribers.remove(subscriber);
+            if (subscribers.isEmpty()) {
+                jobIdToSubscribers.remove(subscriber.jobId, subscribers);
+            }
+        }
+    }
+
+    private record PendingUpdate(VehicleRoutePlan routePlan, SolverStatus solverStatus) {
+    }
+
+    private final class Subscriber {
+
+        private final String jobId;
+        private final SseEventSink eventSink;
+        private final Sse sse;
+        private final AtomicReference<PendingUpdate> pendingUpdate = new AtomicReference<>();
+        // Only the thread that set it to true sends, and it keeps sending until there is no pending update left.
+        private final AtomicBoolean sending = new AtomicBoolean(false);
+        // The visits per vehicle that the client received, only accessed while sending.
+        private Map<String, List<String>> sentVehicleIdToVisitIds = Map.of();
+
+        private Subscriber(String jobId, SseEventSink eventSink, Sse sse) {
+            this.jobId = jobId;
+            this.eventSink = eventSink;
+            this.sse = sse;
+        }
+
+        private void offer(VehicleRoutePlan routePlan, SolverStatus solverStatus) {
+            pendingUpdate.set(new PendingUpdate(routePlan, solverStatus));
+            if (sending.compareAndSet(false, true)) {
+                CompletableFuture.runAsync(this::sendPendingUpdate);
+            }
+        }
+
+        private void sendPendingUpdate() {
+            PendingUpdate update = pendingUpdate.getAndSet(null);
+            if (update == null) {
+                sending.set(false);
+                // Another update might have been offered before the flag was released.
+                if (pendingUpdate.get() != null && sending.compareAndSet(false, true)) {
+                    sendPendingUpdate();
+                }
+                return;
+            }
+            if (eventSink.isClosed()) {
+                unsubscribe(this);
+                return;
+            }
+            eventSink.send(sse.newEventBuilder()
+                    .name(EVENT_NAME)
+                    .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                    .data(RoutePlanUpdate.class, toRoutePlanUpdate(update))
+                    .build())
+                    .whenCompleteAsync((ignored, exception) -> {
+                        if (exception != null || update.solverStatus() == SolverStatus.NOT_SOLVING) {
+                            unsubscribe(this);
+                        } else {
+                            sendPendingUpdate();
+                        }
+                    });
+        }
+
+        private RoutePlanUpdate toRoutePlanUpdate(PendingUpdate update) {
+            List<Vehicle> vehicles = update.routePlan().getVehicles();
+            Map<String, List<String>> vehicleIdToVisitIds = new HashMap<>(vehicles.size());
+            List<Vehicle> changedVehicles = new ArrayList<>();
+            for (Vehicle vehicle : vehicles) {
+                List<String> visitIds = vehicle.getVisits().stream().map(Visit::getId).toList();
+                vehicleIdToVisitIds.put(vehicle.getId(), visitIds);
+                if (!visitIds.equals(sentVehicleIdToVisitIds.get(vehicle.getId()))) {
+                    changedVehicles.add(vehicle);
+                }
+            }
+            List<String> removedVehicleIds = sentVehicleIdToVisitIds.keySet().stream()
+                    .filter(vehicleId -> !vehicleIdToVisitIds.containsKey(vehicleId))
+                    .toList();
+            sentVehicleIdToVisitIds = vehicleIdToVisitIds;
+            return new RoutePlanUpdate(update.routePlan().getScore(), update.solverStatus(), changedVehicles,
+                    removedVehicleIds);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.acme.vehiclerouting.rest;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import ai.timefold.solver.core.api.score.analysis.ScoreAnalysis;
+import ai.timefold.solver.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+import ai.timefold.solver.core.api.solver.ScoreAnalysisFetchPolicy;
+import ai.timefold.solver.core.api.solver.SolutionManager;
+
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * The score explanation summary and score analyses of one best solution, each calculated at most once.
+ * <p>
+ * Both recalculate the score with constraint match tracking, which competes with the solver for the CPU.
+ * A new best solution gets a new cache, so a cache never needs to be invalidated.
+ * The hits and misses are counted in the {@value #METER_NAME} meter, tagged by cache and result.
+ */
+final class ScoreAnalysisCache {
+
+    static final String METER_NAME = "vehicle.routing.score.analysis.cache";
+
+    private static final Counter SUMMARY_HITS = counter("summary", "hit");
+    private static final Counter SUMMARY_MISSES = counter("summary", "miss");
+    private static final Counter ANALYSIS_HITS = counter("analysis", "hit");
+    private static final Counter ANALYSIS_MISSES = counter("analysis", "miss");
+
+    private static Counter counter(String cache, String result) {
+        return Metrics.counter(METER_NAME, "cache", cache, "result", result);
+    }
+
+    private final VehicleRoutePlan routePlan;
+    // Guarded by the lock of the route plan.
+    private String summary = null;
+    private final Map<ScoreAnalysisFetchPolicy, ScoreAnalysis<HardSoftLongScore>> fetchPolicyToAnalysis =
+            new EnumMap<>(ScoreAnalysisFetchPolicy.class);
+
+    ScoreAnalysisCache(VehicleRoutePlan routePlan) {
+        this.routePlan = routePlan;
+    }
+
+    String getSummary(SolutionManager<VehicleRoutePlan, HardSoftLongScore> solutionManager) {
+        // Explaining updates the shadow variables of the route plan, which the recommendations might be reading.
+        synchronized (routePlan) {
+            if (summary != null) {
+                SUMMARY_HITS.increment();
+                return summary;
+            }
+            SUMMARY_MISSES.increment();
+            summary = solutionManager.explain(routePlan).getSummary();
+            return summary;
+        }
+    }
+
+    ScoreAnalysis<HardSoftLongScore> getAnalysis(SolutionManager<VehicleRoutePlan, HardSoftLongScore> solutionManager,
+            ScoreAnalysisFetchPolicy fetchPolicy) {
+        synchronized (routePlan) {
+            ScoreAnalysis<HardSoftLongScore> analysis = fetchPolicyToAnalysis.get(fetchPolicy);
+            if (analysis != null) {
+                ANALYSIS_HITS.increment();
+                return analysis;
+            }
+            ANALYSIS_MISSES.increment();
+            analysis = solutionManager.analyze(routePlan, fetchPolicy);
+            fetchPolicyToAnalysis.put(fetchPolicy, analysis);
+            return analysis;
+        }
+    }
+}
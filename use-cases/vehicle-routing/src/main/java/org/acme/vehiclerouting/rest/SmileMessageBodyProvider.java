@@ -0,0 +1,84 @@
+package org.acme.vehiclerouting.rest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+/**
+ * Reads and writes <a href="https://github.com/FasterXML/smile-format-specification">Smile</a>,
+ * the binary form of JSON, for the requests and responses that have the {@link #APPLICATION_SMILE} media type.
+ * <p>
+ * A route plan of thousands of visits is megabytes of JSON, mostly the same property names and visit IDs over and over.
+ * Smile writes each of those only once, and skips the parsing of numbers and escaping of text.
+ * It has the same data model as JSON, so it uses the same Jackson configuration and annotations as the JSON mapper.
+ */
+@Provider
+@Consumes(SmileMessageBodyProvider.APPLICATION_SMILE)
+@Produces(SmileMessageBodyProvider.APPLICATION_SMILE)
+public class SmileMessageBodyProvider implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
+
+    public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+
+    private final ObjectMapper smileMapper;
+
+    @Inject
+    public SmileMessageBodyProvider(ObjectMapper objectMapper) {
+        this.smileMapper = buildSmileMapper(objectMapper);
+    }
+
+    /**
+     * @param objectMapper never null, the JSON mapper, a plain {@link ObjectMapper} like the one of Quarkus,
+     *        because subclasses such as {@code JsonMapper} cannot be copied with another factory
+     * @return never null, a mapper with the same configuration and modules, that reads and writes Smile instead
+     */
+    public static ObjectMapper buildSmileMapper(ObjectMapper objectMapper) {
+        SmileFactory smileFactory = SmileFactory.builder()
+                // The IDs of the visits are repeated in the visits of every vehicle.
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        ObjectMapper smileMapper = objectMapper.copyWith(smileFactory);
+        // JAX-RS closes the streams itself.
+        smileMapper.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        smileMapper.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        return smileMapper;
+    }
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return true;
+    }
+
+    @Override
+    public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException {
+        return smileMapper.readerFor(smileMapper.constructType(genericType)).readValue(entityStream);
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return true;
+    }
+
+    @Override
+    public void writeTo(Object value, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        smileMapper.writerFor(smileMapper.constructType(genericType)).writeValue(entityStream, value);
+    }
+}
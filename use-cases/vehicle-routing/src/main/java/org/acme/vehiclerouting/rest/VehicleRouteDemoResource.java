@@ -16,12 +16,14 @@ import java.util.stream.Stream;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 
 import org.acme.vehiclerouting.domain.Location;
 import org.acme.vehiclerouting.domain.Vehicle;
 import org.acme.vehiclerouting.domain.VehicleRoutePlan;
 import org.acme.vehiclerouting.domain.Visit;
+import org.acme.vehiclerouting.domain.geo.DrivingTimeMatrixMode;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
@@ -140,6 +142,7 @@ public class VehicleRouteDemoResource {
                             schema = @Schema(implementation = VehicleRoutePlan.class))) })
     @Operation(summary = "Find an unsolved demo route plan by ID.")
     @GET
+    @Produces({MediaType.APPLICATION_JSON, SmileMessageBodyProvider.APPLICATION_SMILE})
     @Path("/{demoDataId}")
     public VehicleRoutePlan generate(@Parameter(description = "Unique identifier of the demo data.",
             required = true) @PathParam("demoDataId") DemoData demoData) {
@@ -147,7 +150,28 @@ public class VehicleRouteDemoResource {
     }
 
     public VehicleRoutePlan build(DemoData demoData) {
+        return build(demoData, demoData.visitCount, null);
+    }
+
+    /**
+     * Builds a route plan in the area of the given demo data with any number of visits,
+     * for example to benchmark how the solver scales.
+     * The number of vehicles grows with the number of visits, in the same ratio as in the demo data.
+     * The same arguments always build the same plan, apart from the date.
+     *
+     * @param demoData never null
+     * @param visitCount at least 1
+     * @param drivingTimeMatrixMode null for {@link DrivingTimeMatrixMode#DENSE}
+     * @return never null
+     */
+    public VehicleRoutePlan build(DemoData demoData, int visitCount, DrivingTimeMatrixMode drivingTimeMatrixMode) {
+        if (visitCount < 1) {
+            throw new IllegalArgumentException(
+                    "Number of visitCount (%s) must be greater than zero.".formatted(visitCount));
+        }
         String name = "demo";
+        int vehicleCount = Math.max(demoData.vehicleCount,
+                Math.round((float) visitCount * demoData.vehicleCount / demoData.visitCount));
 
         Random random = new Random(demoData.seed);
         PrimitiveIterator.OfDouble latitudes = random
@@ -168,7 +192,7 @@ public class VehicleRouteDemoResource {
                 tomorrowAt(demoData.vehicleStartTime));
 
         List<Vehicle> vehicles = Stream.generate(vehicleSupplier)
-                .limit(demoData.vehicleCount)
+                .limit(vehicleCount)
                 .collect(Collectors.toList());
 
         Supplier<String> nameSupplier = () -> {
@@ -197,12 +221,12 @@ public class VehicleRouteDemoResource {
         };
 
         List<Visit> visits = Stream.generate(visitSupplier)
-                .limit(demoData.visitCount)
+                .limit(visitCount)
                 .collect(Collectors.toList());
 
         return new VehicleRoutePlan(name, demoData.southWestCorner, demoData.northEastCorner,
                 tomorrowAt(demoData.vehicleStartTime), tomorrowAt(LocalTime.MIDNIGHT).plusDays(1L),
-                vehicles, visits);
+                drivingTimeMatrixMode, vehicles, visits);
     }
 
     private static LocalDateTime tomorrowAt(LocalTime time) {
@@ -1,11 +1,17 @@
 package org.acme.vehiclerouting.rest;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 
+import jakarta.annotation.PreDestroy;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
@@ -16,8 +22,11 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
 
 import ai.timefold.solver.core.api.score.analysis.ScoreAnalysis;
 import ai.timefold.solver.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
@@ -26,15 +35,28 @@ import ai.timefold.solver.core.api.solver.ScoreAnalysisFetchPolicy;
 import ai.timefold.solver.core.api.solver.SolutionManager;
 import ai.timefold.solver.core.api.solver.SolverManager;
 import ai.timefold.solver.core.api.solver.SolverStatus;
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
 
 import org.acme.vehiclerouting.domain.Vehicle;
 import org.acme.vehiclerouting.domain.VehicleRoutePlan;
 import org.acme.vehiclerouting.domain.Visit;
+import org.acme.vehiclerouting.domain.dto.ApplyJobRecommendationRequest;
 import org.acme.vehiclerouting.domain.dto.ApplyRecommendationRequest;
+import org.acme.vehiclerouting.domain.dto.BatchRecommendationRequest;
 import org.acme.vehiclerouting.domain.dto.RecommendationRequest;
+import org.acme.vehiclerouting.domain.dto.RoutePlanUpdate;
+import org.acme.vehiclerouting.domain.dto.TimeWindowRequest;
 import org.acme.vehiclerouting.domain.dto.VehicleRecommendation;
 import org.acme.vehiclerouting.rest.exception.ErrorInfo;
 import org.acme.vehiclerouting.rest.exception.VehicleRoutingSolverException;
+import org.acme.vehiclerouting.rest.jobstore.EvictingJobStore;
+import org.acme.vehiclerouting.rest.jobstore.JobStore;
+import org.acme.vehiclerouting.rest.jobstore.JobStoreConfig;
+import org.acme.vehiclerouting.solver.AddVisitProblemChange;
+import org.acme.vehiclerouting.solver.ChangeVisitTimeWindowProblemChange;
+import org.acme.vehiclerouting.solver.PartitionedSolver;
+import org.acme.vehiclerouting.solver.RemoveVehicleProblemChange;
+import org.acme.vehiclerouting.solver.RemoveVisitProblemChange;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
@@ -46,32 +68,61 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 @Tag(name = "Vehicle Routing with Capacity and Time Windows",
         description = "Vehicle Routing optimizes routes of vehicles with given capacities to visits available in specified time windows.")
 @Path("route-plans")
 public class VehicleRoutePlanResource {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(VehicleRoutePlanResource.class);
-    private static final int MAX_RECOMMENDED_FIT_LIST_SIZE = 5;
+    static final int MAX_RECOMMENDED_FIT_LIST_SIZE = 5;
 
     private final SolverManager<VehicleRoutePlan, String> solverManager;
 
     private final SolutionManager<VehicleRoutePlan, HardSoftLongScore> solutionManager;
 
-    // TODO: Without any "time to live", the map may eventually grow out of memory.
-    private final ConcurrentMap<String, Job> jobIdToJob = new ConcurrentHashMap<>();
+    private final PartitionedSolver partitionedSolver;
+
+    private final RoutePlanUpdatePublisher routePlanUpdatePublisher;
+
+    private final JobStore<Job> jobIdToJob;
 
     // Workaround to make Quarkus CDI happy. Do not use.
     public VehicleRoutePlanResource() {
         this.solverManager = null;
         this.solutionManager = null;
+        this.partitionedSolver = null;
+        this.routePlanUpdatePublisher = null;
+        this.jobIdToJob = null;
     }
 
     @Inject
     public VehicleRoutePlanResource(SolverManager<VehicleRoutePlan, String> solverManager,
-                                    SolutionManager<VehicleRoutePlan, HardSoftLongScore> solutionManager) {
+                                    SolutionManager<VehicleRoutePlan, HardSoftLongScore> solutionManager,
+                                    JobStoreConfig jobStoreConfig, ObjectMapper objectMapper) {
         this.solverManager = solverManager;
         this.solutionManager = solutionManager;
+        this.partitionedSolver = new PartitionedSolver(solverManager);
+        this.routePlanUpdatePublisher = new RoutePlanUpdatePublisher();
+        this.jobIdToJob = new EvictingJobStore<>(jobStoreConfig.maxInMemoryJobCount(), jobStoreConfig.timeToLive(),
+                jobStoreConfig.spillDirectoryOrDefault(), objectMapper, VehicleRoutePlan.class, Job::routePlan,
+                routePlan -> {
+                    // The shadow variables, such as the arrival times, are not read from disk.
+                    solutionManager.update(routePlan);
+                    return Job.ofRoutePlan(routePlan);
+                },
+                jobId -> partitionedSolver.getSolverStatus(jobId) != SolverStatus.NOT_SOLVING, "route-plans",
+                // The clients of an expired job would otherwise keep waiting for updates.
+                routePlanUpdatePublisher::close);
+    }
+
+    @PreDestroy
+    void closeJobStore() {
+        // Deletes the spilled jobs, which a restarted server no longer knows about.
+        if (jobIdToJob != null) {
+            jobIdToJob.close();
+        }
     }
 
     @Operation(summary = "List the job IDs of all submitted route plans.")
@@ -82,7 +133,7 @@ public class VehicleRoutePlanResource {
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public Collection<String> list() {
-        return jobIdToJob.keySet();
+        return jobIdToJob.getJobIds();
     }
 
     @Operation(summary = "Submit a route plan to start solving as soon as CPU resources are available.")
@@ -91,21 +142,58 @@ public class VehicleRoutePlanResource {
                     description = "The job ID. Use that ID to get the solution with the other methods.",
                     content = @Content(mediaType = MediaType.TEXT_PLAIN, schema = @Schema(implementation = String.class)))})
     @POST
-    @Consumes({MediaType.APPLICATION_JSON})
+    @Consumes({MediaType.APPLICATION_JSON, SmileMessageBodyProvider.APPLICATION_SMILE})
     @Produces(MediaType.TEXT_PLAIN)
-    public String solve(VehicleRoutePlan problem) {
+    public String solve(VehicleRoutePlan problem,
+            @Parameter(description = "To solve a large route plan faster, first solve this number of geographic partitions of it in parallel. Defaults to 1.")
+            @QueryParam("partitionCount") Integer partitionCount) {
         String jobId = UUID.randomUUID().toString();
         jobIdToJob.put(jobId, Job.ofRoutePlan(problem));
+        if (partitionCount == null || partitionCount <= 1) {
+            startSolving(jobId);
+        } else {
+            partitionedSolver.solve(jobId, problem, partitionCount,
+                    solution -> updateRoutePlan(jobId, solution, SolverStatus.SOLVING_ACTIVE),
+                    solution -> {
+                        jobIdToJob.put(jobId, Job.ofRoutePlan(solution));
+                        startSolving(jobId);
+                    },
+                    this::handleException);
+        }
+        return jobId;
+    }
+
+    /**
+     * Keeps a route plan as a job without solving it,
+     * like a job that was terminated before the solver assigned all of its visits.
+     *
+     * @return the job ID
+     */
+    String keep(VehicleRoutePlan routePlan) {
+        String jobId = UUID.randomUUID().toString();
+        jobIdToJob.put(jobId, Job.ofRoutePlan(routePlan));
+        return jobId;
+    }
+
+    private void startSolving(String jobId) {
         solverManager.solveBuilder()
                 .withProblemId(jobId)
                 .withProblemFinder(jobId_ -> jobIdToJob.get(jobId).routePlan)
-                .withBestSolutionConsumer(solution -> jobIdToJob.put(jobId, Job.ofRoutePlan(solution)))
-                .withExceptionHandler((jobId_, exception) -> {
-                    jobIdToJob.put(jobId, Job.ofException(exception));
-                    LOGGER.error("Failed solving jobId ({}).", jobId, exception);
-                })
+                .withBestSolutionConsumer(solution -> updateRoutePlan(jobId, solution, SolverStatus.SOLVING_ACTIVE))
+                .withFinalBestSolutionConsumer(solution -> updateRoutePlan(jobId, solution, SolverStatus.NOT_SOLVING))
+                .withExceptionHandler(this::handleException)
                 .run();
-        return jobId;
+    }
+
+    private void updateRoutePlan(String jobId, VehicleRoutePlan solution, SolverStatus solverStatus) {
+        jobIdToJob.put(jobId, Job.ofRoutePlan(solution));
+        routePlanUpdatePublisher.publish(jobId, solution, solverStatus);
+    }
+
+    private void handleException(String jobId, Throwable exception) {
+        jobIdToJob.put(jobId, Job.ofException(exception));
+        routePlanUpdatePublisher.close(jobId);
+        LOGGER.error("Failed solving jobId ({}).", jobId, exception);
     }
 
     @Operation(summary = "Request recommendations to the RecommendedFit API for a new visit.")
@@ -123,8 +211,13 @@ public class VehicleRoutePlanResource {
                 .filter(v -> v.getId().equals(request.visitId()))
                 .findFirst()
                 .orElseThrow(() -> new IllegalStateException("Visit %s not found".formatted(request.visitId())));
+        return recommendFit(request.solution(), visit);
+    }
+
+    private List<RecommendedFit<VehicleRecommendation, HardSoftLongScore>> recommendFit(VehicleRoutePlan routePlan,
+            Visit visit) {
         List<RecommendedFit<VehicleRecommendation, HardSoftLongScore>> recommendedFitList = solutionManager
-                .recommendFit(request.solution(), visit, v -> new VehicleRecommendation(v.getVehicle().getId(),
+                .recommendFit(routePlan, visit, v -> new VehicleRecommendation(v.getVehicle().getId(),
                         v.getVehicle().getVisits().indexOf(v)));
         if (!recommendedFitList.isEmpty()) {
             return recommendedFitList.subList(0, Math.min(MAX_RECOMMENDED_FIT_LIST_SIZE, recommendedFitList.size()));
@@ -158,6 +251,314 @@ public class VehicleRoutePlanResource {
         return updatedSolution;
     }
 
+    @Operation(summary = "Request recommendations to the RecommendedFit API for an unassigned visit of the route plan of a given job ID.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200",
+                    description = "The list of fits for the given visit.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = List.class))),
+            @APIResponse(responseCode = "404", description = "No route plan or visit found.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "409", description = "The visit is already assigned.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class)))
+    })
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("{jobId}/recommendation")
+    public List<RecommendedFit<VehicleRecommendation, HardSoftLongScore>> recommendedFit(
+            @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId,
+            @Parameter(description = "The ID of an unassigned visit.") @QueryParam("visitId") String visitId) {
+        VehicleRoutePlan routePlan = getRoutePlanAndCheckForExceptions(jobId);
+        // The route plan stays on the server, so its driving time matrix is reused as is.
+        synchronized (routePlan) {
+            Set<Visit> assignedVisits = getAssignedVisits(routePlan);
+            Visit visit = findUnassignedVisit(jobId, routePlan, assignedVisits, visitId);
+            return recommendFit(withoutOtherUnassignedVisits(routePlan, assignedVisits, visit), visit);
+        }
+    }
+
+    @Operation(summary = "Request recommendations to the RecommendedFit API for many unassigned visits of the route plan of a given job ID at once.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200",
+                    description = "The list of fits per visit ID, each fit as if that visit is the only one added.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = Map.class))),
+            @APIResponse(responseCode = "404", description = "No route plan or visit found.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "409", description = "A visit is already assigned.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class)))
+    })
+    @POST
+    @Consumes({MediaType.APPLICATION_JSON})
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("{jobId}/recommendations")
+    public Map<String, List<RecommendedFit<VehicleRecommendation, HardSoftLongScore>>> recommendedFits(
+            @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId,
+            BatchRecommendationRequest request) {
+        VehicleRoutePlan routePlan = getRoutePlanAndCheckForExceptions(jobId);
+        synchronized (routePlan) {
+            Set<Visit> assignedVisits = getAssignedVisits(routePlan);
+            List<Visit> visits = request.visitIds().stream()
+                    .distinct()
+                    .map(visitId -> findUnassignedVisit(jobId, routePlan, assignedVisits, visitId))
+                    .toList();
+            // Each fit clones the route plan, so they only read it and can run in parallel.
+            List<List<RecommendedFit<VehicleRecommendation, HardSoftLongScore>>> recommendedFitLists = visits
+                    .parallelStream()
+                    .map(visit -> recommendFit(withoutOtherUnassignedVisits(routePlan, assignedVisits, visit), visit))
+                    .toList();
+            Map<String, List<RecommendedFit<VehicleRecommendation, HardSoftLongScore>>> visitIdToRecommendedFitList =
+                    new LinkedHashMap<>(visits.size());
+            for (int i = 0; i < visits.size(); i++) {
+                visitIdToRecommendedFitList.put(visits.get(i).getId(), recommendedFitLists.get(i));
+            }
+            return visitIdToRecommendedFitList;
+        }
+    }
+
+    @Operation(summary = "Applies a given recommendation to the route plan of a given job ID, which must not be solving.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200",
+                    description = "The route plan updated with the recommendation.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = VehicleRoutePlan.class))),
+            @APIResponse(responseCode = "404", description = "No route plan, visit or vehicle found.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "409", description = "The route plan is solving or the visit is already assigned.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class)))
+    })
+    @POST
+    @Consumes({MediaType.APPLICATION_JSON})
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("{jobId}/recommendation/apply")
+    public VehicleRoutePlan applyRecommendedFit(
+            @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId,
+            ApplyJobRecommendationRequest request) {
+        VehicleRoutePlan routePlan = getRoutePlanAndCheckForExceptions(jobId);
+        if (partitionedSolver.getSolverStatus(jobId) != SolverStatus.NOT_SOLVING) {
+            throw new VehicleRoutingSolverException(jobId, Response.Status.CONFLICT,
+                    "Terminate solving before applying a recommendation.");
+        }
+        synchronized (routePlan) {
+            Visit visit = findUnassignedVisit(jobId, routePlan, getAssignedVisits(routePlan), request.visitId());
+            Vehicle vehicle = routePlan.getVehicles().stream()
+                    .filter(v -> v.getId().equals(request.vehicleId()))
+                    .findFirst()
+                    .orElseThrow(() -> new VehicleRoutingSolverException(jobId, Response.Status.NOT_FOUND,
+                            "Vehicle %s not found".formatted(request.vehicleId())));
+            if (request.index() < 0 || request.index() > vehicle.getVisits().size()) {
+                throw new VehicleRoutingSolverException(jobId, Response.Status.BAD_REQUEST,
+                        "The index (%d) is not a position in the route of vehicle %s."
+                                .formatted(request.index(), vehicle.getId()));
+            }
+            vehicle.getVisits().add(request.index(), visit);
+            solutionManager.update(routePlan);
+        }
+        // Replaces the cached score explanation of the route plan without the visit.
+        jobIdToJob.put(jobId, Job.ofRoutePlan(routePlan));
+        return routePlan;
+    }
+
+    private static Visit findUnassignedVisit(String jobId, VehicleRoutePlan routePlan, Set<Visit> assignedVisits,
+            String visitId) {
+        Visit visit = findVisit(jobId, routePlan, visitId);
+        if (assignedVisits.contains(visit)) {
+            throw new VehicleRoutingSolverException(jobId, Response.Status.CONFLICT,
+                    "Visit %s is already assigned".formatted(visitId));
+        }
+        return visit;
+    }
+
+    /**
+     * The RecommendedFit API requires all other visits to be assigned.
+     */
+    private static VehicleRoutePlan withoutOtherUnassignedVisits(VehicleRoutePlan routePlan, Set<Visit> assignedVisits,
+            Visit visit) {
+        List<Visit> visits = routePlan.getVisits().stream()
+                .filter(v -> v == visit || assignedVisits.contains(v))
+                .toList();
+        if (visits.size() == routePlan.getVisits().size()) {
+            return routePlan;
+        }
+        return routePlan.withVehiclesAndVisits(routePlan.getVehicles(), visits);
+    }
+
+    private static Set<Visit> getAssignedVisits(VehicleRoutePlan routePlan) {
+        // The routes are leading, the vehicle of a visit is only a shadow variable.
+        Set<Visit> assignedVisits = Collections.newSetFromMap(new IdentityHashMap<>(routePlan.getVisits().size()));
+        routePlan.getVehicles().forEach(vehicle -> assignedVisits.addAll(vehicle.getVisits()));
+        return assignedVisits;
+    }
+
+    @Operation(summary = "Add a visit to the route plan of a given job ID, which the solver then assigns, without restarting from scratch.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "The best solution of the route plan with the new visit.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = VehicleRoutePlan.class))),
+            @APIResponse(responseCode = "400", description = "The visit has no location.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "404", description = "No route plan found.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "409", description = "A visit with the same ID exists or the partitions are still being solved.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class)))
+    })
+    @POST
+    @Consumes({MediaType.APPLICATION_JSON})
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("{jobId}/visits")
+    public VehicleRoutePlan addVisit(
+            @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId,
+            Visit visit) {
+        if (visit.getLocation() == null) {
+            throw new VehicleRoutingSolverException(jobId, Response.Status.BAD_REQUEST,
+                    "Visit %s has no location".formatted(visit.getId()));
+        }
+        return changeRoutePlan(jobId, routePlan -> {
+            if (routePlan.getVisits().stream().anyMatch(v -> v.getId().equals(visit.getId()))) {
+                throw new VehicleRoutingSolverException(jobId, Response.Status.CONFLICT,
+                        "Visit %s already exists".formatted(visit.getId()));
+            }
+            // Only calculates the driving times from and to the new location, unless the plan already has it.
+            visit.setLocation(routePlan.addLocation(visit.getLocation()));
+            return new AddVisitProblemChange(visit);
+        });
+    }
+
+    @Operation(summary = "Remove a visit, for example a cancelled order, from the route plan of a given job ID.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "The best solution of the route plan without the visit.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = VehicleRoutePlan.class))),
+            @APIResponse(responseCode = "404", description = "No route plan or visit found.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "409", description = "The partitions are still being solved.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class)))
+    })
+    @DELETE
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("{jobId}/visits/{visitId}")
+    public VehicleRoutePlan removeVisit(
+            @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId,
+            @Parameter(description = "The ID of the visit to remove.") @PathParam("visitId") String visitId) {
+        return changeRoutePlan(jobId,
+                routePlan -> new RemoveVisitProblemChange(findVisit(jobId, routePlan, visitId)));
+    }
+
+    @Operation(summary = "Change the time window of a visit of the route plan of a given job ID.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "The best solution of the route plan with the new time window.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = VehicleRoutePlan.class))),
+            @APIResponse(responseCode = "400", description = "The time window is incomplete or ends before it starts.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "404", description = "No route plan or visit found.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "409", description = "The partitions are still being solved.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class)))
+    })
+    @PUT
+    @Consumes({MediaType.APPLICATION_JSON})
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("{jobId}/visits/{visitId}/time-window")
+    public VehicleRoutePlan changeVisitTimeWindow(
+            @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId,
+            @Parameter(description = "The ID of the visit to change.") @PathParam("visitId") String visitId,
+            TimeWindowRequest request) {
+        if (request.minStartTime() == null || request.maxEndTime() == null
+                || request.maxEndTime().isBefore(request.minStartTime())) {
+            throw new VehicleRoutingSolverException(jobId, Response.Status.BAD_REQUEST,
+                    "The time window (%s - %s) is incomplete or ends before it starts."
+                            .formatted(request.minStartTime(), request.maxEndTime()));
+        }
+        return changeRoutePlan(jobId, routePlan -> new ChangeVisitTimeWindowProblemChange(
+                findVisit(jobId, routePlan, visitId), request.minStartTime(), request.maxEndTime()));
+    }
+
+    @Operation(summary = "Take a vehicle of the route plan of a given job ID out of service. The solver moves its visits to the other vehicles.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "The best solution of the route plan without the vehicle.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = VehicleRoutePlan.class))),
+            @APIResponse(responseCode = "404", description = "No route plan or vehicle found.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "409", description = "The partitions are still being solved.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class)))
+    })
+    @DELETE
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("{jobId}/vehicles/{vehicleId}")
+    public VehicleRoutePlan removeVehicle(
+            @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId,
+            @Parameter(description = "The ID of the vehicle to take out of service.") @PathParam("vehicleId") String vehicleId) {
+        return changeRoutePlan(jobId, routePlan -> {
+            Vehicle vehicle = routePlan.getVehicles().stream()
+                    .filter(v -> v.getId().equals(vehicleId))
+                    .findFirst()
+                    .orElseThrow(() -> new VehicleRoutingSolverException(jobId, Response.Status.NOT_FOUND,
+                            "Vehicle %s not found".formatted(vehicleId)));
+            return new RemoveVehicleProblemChange(vehicle);
+        });
+    }
+
+    /**
+     * Applies a problem change to the solver job, instead of terminating it and solving the changed plan again,
+     * so the solver continues from its best solution and reuses the driving time matrix.
+     * A job that is no longer solving is restarted from its best solution first.
+     * <p>
+     * Synchronized, so the problem change is created from the best solution that includes all previous changes.
+     *
+     * @param problemChangeFactory creates the problem change from the best solution so far
+     * @return the best solution that includes the problem change
+     */
+    private synchronized VehicleRoutePlan changeRoutePlan(String jobId,
+            Function<VehicleRoutePlan, ProblemChange<VehicleRoutePlan>> problemChangeFactory) {
+        VehicleRoutePlan routePlan = getRoutePlanAndCheckForExceptions(jobId);
+        if (partitionedSolver.isSolvingPartitions(jobId)) {
+            throw new VehicleRoutingSolverException(jobId, Response.Status.CONFLICT,
+                    "Wait until the partitions are solved before changing the route plan.");
+        }
+        ProblemChange<VehicleRoutePlan> problemChange = problemChangeFactory.apply(routePlan);
+        if (solverManager.getSolverStatus(jobId) == SolverStatus.NOT_SOLVING) {
+            startSolving(jobId);
+        }
+        try {
+            solverManager.addProblemChange(jobId, problemChange).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new VehicleRoutingSolverException(jobId, e);
+        } catch (ExecutionException | IllegalStateException e) {
+            // The job ended before it applied the change, for example because it was terminated.
+            // A pending change is then cancelled, which is an IllegalStateException too.
+            throw new VehicleRoutingSolverException(jobId, Response.Status.CONFLICT,
+                    "Solving ended before the change was applied. Try again.");
+        }
+        return getRoutePlanAndCheckForExceptions(jobId);
+    }
+
+    private static Visit findVisit(String jobId, VehicleRoutePlan routePlan, String visitId) {
+        return routePlan.getVisits().stream()
+                .filter(v -> v.getId().equals(visitId))
+                .findFirst()
+                .orElseThrow(() -> new VehicleRoutingSolverException(jobId, Response.Status.NOT_FOUND,
+                        "Visit %s not found".formatted(visitId)));
+    }
+
     @Operation(
             summary = "Get the route plan and score for a given job ID. This is the best solution so far, as it might still be running or not even started.")
     @APIResponses(value = {
@@ -172,18 +573,54 @@ public class VehicleRoutePlanResource {
                             schema = @Schema(implementation = ErrorInfo.class)))
     })
     @GET
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, SmileMessageBodyProvider.APPLICATION_SMILE})
     @Path("{jobId}")
     public VehicleRoutePlan getRoutePlan(
             @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId) {
-        VehicleRoutePlan routePlan = getRoutePlanAndCheckForExceptions(jobId);
-        SolverStatus solverStatus = solverManager.getSolverStatus(jobId);
-        String scoreExplanation = solutionManager.explain(routePlan).getSummary();
-        routePlan.setSolverStatus(solverStatus);
-        routePlan.setScoreExplanation(scoreExplanation);
+        Job job = getJobAndCheckForExceptions(jobId);
+        VehicleRoutePlan routePlan = job.routePlan;
+        SolverStatus solverStatus = partitionedSolver.getSolverStatus(jobId);
+        String scoreExplanation = job.scoreAnalysisCache.getSummary(solutionManager);
+        synchronized (routePlan) {
+            routePlan.setSolverStatus(solverStatus);
+            routePlan.setScoreExplanation(scoreExplanation);
+        }
         return routePlan;
     }
 
+    @Operation(
+            summary = "Analyze the score of the best solution so far of the route plan for a given job ID.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200",
+                    description = "Resulting score analysis, optionally without constraint matches.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ScoreAnalysis.class))),
+            @APIResponse(responseCode = "404", description = "No route plan found.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "409", description = "The solver has not assigned all visits yet.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "500", description = "Exception during solving a route plan.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class)))
+    })
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("{jobId}/analysis")
+    public ScoreAnalysis<HardSoftLongScore> analyze(
+            @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId,
+            @QueryParam("fetchPolicy") ScoreAnalysisFetchPolicy fetchPolicy) {
+        Job job = getJobAndCheckForExceptions(jobId);
+        HardSoftLongScore score = job.routePlan.getScore();
+        if (score == null || !score.isSolutionInitialized()) {
+            throw new VehicleRoutingSolverException(jobId, Response.Status.CONFLICT,
+                    "The route plan has unassigned visits, so its score cannot be analyzed yet.");
+        }
+        return job.scoreAnalysisCache.getAnalysis(solutionManager,
+                fetchPolicy == null ? ScoreAnalysisFetchPolicy.FETCH_ALL : fetchPolicy);
+    }
+
     @Operation(
             summary = "Get the route plan status and score for a given job ID.")
     @APIResponses(value = {
@@ -203,19 +640,55 @@ public class VehicleRoutePlanResource {
     public VehicleRoutePlan getStatus(
             @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId) {
         VehicleRoutePlan routePlan = getRoutePlanAndCheckForExceptions(jobId);
-        SolverStatus solverStatus = solverManager.getSolverStatus(jobId);
+        SolverStatus solverStatus = partitionedSolver.getSolverStatus(jobId);
         return new VehicleRoutePlan(routePlan.getName(), routePlan.getScore(), solverStatus);
     }
 
+    @Operation(
+            summary = "Stream the best solutions of the route plan for a given job ID as Server-Sent Events, instead of polling it.",
+            description = "The first event contains all vehicles. Every next event only contains the score, the solver status and the vehicles whose visits changed since the previous event. A best solution that is found while the previous event is still being sent replaces any older one that has not been sent yet.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "A stream of route-plan-update events.",
+                    content = @Content(mediaType = MediaType.SERVER_SENT_EVENTS,
+                            schema = @Schema(implementation = RoutePlanUpdate.class))),
+            @APIResponse(responseCode = "404", description = "No route plan found.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "500", description = "Exception during solving a route plan.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class)))
+    })
+    @GET
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @Path("{jobId}/updates")
+    public void streamUpdates(
+            @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId,
+            @Context SseEventSink eventSink, @Context Sse sse) {
+        getRoutePlanAndCheckForExceptions(jobId);
+        routePlanUpdatePublisher.subscribe(jobId, eventSink, sse, () -> {
+            Job job = jobIdToJob.get(jobId);
+            return job == null ? null : job.routePlan;
+        }, () -> partitionedSolver.getSolverStatus(jobId));
+        if (jobIdToJob.get(jobId) == null) {
+            // Expired meanwhile, after the job store closed the clients of the job.
+            routePlanUpdatePublisher.close(jobId);
+        }
+    }
+
     private VehicleRoutePlan getRoutePlanAndCheckForExceptions(String jobId) {
+        return getJobAndCheckForExceptions(jobId).routePlan;
+    }
+
+    private Job getJobAndCheckForExceptions(String jobId) {
         Job job = jobIdToJob.get(jobId);
         if (job == null) {
+            routePlanUpdatePublisher.close(jobId);
             throw new VehicleRoutingSolverException(jobId, Response.Status.NOT_FOUND, "No route plan found.");
         }
         if (job.exception != null) {
             throw new VehicleRoutingSolverException(jobId, job.exception);
         }
-        return job.routePlan;
+        return job;
     }
 
     @Operation(
@@ -232,12 +705,12 @@ public class VehicleRoutePlanResource {
                             schema = @Schema(implementation = ErrorInfo.class)))
     })
     @DELETE
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, SmileMessageBodyProvider.APPLICATION_SMILE})
     @Path("{jobId}")
     public VehicleRoutePlan terminateSolving(
             @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId) {
         // TODO: Replace with .terminateEarlyAndWait(... [, timeout]); see https://github.com/TimefoldAI/timefold-solver/issues/77
-        solverManager.terminateEarly(jobId);
+        partitionedSolver.terminateEarly(jobId);
         return getRoutePlan(jobId);
     }
 
@@ -248,7 +721,7 @@ public class VehicleRoutePlanResource {
                     content = @Content(mediaType = MediaType.APPLICATION_JSON,
                             schema = @Schema(implementation = ScoreAnalysis.class)))})
     @PUT
-    @Consumes({MediaType.APPLICATION_JSON})
+    @Consumes({MediaType.APPLICATION_JSON, SmileMessageBodyProvider.APPLICATION_SMILE})
     @Produces(MediaType.APPLICATION_JSON)
     @Path("analyze")
     public ScoreAnalysis<HardSoftLongScore> analyze(VehicleRoutePlan problem,
@@ -256,14 +729,14 @@ public class VehicleRoutePlanResource {
         return fetchPolicy == null ? solutionManager.analyze(problem) : solutionManager.analyze(problem, fetchPolicy);
     }
 
-    private record Job(VehicleRoutePlan routePlan, Throwable exception) {
+    private record Job(VehicleRoutePlan routePlan, Throwable exception, ScoreAnalysisCache scoreAnalysisCache) {
 
         static Job ofRoutePlan(VehicleRoutePlan routePlan) {
-            return new Job(routePlan, null);
+            return new Job(routePlan, null, new ScoreAnalysisCache(routePlan));
         }
 
         static Job ofException(Throwable exception) {
-            return new Job(null, exception);
+            return new Job(null, exception, null);
         }
 
     }
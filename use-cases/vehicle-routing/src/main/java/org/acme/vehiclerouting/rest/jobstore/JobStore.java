@@ -0,0 +1,35 @@
+package org.acme.vehiclerouting.rest.jobstore;
+
+import java.util.Collection;
+
+/**
+ * Keeps the jobs of a resource by their job ID.
+ * Unlike a plain map, an implementation may drop or spill jobs that have not been used for a while.
+ *
+ * @param <Job_> the job type
+ */
+public interface JobStore<Job_> extends AutoCloseable {
+
+    /**
+     * @param jobId never null
+     * @param job never null, replaces the current job with that ID
+     */
+    void put(String jobId, Job_ job);
+
+    /**
+     * @param jobId never null
+     * @return null if there is no job with that ID, for example because it expired
+     */
+    Job_ get(String jobId);
+
+    /**
+     * @return never null, the IDs of all jobs, including those that are not in memory
+     */
+    Collection<String> getJobIds();
+
+    /**
+     * Releases what this store keeps outside of memory, such as its files.
+     */
+    @Override
+    void close();
+}
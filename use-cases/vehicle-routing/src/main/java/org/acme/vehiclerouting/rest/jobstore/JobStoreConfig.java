@@ -0,0 +1,33 @@
+package org.acme.vehiclerouting.rest.jobstore;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+@ConfigMapping(prefix = "job-store")
+public interface JobStoreConfig {
+
+    /**
+     * Beyond this number of jobs, the least recently used jobs that are not solving are spilled to disk.
+     */
+    @WithDefault("100")
+    int maxInMemoryJobCount();
+
+    /**
+     * A job that is not solving is removed once it has not been used for this long.
+     */
+    @WithDefault("24h")
+    Duration timeToLive();
+
+    /**
+     * Defaults to the temporary directory of the JVM.
+     */
+    Optional<Path> spillDirectory();
+
+    default Path spillDirectoryOrDefault() {
+        return spillDirectory().orElseGet(() -> Path.of(System.getProperty("java.io.tmpdir")));
+    }
+}
@@ -0,0 +1,21 @@
+package org.acme.vehiclerouting.solver;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.acme.vehiclerouting.domain.Visit;
+
+/**
+ * Adds an unassigned visit to a plan that is being solved.
+ * The solver then assigns it, starting from its current best solution.
+ *
+ * @param visit never null, its location must already be {@link VehicleRoutePlan#addLocation added} to the plan
+ */
+public record AddVisitProblemChange(Visit visit) implements ProblemChange<VehicleRoutePlan> {
+
+    @Override
+    public void doChange(VehicleRoutePlan workingSolution, ProblemChangeDirector problemChangeDirector) {
+        problemChangeDirector.addEntity(visit, workingSolution.getVisits()::add);
+    }
+}
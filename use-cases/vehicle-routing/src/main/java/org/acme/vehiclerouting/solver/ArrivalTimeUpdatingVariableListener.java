@@ -1,8 +1,5 @@
 package org.acme.vehiclerouting.solver;
 
-import java.time.LocalDateTime;
-import java.util.Objects;
-
 import ai.timefold.solver.core.api.domain.variable.VariableListener;
 import ai.timefold.solver.core.api.score.director.ScoreDirector;
 
@@ -21,27 +18,30 @@ public class ArrivalTimeUpdatingVariableListener implements VariableListener<Veh
     @Override
     public void afterVariableChanged(ScoreDirector<VehicleRoutePlan> scoreDirector, Visit visit) {
         if (visit.getVehicle() == null) {
-            if (visit.getArrivalTime() != null) {
+            if (visit.getArrivalTimeEpochSecond() != Visit.NO_ARRIVAL_TIME) {
                 scoreDirector.beforeVariableChanged(visit, ARRIVAL_TIME_FIELD);
-                visit.setArrivalTime(null);
+                visit.setArrivalTimeEpochSecond(Visit.NO_ARRIVAL_TIME);
                 scoreDirector.afterVariableChanged(visit, ARRIVAL_TIME_FIELD);
             }
             return;
         }
 
         Visit previousVisit = visit.getPreviousVisit();
-        LocalDateTime departureTime =
-                previousVisit == null ? visit.getVehicle().getDepartureTime() : previousVisit.getDepartureTime();
+        long departureTime = previousVisit == null
+                ? visit.getVehicle().getDepartureTimeEpochSecond()
+                : previousVisit.getDepartureTimeEpochSecond();
 
         Visit nextVisit = visit;
-        LocalDateTime arrivalTime = calculateArrivalTime(nextVisit, departureTime);
-        while (nextVisit != null && !Objects.equals(nextVisit.getArrivalTime(), arrivalTime)) {
+        while (nextVisit != null) {
+            long arrivalTime = departureTime + nextVisit.getDrivingTimeSecondsFromPreviousStandstill(departureTime);
+            if (nextVisit.getArrivalTimeEpochSecond() == arrivalTime) {
+                break;
+            }
             scoreDirector.beforeVariableChanged(nextVisit, ARRIVAL_TIME_FIELD);
-            nextVisit.setArrivalTime(arrivalTime);
+            nextVisit.setArrivalTimeEpochSecond(arrivalTime);
             scoreDirector.afterVariableChanged(nextVisit, ARRIVAL_TIME_FIELD);
-            departureTime = nextVisit.getDepartureTime();
+            departureTime = nextVisit.getDepartureTimeEpochSecond();
             nextVisit = nextVisit.getNextVisit();
-            arrivalTime = calculateArrivalTime(nextVisit, departureTime);
         }
     }
 
@@ -64,11 +64,4 @@ public class ArrivalTimeUpdatingVariableListener implements VariableListener<Veh
     public void afterEntityRemoved(ScoreDirector<VehicleRoutePlan> scoreDirector, Visit visit) {
 
     }
-
-    private LocalDateTime calculateArrivalTime(Visit visit, LocalDateTime previousDepartureTime) {
-        if (visit == null || previousDepartureTime == null) {
-            return null;
-        }
-        return previousDepartureTime.plusSeconds(visit.getDrivingTimeSecondsFromPreviousStandstill());
-    }
 }
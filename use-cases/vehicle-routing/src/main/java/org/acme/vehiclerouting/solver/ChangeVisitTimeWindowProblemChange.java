@@ -0,0 +1,41 @@
+package org.acme.vehiclerouting.solver;
+
+import java.time.LocalDateTime;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+
+import org.acme.vehiclerouting.domain.Vehicle;
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.acme.vehiclerouting.domain.Visit;
+
+/**
+ * Changes the time window of a visit of a plan that is being solved.
+ *
+ * @param visit never null, looked up in the working solution by its ID
+ * @param minStartTime never null
+ * @param maxEndTime never null
+ */
+public record ChangeVisitTimeWindowProblemChange(Visit visit, LocalDateTime minStartTime, LocalDateTime maxEndTime)
+        implements ProblemChange<VehicleRoutePlan> {
+
+    @Override
+    public void doChange(VehicleRoutePlan workingSolution, ProblemChangeDirector problemChangeDirector) {
+        Visit workingVisit = problemChangeDirector.lookUpWorkingObjectOrFail(visit);
+        Vehicle vehicle = workingVisit.getVehicle();
+        if (vehicle == null) {
+            problemChangeDirector.changeProblemProperty(workingVisit, this::changeTimeWindow);
+            return;
+        }
+        // The departure time of an assigned visit depends on its min start time, and the arrival times
+        // of the visits after it depend on that departure time. No planning variable changes,
+        // so the vehicle is added back to have its arrival times recalculated.
+        VehicleProblemChanges.changeVisits(workingSolution, problemChangeDirector, vehicle,
+                visits -> problemChangeDirector.changeProblemProperty(workingVisit, this::changeTimeWindow));
+    }
+
+    private void changeTimeWindow(Visit workingVisit) {
+        workingVisit.setMinStartTime(minStartTime);
+        workingVisit.setMaxEndTime(maxEndTime);
+    }
+}
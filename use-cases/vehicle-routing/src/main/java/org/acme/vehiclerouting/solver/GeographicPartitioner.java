@@ -0,0 +1,290 @@
+package org.acme.vehiclerouting.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+
+import org.acme.vehiclerouting.domain.Location;
+import org.acme.vehiclerouting.domain.Vehicle;
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.acme.vehiclerouting.domain.Visit;
+
+/**
+ * Splits a route plan into geographic partitions that can be solved independently.
+ * <p>
+ * The visits are clustered with k-means on their latitude and longitude.
+ * Each cluster gets a number of vehicles in proportion to its demand, preferring the vehicles that are based nearest.
+ * The partitions share the locations, and therefore the driving time matrix, of the original plan.
+ */
+public final class GeographicPartitioner {
+
+    private static final int MAX_ITERATIONS = 100;
+
+    private final long randomSeed;
+
+    /**
+     * @param randomSeed the same seed and plan always result in the same partitions
+     */
+    public GeographicPartitioner(long randomSeed) {
+        this.randomSeed = randomSeed;
+    }
+
+    /**
+     * @param plan never null
+     * @param partitionCount the requested number of partitions, fewer are returned if there are not enough vehicles
+     *        or visits to fill them
+     * @return never null, never empty, disjoint plans with copies of the vehicles and visits of the plan;
+     *         a visit stays assigned only if its vehicle ends up in the same partition
+     */
+    public List<VehicleRoutePlan> partition(VehicleRoutePlan plan, int partitionCount) {
+        List<Visit> visits = plan.getVisits();
+        List<Vehicle> vehicles = plan.getVehicles();
+        int clusterCount = Math.min(partitionCount, Math.min(vehicles.size(), visits.size()));
+        if (clusterCount < 1) {
+            throw new IllegalArgumentException("The partitionCount (%d) must be at least 1 and the plan (%s) must have vehicles and visits."
+                    .formatted(partitionCount, plan.getName()));
+        }
+        double longitudeScale = Math.cos(Math.toRadians(visits.stream()
+                .mapToDouble(visit -> visit.getLocation().getLatitude()).average().orElseThrow()));
+        double[][] points = new double[visits.size()][];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = toPoint(visits.get(i).getLocation(), longitudeScale);
+        }
+        double[][] centroids = initializeCentroids(points, clusterCount, new Random(randomSeed));
+        int[] visitClusters = cluster(points, centroids);
+        // Drop the clusters that k-means left empty.
+        long[] clusterDemands = new long[centroids.length];
+        for (int i = 0; i < visitClusters.length; i++) {
+            clusterDemands[visitClusters[i]] += Math.max(visits.get(i).getDemand(), 1);
+        }
+        int[] clusterRemapping = new int[centroids.length];
+        List<double[]> nonEmptyCentroids = new ArrayList<>(centroids.length);
+        for (int c = 0; c < centroids.length; c++) {
+            clusterRemapping[c] = clusterDemands[c] == 0 ? -1 : nonEmptyCentroids.size();
+            if (clusterDemands[c] > 0) {
+                nonEmptyCentroids.add(centroids[c]);
+            }
+        }
+        centroids = nonEmptyCentroids.toArray(double[][]::new);
+        clusterDemands = Arrays.stream(clusterDemands).filter(demand -> demand > 0).toArray();
+        for (int i = 0; i < visitClusters.length; i++) {
+            visitClusters[i] = clusterRemapping[visitClusters[i]];
+        }
+
+        int[] vehicleClusters = assignVehicles(vehicles, centroids, clusterDemands, longitudeScale);
+        return createPartitions(plan, centroids.length, vehicleClusters, visitClusters);
+    }
+
+    private static double[] toPoint(Location location, double longitudeScale) {
+        return new double[] { location.getLatitude(), location.getLongitude() * longitudeScale };
+    }
+
+    private static double squaredDistance(double[] a, double[] b) {
+        double latitudeDelta = a[0] - b[0];
+        double longitudeDelta = a[1] - b[1];
+        return latitudeDelta * latitudeDelta + longitudeDelta * longitudeDelta;
+    }
+
+    /**
+     * k-means++: each next centroid is a random point, chosen with a probability proportional to its squared distance
+     * to the nearest centroid so far.
+     */
+    private static double[][] initializeCentroids(double[][] points, int clusterCount, Random random) {
+        double[][] centroids = new double[clusterCount][];
+        centroids[0] = points[random.nextInt(points.length)].clone();
+        double[] squaredDistances = new double[points.length];
+        Arrays.fill(squaredDistances, Double.MAX_VALUE);
+        for (int c = 1; c < clusterCount; c++) {
+            double sum = 0.0;
+            for (int i = 0; i < points.length; i++) {
+                squaredDistances[i] = Math.min(squaredDistances[i], squaredDistance(points[i], centroids[c - 1]));
+                sum += squaredDistances[i];
+            }
+            double target = random.nextDouble() * sum;
+            int chosen = points.length - 1;
+            for (int i = 0; i < points.length; i++) {
+                target -= squaredDistances[i];
+                if (target < 0.0) {
+                    chosen = i;
+                    break;
+                }
+            }
+            centroids[c] = points[chosen].clone();
+        }
+        return centroids;
+    }
+
+    /**
+     * Lloyd's algorithm: assigns each point to its nearest centroid and moves each centroid to the mean of its points,
+     * until no point changes cluster.
+     *
+     * @return the cluster of each point
+     */
+    private static int[] cluster(double[][] points, double[][] centroids) {
+        int[] clusters = new int[points.length];
+        Arrays.fill(clusters, -1);
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            boolean changed = false;
+            for (int i = 0; i < points.length; i++) {
+                int nearest = nearestCentroid(points[i], centroids);
+                if (clusters[i] != nearest) {
+                    clusters[i] = nearest;
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                break;
+            }
+            double[][] sums = new double[centroids.length][2];
+            int[] counts = new int[centroids.length];
+            for (int i = 0; i < points.length; i++) {
+                sums[clusters[i]][0] += points[i][0];
+                sums[clusters[i]][1] += points[i][1];
+                counts[clusters[i]]++;
+            }
+            for (int c = 0; c < centroids.length; c++) {
+                if (counts[c] > 0) {
+                    centroids[c][0] = sums[c][0] / counts[c];
+                    centroids[c][1] = sums[c][1] / counts[c];
+                }
+            }
+        }
+        return clusters;
+    }
+
+    private static int nearestCentroid(double[] point, double[][] centroids) {
+        int nearest = 0;
+        double nearestSquaredDistance = Double.MAX_VALUE;
+        for (int c = 0; c < centroids.length; c++) {
+            double squaredDistance = squaredDistance(point, centroids[c]);
+            if (squaredDistance < nearestSquaredDistance) {
+                nearest = c;
+                nearestSquaredDistance = squaredDistance;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Divides the vehicles over the clusters in proportion to their demand (by the largest remainder method),
+     * with at least one vehicle per cluster,
+     * and then hands out the vehicles to the clusters in order of the distance from their home location.
+     *
+     * @return the cluster of each vehicle
+     */
+    private static int[] assignVehicles(List<Vehicle> vehicles, double[][] centroids, long[] clusterDemands,
+            double longitudeScale) {
+        int clusterCount = centroids.length;
+        int vehicleCount = vehicles.size();
+        long totalDemand = Arrays.stream(clusterDemands).sum();
+        int[] targets = new int[clusterCount];
+        double[] remainders = new double[clusterCount];
+        int assigned = 0;
+        for (int c = 0; c < clusterCount; c++) {
+            double share = (double) (vehicleCount - clusterCount) * clusterDemands[c] / totalDemand;
+            targets[c] = 1 + (int) share;
+            remainders[c] = share - (int) share;
+            assigned += targets[c];
+        }
+        Integer[] byRemainder = new Integer[clusterCount];
+        for (int c = 0; c < clusterCount; c++) {
+            byRemainder[c] = c;
+        }
+        Arrays.sort(byRemainder, Comparator.comparingDouble((Integer c) -> remainders[c]).reversed());
+        for (int i = 0; assigned < vehicleCount; i = (i + 1) % clusterCount) {
+            targets[byRemainder[i]]++;
+            assigned++;
+        }
+
+        List<int[]> pairs = new ArrayList<>(vehicleCount * clusterCount);
+        double[][] homePoints = new double[vehicleCount][];
+        for (int v = 0; v < vehicleCount; v++) {
+            homePoints[v] = toPoint(vehicles.get(v).getHomeLocation(), longitudeScale);
+            for (int c = 0; c < clusterCount; c++) {
+                pairs.add(new int[] { v, c });
+            }
+        }
+        pairs.sort(Comparator.comparingDouble(pair -> squaredDistance(homePoints[pair[0]], centroids[pair[1]])));
+        int[] vehicleClusters = new int[vehicleCount];
+        Arrays.fill(vehicleClusters, -1);
+        for (int[] pair : pairs) {
+            int v = pair[0];
+            int c = pair[1];
+            if (vehicleClusters[v] < 0 && targets[c] > 0) {
+                vehicleClusters[v] = c;
+                targets[c]--;
+            }
+        }
+        return vehicleClusters;
+    }
+
+    private static List<VehicleRoutePlan> createPartitions(VehicleRoutePlan plan, int partitionCount,
+            int[] vehicleClusters, int[] visitClusters) {
+        List<List<Vehicle>> partitionVehicles = new ArrayList<>(partitionCount);
+        List<List<Visit>> partitionVisits = new ArrayList<>(partitionCount);
+        for (int p = 0; p < partitionCount; p++) {
+            partitionVehicles.add(new ArrayList<>());
+            partitionVisits.add(new ArrayList<>());
+        }
+        Map<Visit, Visit> visitToCopy = new HashMap<>(visitClusters.length);
+        Map<Visit, Integer> visitToPartition = new HashMap<>(visitClusters.length);
+        for (int i = 0; i < visitClusters.length; i++) {
+            Visit visit = plan.getVisits().get(i);
+            Visit copy = new Visit(visit.getId(), visit.getName(), visit.getLocation(), visit.getDemand(),
+                    visit.getMinStartTime(), visit.getMaxEndTime(), visit.getServiceDuration());
+            visitToCopy.put(visit, copy);
+            visitToPartition.put(visit, visitClusters[i]);
+            partitionVisits.get(visitClusters[i]).add(copy);
+        }
+        for (int v = 0; v < vehicleClusters.length; v++) {
+            Vehicle vehicle = plan.getVehicles().get(v);
+            int partition = vehicleClusters[v];
+            Vehicle copy = new Vehicle(vehicle.getId(), vehicle.getCapacity(), vehicle.getHomeLocation(),
+                    vehicle.getDepartureTime());
+            for (Visit visit : vehicle.getVisits()) {
+                if (visitToPartition.get(visit) == partition) {
+                    copy.getVisits().add(visitToCopy.get(visit));
+                }
+            }
+            partitionVehicles.get(partition).add(copy);
+        }
+        List<VehicleRoutePlan> partitions = new ArrayList<>(partitionCount);
+        for (int p = 0; p < partitionCount; p++) {
+            partitions.add(plan.withVehiclesAndVisits(partitionVehicles.get(p), partitionVisits.get(p)));
+        }
+        return partitions;
+    }
+
+    /**
+     * Combines the (solved) partitions back into one plan.
+     * The score of the result is the sum of the scores of the partitions,
+     * which is exact because every constraint only concerns a single vehicle or visit.
+     *
+     * @param plan never null, the plan that was partitioned
+     * @param partitions never null, the partitions of the plan, each possibly replaced by a (solved) clone
+     * @return never null, with the vehicles and visits in the same order as in the plan;
+     *         without a score if any partition has none
+     */
+    public static VehicleRoutePlan merge(VehicleRoutePlan plan, List<VehicleRoutePlan> partitions) {
+        Map<String, Vehicle> idToVehicle = new HashMap<>(plan.getVehicles().size());
+        Map<String, Visit> idToVisit = new HashMap<>(plan.getVisits().size());
+        HardSoftLongScore score = HardSoftLongScore.ZERO;
+        for (VehicleRoutePlan partition : partitions) {
+            partition.getVehicles().forEach(vehicle -> idToVehicle.put(vehicle.getId(), vehicle));
+            partition.getVisits().forEach(visit -> idToVisit.put(visit.getId(), visit));
+            score = score == null || partition.getScore() == null ? null : score.add(partition.getScore());
+        }
+        VehicleRoutePlan merged = plan.withVehiclesAndVisits(
+                plan.getVehicles().stream().map(vehicle -> idToVehicle.get(vehicle.getId())).collect(Collectors.toList()),
+                plan.getVisits().stream().map(visit -> idToVisit.get(visit.getId())).collect(Collectors.toList()));
+        merged.setScore(score);
+        return merged;
+    }
+}
@@ -0,0 +1,104 @@
+package org.acme.vehiclerouting.solver;
+
+import java.util.Collection;
+import java.util.List;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.move.AbstractMove;
+
+import org.acme.vehiclerouting.domain.Vehicle;
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.acme.vehiclerouting.domain.Visit;
+
+/**
+ * Moves a visit to another position, in the same or another vehicle.
+ * Like the built-in list change move, but created by {@link NearbyListChangeMoveIteratorFactory}.
+ */
+public final class NearbyListChangeMove extends AbstractMove<VehicleRoutePlan> {
+
+    private static final String VISITS_FIELD = "visits";
+
+    private final Visit visit;
+    private final Vehicle sourceVehicle;
+    private final int sourceIndex;
+    private final Vehicle destinationVehicle;
+    private final int destinationIndex;
+
+    /**
+     * @param visit never null
+     * @param sourceVehicle never null, the vehicle of the visit
+     * @param sourceIndex the index of the visit in the visits of its vehicle
+     * @param destinationVehicle never null
+     * @param destinationIndex the index of the visit in the visits of the destination vehicle, after the move
+     */
+    public NearbyListChangeMove(Visit visit, Vehicle sourceVehicle, int sourceIndex, Vehicle destinationVehicle,
+            int destinationIndex) {
+        this.visit = visit;
+        this.sourceVehicle = sourceVehicle;
+        this.sourceIndex = sourceIndex;
+        this.destinationVehicle = destinationVehicle;
+        this.destinationIndex = destinationIndex;
+    }
+
+    @Override
+    public boolean isMoveDoable(ScoreDirector<VehicleRoutePlan> scoreDirector) {
+        return sourceVehicle != destinationVehicle || sourceIndex != destinationIndex;
+    }
+
+    @Override
+    protected NearbyListChangeMove createUndoMove(ScoreDirector<VehicleRoutePlan> scoreDirector) {
+        return new NearbyListChangeMove(visit, destinationVehicle, destinationIndex, sourceVehicle, sourceIndex);
+    }
+
+    @Override
+    protected void doMoveOnGenuineVariables(ScoreDirector<VehicleRoutePlan> scoreDirector) {
+        if (sourceVehicle == destinationVehicle) {
+            int fromIndex = Math.min(sourceIndex, destinationIndex);
+            int toIndex = Math.max(sourceIndex, destinationIndex) + 1;
+            scoreDirector.beforeListVariableChanged(sourceVehicle, VISITS_FIELD, fromIndex, toIndex);
+            sourceVehicle.getVisits().remove(sourceIndex);
+            sourceVehicle.getVisits().add(destinationIndex, visit);
+            scoreDirector.afterListVariableChanged(sourceVehicle, VISITS_FIELD, fromIndex, toIndex);
+        } else {
+            scoreDirector.beforeListVariableChanged(sourceVehicle, VISITS_FIELD, sourceIndex, sourceIndex + 1);
+            sourceVehicle.getVisits().remove(sourceIndex);
+            scoreDirector.afterListVariableChanged(sourceVehicle, VISITS_FIELD, sourceIndex, sourceIndex);
+            scoreDirector.beforeListVariableChanged(destinationVehicle, VISITS_FIELD, destinationIndex,
+                    destinationIndex);
+            destinationVehicle.getVisits().add(destinationIndex, visit);
+            scoreDirector.afterListVariableChanged(destinationVehicle, VISITS_FIELD, destinationIndex,
+                    destinationIndex + 1);
+        }
+    }
+
+    @Override
+    public NearbyListChangeMove rebase(ScoreDirector<VehicleRoutePlan> destinationScoreDirector) {
+        return new NearbyListChangeMove(destinationScoreDirector.lookUpWorkingObject(visit),
+                destinationScoreDirector.lookUpWorkingObject(sourceVehicle), sourceIndex,
+                destinationScoreDirector.lookUpWorkingObject(destinationVehicle), destinationIndex);
+    }
+
+    @Override
+    public String getSimpleMoveTypeDescription() {
+        return "NearbyListChangeMove(Vehicle.visits)";
+    }
+
+    @Override
+    public Collection<Vehicle> getPlanningEntities() {
+        if (sourceVehicle == destinationVehicle) {
+            return List.of(sourceVehicle);
+        }
+        return List.of(sourceVehicle, destinationVehicle);
+    }
+
+    @Override
+    public Collection<Visit> getPlanningValues() {
+        return List.of(visit);
+    }
+
+    @Override
+    public String toString() {
+        return "%s {%s[%d] -> %s[%d]}".formatted(visit, sourceVehicle, sourceIndex, destinationVehicle,
+                destinationIndex);
+    }
+}
@@ -0,0 +1,158 @@
+package org.acme.vehiclerouting.solver;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+
+import org.acme.vehiclerouting.domain.Location;
+import org.acme.vehiclerouting.domain.Vehicle;
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.acme.vehiclerouting.domain.Visit;
+import org.acme.vehiclerouting.domain.geo.NearbyLocations;
+
+/**
+ * Nearby selection for {@link Vehicle#getVisits()}: moves a random visit right after a visit
+ * at one of its {@link Location#getNearbyLocations() nearby locations}, or to the start of a route of a vehicle there.
+ * Nearer locations are picked more often.
+ * <p>
+ * A random list change move on a plan with thousands of visits mostly tries to insert a visit
+ * at the other end of the city, which is hardly ever an improvement.
+ * These moves only try the insertions that a good route is made of, so the solver converges faster.
+ * Timefold Solver has nearby selection built in, but only in its Enterprise Edition.
+ */
+public class NearbyListChangeMoveIteratorFactory
+        implements MoveIteratorFactory<VehicleRoutePlan, NearbyListChangeMove> {
+
+    // A visit can have no assigned visit or vehicle nearby, in a partition for example, so it gives up after a while.
+    private static final int MAX_ATTEMPTS = 10;
+
+    private List<Visit> visits;
+    // A location can have several visits, and also the vehicles whose home location it is.
+    private Map<Location, List<Object>> locationToStandstills;
+
+    @Override
+    public void phaseStarted(ScoreDirector<VehicleRoutePlan> scoreDirector) {
+        VehicleRoutePlan plan = scoreDirector.getWorkingSolution();
+        visits = plan.getVisits();
+        locationToStandstills = new IdentityHashMap<>(visits.size() + plan.getVehicles().size());
+        for (Vehicle vehicle : plan.getVehicles()) {
+            locationToStandstills.computeIfAbsent(vehicle.getHomeLocation(), location -> new ArrayList<>(1))
+                    .add(vehicle);
+        }
+        for (Visit visit : visits) {
+            locationToStandstills.computeIfAbsent(visit.getLocation(), location -> new ArrayList<>(1)).add(visit);
+        }
+    }
+
+    @Override
+    public void phaseEnded(ScoreDirector<VehicleRoutePlan> scoreDirector) {
+        visits = null;
+        locationToStandstills = null;
+    }
+
+    /**
+     * @return an estimate, as a location can have several or no visits and vehicles
+     */
+    @Override
+    public long getSize(ScoreDirector<VehicleRoutePlan> scoreDirector) {
+        long visitCount = scoreDirector.getWorkingSolution().getVisits().size();
+        return visitCount * (NearbyLocations.DEFAULT_NEARBY_COUNT + 1);
+    }
+
+    /**
+     * Each assigned visit in turn, after each visit and to the start of the route of each vehicle
+     * at its own location and then at its nearby locations, from near to far.
+     */
+    @Override
+    public Iterator<NearbyListChangeMove> createOriginalMoveIterator(ScoreDirector<VehicleRoutePlan> scoreDirector) {
+        return visits.stream()
+                .filter(visit -> visit.getVehicle() != null)
+                .flatMap(visit -> Stream.concat(Stream.of(visit.getLocation()),
+                        visit.getLocation().getNearbyLocations().stream())
+                        .map(locationToStandstills::get)
+                        .filter(Objects::nonNull)
+                        .flatMap(List::stream)
+                        .filter(standstill -> standstill != visit)
+                        .map(standstill -> createMove(visit, standstill))
+                        .filter(Objects::nonNull))
+                .iterator();
+    }
+
+    @Override
+    public Iterator<NearbyListChangeMove> createRandomMoveIterator(ScoreDirector<VehicleRoutePlan> scoreDirector,
+            Random workingRandom) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !visits.isEmpty();
+            }
+
+            @Override
+            public NearbyListChangeMove next() {
+                Visit visit = null;
+                for (int i = 0; i < MAX_ATTEMPTS; i++) {
+                    visit = visits.get(workingRandom.nextInt(visits.size()));
+                    if (visit.getVehicle() == null) {
+                        continue;
+                    }
+                    NearbyListChangeMove move = createMove(visit, selectNearbyStandstill(visit, workingRandom));
+                    if (move != null) {
+                        return move;
+                    }
+                }
+                // Not doable, so the solver skips it.
+                Vehicle vehicle = visit.getVehicle();
+                int index = vehicle == null ? -1 : visit.getIndex();
+                return new NearbyListChangeMove(visit, vehicle, index, vehicle, index);
+            }
+        };
+    }
+
+    /**
+     * @return null if none was found
+     */
+    private Object selectNearbyStandstill(Visit visit, Random workingRandom) {
+        List<Location> nearbyLocations = visit.getLocation().getNearbyLocations();
+        // Position 0 is the location of the visit itself, which other visits and vehicles can share.
+        int candidateCount = nearbyLocations.size() + 1;
+        // Linear distribution: the nearest location is picked most often, the farthest one least often.
+        int position = (int) (candidateCount * (1.0 - Math.sqrt(1.0 - workingRandom.nextDouble())));
+        Location location = position == 0 ? visit.getLocation() : nearbyLocations.get(position - 1);
+        List<Object> standstills = locationToStandstills.get(location);
+        if (standstills == null) {
+            return null;
+        }
+        Object standstill = standstills.get(workingRandom.nextInt(standstills.size()));
+        return standstill == visit ? null : standstill;
+    }
+
+    /**
+     * @return null if the standstill is null or not assigned
+     */
+    private static NearbyListChangeMove createMove(Visit visit, Object standstill) {
+        if (standstill == null || standstill instanceof Visit previousVisit && previousVisit.getVehicle() == null) {
+            return null;
+        }
+        Vehicle sourceVehicle = visit.getVehicle();
+        int sourceIndex = visit.getIndex();
+        if (standstill instanceof Vehicle destinationVehicle) {
+            return new NearbyListChangeMove(visit, sourceVehicle, sourceIndex, destinationVehicle, 0);
+        }
+        Visit previousVisit = (Visit) standstill;
+        Vehicle destinationVehicle = previousVisit.getVehicle();
+        int previousIndex = previousVisit.getIndex();
+        // Within the same vehicle, the visits after the source shift one position to the front once it is removed.
+        int destinationIndex = destinationVehicle == sourceVehicle && sourceIndex < previousIndex
+                ? previousIndex
+                : previousIndex + 1;
+        return new NearbyListChangeMove(visit, sourceVehicle, sourceIndex, destinationVehicle, destinationIndex);
+    }
+}
@@ -0,0 +1,175 @@
+package org.acme.vehiclerouting.solver;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import ai.timefold.solver.core.api.solver.SolverManager;
+import ai.timefold.solver.core.api.solver.SolverStatus;
+
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+
+/**
+ * Solves a large route plan in {@link GeographicPartitioner geographic partitions}, each as a separate solver job,
+ * so that they run in parallel (up to the parallel solver count of the {@link SolverManager}).
+ * <p>
+ * Every new best solution of a partition is merged with the best solutions of the other partitions.
+ * Once all partitions are solved, the merged plan is handed over for a final solve of the whole plan,
+ * which repairs the routes along the borders between the partitions.
+ */
+public final class PartitionedSolver {
+
+    private static final long RANDOM_SEED = 0L;
+
+    private final SolverManager<VehicleRoutePlan, String> solverManager;
+    private final GeographicPartitioner partitioner = new GeographicPartitioner(RANDOM_SEED);
+    private final ConcurrentMap<String, PartitionedJob> jobIdToPartitionedJob = new ConcurrentHashMap<>();
+
+    public PartitionedSolver(SolverManager<VehicleRoutePlan, String> solverManager) {
+        this.solverManager = solverManager;
+    }
+
+    /**
+     * Starts solving the partitions of the problem.
+     *
+     * @param jobId never null, the partitions are solved as the jobs {@code <jobId>-partition-<index>}
+     * @param problem never null
+     * @param partitionCount at least 1
+     * @param bestSolutionConsumer never null, receives the merged plan whenever a partition has a new best solution
+     * @param partitionsSolvedConsumer never null, receives the merged plan once all partitions are solved,
+     *        unless solving was {@link #terminateEarly(String) terminated} or failed,
+     *        to start the final solve of the whole plan with the given job ID
+     * @param exceptionHandler never null, called at most once, with the given job ID
+     */
+    public void solve(String jobId, VehicleRoutePlan problem, int partitionCount,
+            Consumer<VehicleRoutePlan> bestSolutionConsumer, Consumer<VehicleRoutePlan> partitionsSolvedConsumer,
+            BiConsumer<String, Throwable> exceptionHandler) {
+        List<VehicleRoutePlan> partitions = partitioner.partition(problem, partitionCount);
+        PartitionedJob job = new PartitionedJob(jobId, problem, partitions);
+        jobIdToPartitionedJob.put(jobId, job);
+        for (int i = 0; i < partitions.size(); i++) {
+            int partitionIndex = i;
+            solverManager.solveBuilder()
+                    .withProblemId(job.partitionIds[partitionIndex])
+                    .withProblem(partitions.get(partitionIndex))
+                    .withBestSolutionConsumer(solution -> {
+                        synchronized (job) {
+                            VehicleRoutePlan merged = job.updateBestPartition(partitionIndex, solution);
+                            if (!job.failed) {
+                                bestSolutionConsumer.accept(merged);
+                            }
+                        }
+                    })
+                    .withFinalBestSolutionConsumer(solution -> {
+                        synchronized (job) {
+                            VehicleRoutePlan merged = job.updateBestPartition(partitionIndex, solution);
+                            if (job.failed) {
+                                return;
+                            }
+                            bestSolutionConsumer.accept(merged);
+                            job.unsolvedPartitionCount--;
+                            if (job.unsolvedPartitionCount == 0 && jobIdToPartitionedJob.remove(jobId, job)) {
+                                partitionsSolvedConsumer.accept(merged);
+                            }
+                        }
+                    })
+                    .withExceptionHandler((partitionId, exception) -> {
+                        boolean removed;
+                        synchronized (job) {
+                            removed = jobIdToPartitionedJob.remove(jobId, job);
+                            job.failed = true;
+                        }
+                        if (removed) {
+                            terminatePartitions(job);
+                            exceptionHandler.accept(jobId, exception);
+                        }
+                    })
+                    .run();
+        }
+    }
+
+    /**
+     * @param jobId never null
+     * @return never null, {@link SolverStatus#SOLVING_ACTIVE} if any partition or the final solve is solving
+     */
+    public SolverStatus getSolverStatus(String jobId) {
+        PartitionedJob job = jobIdToPartitionedJob.get(jobId);
+        if (job == null) {
+            return solverManager.getSolverStatus(jobId);
+        }
+        return Arrays.stream(job.partitionIds)
+                .map(solverManager::getSolverStatus)
+                .anyMatch(status -> status == SolverStatus.SOLVING_ACTIVE)
+                        ? SolverStatus.SOLVING_ACTIVE
+                        : SolverStatus.SOLVING_SCHEDULED;
+    }
+
+    /**
+     * @param jobId never null
+     * @return true if the partitions are still being solved, so the final solve of the whole plan has not started yet
+     */
+    public boolean isSolvingPartitions(String jobId) {
+        return jobIdToPartitionedJob.containsKey(jobId);
+    }
+
+    /**
+     * Terminates the partitions, without starting the final solve, or else the final solve.
+     * <p>
+     * A partition that has not started yet is cancelled, so it keeps its initial solution.
+     *
+     * @param jobId never null
+     */
+    public void terminateEarly(String jobId) {
+        PartitionedJob job = jobIdToPartitionedJob.get(jobId);
+        if (job != null) {
+            boolean removed;
+            synchronized (job) {
+                removed = jobIdToPartitionedJob.remove(jobId, job);
+            }
+            if (removed) {
+                terminatePartitions(job);
+                return;
+            }
+        }
+        solverManager.terminateEarly(jobId);
+    }
+
+    private void terminatePartitions(PartitionedJob job) {
+        for (String partitionId : job.partitionIds) {
+            solverManager.terminateEarly(partitionId);
+        }
+    }
+
+    /**
+     * The state of the partitions of one job, guarded by its own lock.
+     * The job is removed from {@link #jobIdToPartitionedJob} once it is terminated, failed or handed over.
+     * Never terminate a partition while holding the lock:
+     * the solver thread of that partition might be waiting for the lock in a consumer.
+     */
+    private static final class PartitionedJob {
+
+        private final VehicleRoutePlan problem;
+        private final String[] partitionIds;
+        private final VehicleRoutePlan[] bestPartitions;
+        private int unsolvedPartitionCount;
+        private boolean failed = false;
+
+        private PartitionedJob(String jobId, VehicleRoutePlan problem, List<VehicleRoutePlan> partitions) {
+            this.problem = problem;
+            this.partitionIds = new String[partitions.size()];
+            for (int i = 0; i < partitionIds.length; i++) {
+                partitionIds[i] = jobId + "-partition-" + i;
+            }
+            this.bestPartitions = partitions.toArray(VehicleRoutePlan[]::new);
+            this.unsolvedPartitionCount = bestPartitions.length;
+        }
+
+        private VehicleRoutePlan updateBestPartition(int partitionIndex, VehicleRoutePlan solution) {
+            bestPartitions[partitionIndex] = solution;
+            return GeographicPartitioner.merge(problem, Arrays.asList(bestPartitions));
+        }
+    }
+}
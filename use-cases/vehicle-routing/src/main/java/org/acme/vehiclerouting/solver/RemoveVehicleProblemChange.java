@@ -0,0 +1,26 @@
+package org.acme.vehiclerouting.solver;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+
+import org.acme.vehiclerouting.domain.Vehicle;
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+
+/**
+ * Takes a vehicle out of service in a plan that is being solved.
+ * Its visits become unassigned, so the solver moves them to the other vehicles.
+ *
+ * @param vehicle never null, looked up in the working solution by its ID
+ */
+public record RemoveVehicleProblemChange(Vehicle vehicle) implements ProblemChange<VehicleRoutePlan> {
+
+    @Override
+    public void doChange(VehicleRoutePlan workingSolution, ProblemChangeDirector problemChangeDirector) {
+        Vehicle workingVehicle = problemChangeDirector.lookUpWorkingObjectOrFail(vehicle);
+        problemChangeDirector.removeEntity(workingVehicle, workingSolution.getVehicles()::remove);
+        // Only unassign the visits once the removal of the vehicle has been processed,
+        // because the list variable of an entity cannot be changed through the problem change director.
+        problemChangeDirector.updateShadowVariables();
+        workingVehicle.getVisits().clear();
+    }
+}
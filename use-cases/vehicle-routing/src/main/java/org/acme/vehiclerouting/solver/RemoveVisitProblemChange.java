@@ -0,0 +1,27 @@
+package org.acme.vehiclerouting.solver;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+
+import org.acme.vehiclerouting.domain.Vehicle;
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.acme.vehiclerouting.domain.Visit;
+
+/**
+ * Removes a visit, for example a cancelled order, from a plan that is being solved.
+ *
+ * @param visit never null, looked up in the working solution by its ID
+ */
+public record RemoveVisitProblemChange(Visit visit) implements ProblemChange<VehicleRoutePlan> {
+
+    @Override
+    public void doChange(VehicleRoutePlan workingSolution, ProblemChangeDirector problemChangeDirector) {
+        Visit workingVisit = problemChangeDirector.lookUpWorkingObjectOrFail(visit);
+        Vehicle vehicle = workingVisit.getVehicle();
+        if (vehicle != null) {
+            VehicleProblemChanges.changeVisits(workingSolution, problemChangeDirector, vehicle,
+                    visits -> visits.remove(workingVisit));
+        }
+        problemChangeDirector.removeEntity(workingVisit, workingSolution.getVisits()::remove);
+    }
+}
@@ -0,0 +1,39 @@
+package org.acme.vehiclerouting.solver;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+
+import org.acme.vehiclerouting.domain.Vehicle;
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.acme.vehiclerouting.domain.Visit;
+
+final class VehicleProblemChanges {
+
+    /**
+     * Changes the visits of a vehicle in a problem change.
+     * <p>
+     * {@link ProblemChangeDirector#changeVariable} does not support list variables,
+     * so the vehicle is removed from the working solution, changed and added back at the same position.
+     * That keeps the shadow variables of its visits, such as their arrival times, up to date.
+     *
+     * @param workingSolution never null
+     * @param problemChangeDirector never null
+     * @param workingVehicle never null, part of the working solution
+     * @param visitsChange never null, changes the visits of the vehicle
+     */
+    static void changeVisits(VehicleRoutePlan workingSolution, ProblemChangeDirector problemChangeDirector,
+            Vehicle workingVehicle, Consumer<List<Visit>> visitsChange) {
+        List<Vehicle> vehicles = workingSolution.getVehicles();
+        int index = vehicles.indexOf(workingVehicle);
+        problemChangeDirector.removeEntity(workingVehicle, vehicles::remove);
+        // The removal is only processed when the shadow variables are updated, which still needs the old visits.
+        problemChangeDirector.updateShadowVariables();
+        visitsChange.accept(workingVehicle.getVisits());
+        problemChangeDirector.addEntity(workingVehicle, vehicle -> vehicles.add(index, vehicle));
+    }
+
+    private VehicleProblemChanges() {
+    }
+}
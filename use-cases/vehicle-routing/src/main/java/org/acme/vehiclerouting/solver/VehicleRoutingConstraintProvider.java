@@ -35,8 +35,8 @@ public class VehicleRoutingConstraintProvider implements ConstraintProvider {
                 .filter(vehicle -> vehicle.getTotalDemand() > vehicle.getCapacity())
                 .penalizeLong(HardSoftLongScore.ONE_HARD,
                         vehicle -> vehicle.getTotalDemand() - vehicle.getCapacity())
-                .justifyWith((vehicle, score) -> new VehicleCapacityJustification(vehicle.getId(), vehicle.getTotalDemand(),
-                        vehicle.getCapacity()))
+                .justifyWith((vehicle, score) -> new VehicleCapacityJustification(vehicle.getId(), vehicle.getCapacity(),
+                        vehicle.getTotalDemand()))
                 .asConstraint(VEHICLE_CAPACITY);
     }
 
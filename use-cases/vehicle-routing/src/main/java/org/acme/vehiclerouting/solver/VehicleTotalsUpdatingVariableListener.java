@@ -0,0 +1,122 @@
+package org.acme.vehiclerouting.solver;
+
+import java.util.List;
+
+import ai.timefold.solver.core.api.domain.variable.ListVariableListener;
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+
+import org.acme.vehiclerouting.domain.Location;
+import org.acme.vehiclerouting.domain.Vehicle;
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.acme.vehiclerouting.domain.Visit;
+
+/**
+ * Updates the total demand and the total driving time of a vehicle when its visits change,
+ * by only looking at the changed part of the route:
+ * before the change, the demand and the driving times of that part are subtracted,
+ * and after the change, those of the new part are added.
+ */
+public class VehicleTotalsUpdatingVariableListener implements ListVariableListener<VehicleRoutePlan, Vehicle, Visit> {
+
+    private static final String TOTAL_DEMAND_FIELD = "totalDemand";
+    private static final String TOTAL_DRIVING_TIME_FIELD = "totalDrivingTimeSeconds";
+
+    @Override
+    public void resetWorkingSolution(ScoreDirector<VehicleRoutePlan> scoreDirector) {
+        for (Vehicle vehicle : scoreDirector.getWorkingSolution().getVehicles()) {
+            updateTotals(vehicle);
+        }
+    }
+
+    @Override
+    public void beforeListVariableChanged(ScoreDirector<VehicleRoutePlan> scoreDirector, Vehicle vehicle,
+            int fromIndex, int toIndex) {
+        // The score director is notified of the shadow variable change in afterListVariableChanged(),
+        // which always follows.
+        vehicle.setTotalDemand(vehicle.getTotalDemand() - sumDemand(vehicle, fromIndex, toIndex));
+        vehicle.setTotalDrivingTimeSeconds(vehicle.getTotalDrivingTimeSeconds()
+                - sumDrivingTimeSeconds(vehicle, fromIndex, toIndex));
+    }
+
+    @Override
+    public void afterListVariableChanged(ScoreDirector<VehicleRoutePlan> scoreDirector, Vehicle vehicle,
+            int fromIndex, int toIndex) {
+        scoreDirector.beforeVariableChanged(vehicle, TOTAL_DEMAND_FIELD);
+        vehicle.setTotalDemand(vehicle.getTotalDemand() + sumDemand(vehicle, fromIndex, toIndex));
+        scoreDirector.afterVariableChanged(vehicle, TOTAL_DEMAND_FIELD);
+        scoreDirector.beforeVariableChanged(vehicle, TOTAL_DRIVING_TIME_FIELD);
+        vehicle.setTotalDrivingTimeSeconds(vehicle.getTotalDrivingTimeSeconds()
+                + sumDrivingTimeSeconds(vehicle, fromIndex, toIndex));
+        scoreDirector.afterVariableChanged(vehicle, TOTAL_DRIVING_TIME_FIELD);
+    }
+
+    @Override
+    public void afterListVariableElementUnassigned(ScoreDirector<VehicleRoutePlan> scoreDirector, Visit visit) {
+
+    }
+
+    @Override
+    public void beforeEntityAdded(ScoreDirector<VehicleRoutePlan> scoreDirector, Vehicle vehicle) {
+
+    }
+
+    @Override
+    public void afterEntityAdded(ScoreDirector<VehicleRoutePlan> scoreDirector, Vehicle vehicle) {
+        scoreDirector.beforeVariableChanged(vehicle, TOTAL_DEMAND_FIELD);
+        scoreDirector.beforeVariableChanged(vehicle, TOTAL_DRIVING_TIME_FIELD);
+        updateTotals(vehicle);
+        scoreDirector.afterVariableChanged(vehicle, TOTAL_DEMAND_FIELD);
+        scoreDirector.afterVariableChanged(vehicle, TOTAL_DRIVING_TIME_FIELD);
+    }
+
+    @Override
+    public void beforeEntityRemoved(ScoreDirector<VehicleRoutePlan> scoreDirector, Vehicle vehicle) {
+
+    }
+
+    @Override
+    public void afterEntityRemoved(ScoreDirector<VehicleRoutePlan> scoreDirector, Vehicle vehicle) {
+
+    }
+
+    /**
+     * Recalculates both totals of the vehicle from scratch.
+     *
+     * @param vehicle never null
+     */
+    public static void updateTotals(Vehicle vehicle) {
+        int size = vehicle.getVisits().size();
+        vehicle.setTotalDemand(sumDemand(vehicle, 0, size));
+        vehicle.setTotalDrivingTimeSeconds(sumDrivingTimeSeconds(vehicle, 0, size));
+    }
+
+    private static int sumDemand(Vehicle vehicle, int fromIndex, int toIndex) {
+        List<Visit> visits = vehicle.getVisits();
+        int demand = 0;
+        for (int i = fromIndex; i < toIndex; i++) {
+            demand += visits.get(i).getDemand();
+        }
+        return demand;
+    }
+
+    /**
+     * @return the driving times from the standstill before {@code fromIndex} up to the standstill at {@code toIndex},
+     *         where the home location is the standstill before the first and after the last visit
+     */
+    private static long sumDrivingTimeSeconds(Vehicle vehicle, int fromIndex, int toIndex) {
+        List<Visit> visits = vehicle.getVisits();
+        if (visits.isEmpty()) {
+            return 0L;
+        }
+        Location previousLocation = fromIndex == 0
+                ? vehicle.getHomeLocation()
+                : visits.get(fromIndex - 1).getLocation();
+        long drivingTime = 0L;
+        for (int i = fromIndex; i <= toIndex; i++) {
+            Location location = i == visits.size() ? vehicle.getHomeLocation() : visits.get(i).getLocation();
+            drivingTime += previousLocation.getDrivingTimeTo(location);
+            previousLocation = location;
+        }
+        return drivingTime;
+    }
+}
@@ -0,0 +1,76 @@
+package org.acme.vehiclerouting.domain;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.acme.vehiclerouting.domain.geo.DrivingTimeProfile;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class VehicleRoutePlanTest {
+
+    private static final LocalDateTime TOMORROW_07_00 = LocalDateTime.now().plusDays(1).withHour(7).withMinute(0);
+
+    private static Visit buildVisit(String id, Location location) {
+        return new Visit(id, "Visit " + id, location, 1, TOMORROW_07_00, TOMORROW_07_00.plusHours(10),
+                Duration.ofMinutes(10));
+    }
+
+    @Test
+    void internLocations() {
+        Vehicle vehicle = new Vehicle("0", 20, new Location(43.77, 11.25), TOMORROW_07_00);
+        // Visit 0 is at the depot, visits 1 and 2 are in the same building.
+        List<Visit> visits = List.of(
+                buildVisit("0", new Location(43.77, 11.25)),
+                buildVisit("1", new Location(43.78, 11.26)),
+                buildVisit("2", new Location(43.78, 11.26)),
+                buildVisit("3", new Location(43.79, 11.27)));
+        new VehicleRoutePlan("test", null, null, TOMORROW_07_00, TOMORROW_07_00.plusDays(1), List.of(vehicle), visits);
+
+        Assertions.assertThat(visits.get(0).getLocation()).isSameAs(vehicle.getHomeLocation());
+        Assertions.assertThat(visits.get(2).getLocation()).isSameAs(visits.get(1).getLocation());
+        Assertions.assertThat(vehicle.getHomeLocation().getDrivingTimeMatrix().size()).isEqualTo(3);
+        Assertions.assertThat(visits.stream().map(visit -> visit.getLocation().getIndex()))
+                .containsExactly(0, 1, 1, 2);
+        Assertions.assertThat(visits.get(1).getLocation().getDrivingTimeTo(visits.get(2).getLocation())).isZero();
+    }
+
+    @Test
+    void addLocation() {
+        Location homeLocation = new Location(43.77, 11.25);
+        Visit visit = buildVisit("0", new Location(43.78, 11.26));
+        VehicleRoutePlan plan = new VehicleRoutePlan("test", null, null, TOMORROW_07_00, TOMORROW_07_00.plusDays(1),
+                List.of(new Vehicle("0", 20, homeLocation, TOMORROW_07_00)), List.of(visit));
+
+        Assertions.assertThat(plan.addLocation(new Location(43.78, 11.26))).isSameAs(visit.getLocation());
+        Assertions.assertThat(homeLocation.getDrivingTimeMatrix().size()).isEqualTo(2);
+        Location newLocation = new Location(43.79, 11.27);
+        Assertions.assertThat(plan.addLocation(newLocation)).isSameAs(newLocation);
+        Assertions.assertThat(newLocation.getIndex()).isEqualTo(2);
+        Assertions.assertThat(homeLocation.getDrivingTimeMatrix().size()).isEqualTo(3);
+    }
+
+    @Test
+    void drivingTimeProfile() {
+        Location homeLocation = new Location(43.77, 11.25);
+        Visit visit = buildVisit("0", new Location(43.78, 11.26));
+        DrivingTimeProfile morningPeak = new DrivingTimeProfile(List.of(
+                new DrivingTimeProfile.Bucket(LocalTime.of(7, 0), 2.0),
+                new DrivingTimeProfile.Bucket(LocalTime.of(9, 0), 1.0)));
+        Vehicle vehicle = new Vehicle("0", 20, homeLocation, TOMORROW_07_00);
+        VehicleRoutePlan plan = new VehicleRoutePlan("test", null, null, TOMORROW_07_00, TOMORROW_07_00.plusDays(1),
+                null, morningPeak, List.of(vehicle), List.of(visit));
+
+        long drivingTime = homeLocation.getDrivingTimeTo(visit.getLocation());
+        Assertions.assertThat(drivingTime).isPositive();
+        Assertions.assertThat(homeLocation.getDrivingTimeTo(visit.getLocation(), vehicle.getDepartureTimeEpochSecond()))
+                .isEqualTo(2 * drivingTime);
+        Assertions.assertThat(homeLocation.getDrivingTimeTo(visit.getLocation(),
+                vehicle.getDepartureTimeEpochSecond() + 3 * 60 * 60)).isEqualTo(drivingTime);
+        Location newLocation = new Location(43.79, 11.27);
+        plan.addLocation(newLocation);
+        Assertions.assertThat(newLocation.getDrivingTimeProfile()).isSameAs(morningPeak);
+    }
+}
@@ -0,0 +1,132 @@
+package org.acme.vehiclerouting.domain.geo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.acme.vehiclerouting.domain.Location;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CachingDrivingTimeCalculatorTest {
+
+    private final CountingDrivingTimeCalculator delegate = new CountingDrivingTimeCalculator();
+
+    @TempDir
+    Path cacheDirectory;
+
+    @Test
+    void sameLocationsAreReadFromCache() {
+        List<Location> locations = generateLocations(10);
+        DrivingTimeMatrix expected = HaversineDrivingTimeCalculator.getInstance().calculateBulkDrivingTime(locations);
+
+        DrivingTimeMatrix calculated =
+                new CachingDrivingTimeCalculator(delegate, cacheDirectory).calculateBulkDrivingTime(locations);
+        assertSameDrivingTimes(calculated, expected);
+        Assertions.assertThat(delegate.count.get()).isEqualTo(10 * 10);
+
+        delegate.count.set(0);
+        DrivingTimeMatrix cached =
+                new CachingDrivingTimeCalculator(delegate, cacheDirectory).calculateBulkDrivingTime(locations);
+        assertSameDrivingTimes(cached, expected);
+        Assertions.assertThat(delegate.count.get()).isZero();
+    }
+
+    @Test
+    void newLocationsAreCalculatedIncrementally() {
+        List<Location> locations = generateLocations(11);
+        CachingDrivingTimeCalculator cachingDrivingTimeCalculator =
+                new CachingDrivingTimeCalculator(delegate, cacheDirectory);
+        cachingDrivingTimeCalculator.calculateBulkDrivingTime(locations.subList(0, 10));
+
+        delegate.count.set(0);
+        DrivingTimeMatrix calculated = cachingDrivingTimeCalculator.calculateBulkDrivingTime(locations);
+        assertSameDrivingTimes(calculated,
+                HaversineDrivingTimeCalculator.getInstance().calculateBulkDrivingTime(locations));
+        // Only the row and the column of the new location.
+        Assertions.assertThat(delegate.count.get()).isEqualTo(2 * 11 - 1);
+    }
+
+    @Test
+    void unreadableFilesAreIgnored() throws IOException {
+        Files.writeString(cacheDirectory.resolve("foreign.dtm"), "Not a driving time matrix");
+        List<Location> locations = generateLocations(10);
+        CachingDrivingTimeCalculator cachingDrivingTimeCalculator =
+                new CachingDrivingTimeCalculator(delegate, cacheDirectory);
+        assertSameDrivingTimes(cachingDrivingTimeCalculator.calculateBulkDrivingTime(locations),
+                HaversineDrivingTimeCalculator.getInstance().calculateBulkDrivingTime(locations));
+
+        delegate.count.set(0);
+        cachingDrivingTimeCalculator.calculateBulkDrivingTime(locations);
+        Assertions.assertThat(delegate.count.get()).isZero();
+    }
+
+    @Test
+    void leastRecentlyUsedFilesAreEvicted() throws IOException {
+        List<Location> locations = generateLocations(30);
+        // Fits 2 matrices of 10 locations, but not 3.
+        CachingDrivingTimeCalculator cachingDrivingTimeCalculator =
+                new CachingDrivingTimeCalculator(delegate, cacheDirectory, 2 * 600);
+        cachingDrivingTimeCalculator.calculateBulkDrivingTime(locations.subList(0, 10));
+        try (Stream<Path> cacheFiles = Files.list(cacheDirectory)) {
+            cacheFiles.forEach(cacheFile -> setLastModifiedTime(cacheFile, Instant.now().minusSeconds(60)));
+        }
+        cachingDrivingTimeCalculator.calculateBulkDrivingTime(locations.subList(10, 20));
+        cachingDrivingTimeCalculator.calculateBulkDrivingTime(locations.subList(20, 30));
+        try (Stream<Path> cacheFiles = Files.list(cacheDirectory)) {
+            Assertions.assertThat(cacheFiles).hasSize(2);
+        }
+
+        // The first matrix was evicted, so it is calculated again.
+        delegate.count.set(0);
+        cachingDrivingTimeCalculator.calculateBulkDrivingTime(locations.subList(0, 10));
+        Assertions.assertThat(delegate.count.get()).isEqualTo(10 * 10);
+        delegate.count.set(0);
+        cachingDrivingTimeCalculator.calculateBulkDrivingTime(locations.subList(0, 10));
+        Assertions.assertThat(delegate.count.get()).isZero();
+    }
+
+    private static void setLastModifiedTime(Path file, Instant lastModifiedTime) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.from(lastModifiedTime));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<Location> generateLocations(int count) {
+        List<Location> locations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            locations.add(new Location(49.0 + i * 0.01, 16.0 + i * 0.02));
+        }
+        return locations;
+    }
+
+    private static void assertSameDrivingTimes(DrivingTimeMatrix actual, DrivingTimeMatrix expected) {
+        Assertions.assertThat(actual.size()).isEqualTo(expected.size());
+        for (int from = 0; from < expected.size(); from++) {
+            for (int to = 0; to < expected.size(); to++) {
+                Assertions.assertThat(actual.getDrivingTime(from, to)).isEqualTo(expected.getDrivingTime(from, to));
+            }
+        }
+    }
+
+    private static class CountingDrivingTimeCalculator implements DrivingTimeCalculator {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public long calculateDrivingTime(Location from, Location to) {
+            count.incrementAndGet();
+            return HaversineDrivingTimeCalculator.getInstance().calculateDrivingTime(from, to);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.acme.vehiclerouting.domain.geo;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class DrivingTimeProfileTest {
+
+    private static final DrivingTimeProfile RUSH_HOURS = new DrivingTimeProfile(List.of(
+            new DrivingTimeProfile.Bucket(LocalTime.of(7, 0), 2.0),
+            new DrivingTimeProfile.Bucket(LocalTime.of(9, 30), 1.2),
+            new DrivingTimeProfile.Bucket(LocalTime.of(16, 0), 1.8),
+            new DrivingTimeProfile.Bucket(LocalTime.of(19, 0), 1.0)));
+
+    private static long at(int hour, int minute) {
+        return LocalDateTime.of(2024, 3, 1, hour, minute).toEpochSecond(ZoneOffset.UTC);
+    }
+
+    @Test
+    void getBucketIndex() {
+        Assertions.assertThat(RUSH_HOURS.getBucketIndex(at(7, 0))).isZero();
+        Assertions.assertThat(RUSH_HOURS.getBucketIndex(at(9, 29))).isZero();
+        Assertions.assertThat(RUSH_HOURS.getBucketIndex(at(9, 30))).isOne();
+        Assertions.assertThat(RUSH_HOURS.getBucketIndex(at(17, 0))).isEqualTo(2);
+        Assertions.assertThat(RUSH_HOURS.getBucketIndex(at(23, 59))).isEqualTo(3);
+        // The last bucket lasts until the first bucket of the next day.
+        Assertions.assertThat(RUSH_HOURS.getBucketIndex(at(3, 0))).isEqualTo(3);
+    }
+
+    @Test
+    void apply() {
+        Assertions.assertThat(RUSH_HOURS.apply(600L, at(8, 0))).isEqualTo(1200L);
+        Assertions.assertThat(RUSH_HOURS.apply(600L, at(12, 0))).isEqualTo(720L);
+        Assertions.assertThat(RUSH_HOURS.apply(600L, at(22, 0))).isEqualTo(600L);
+        Assertions.assertThat(RUSH_HOURS.apply(0L, at(8, 0))).isZero();
+        // Rounded to the nearest second.
+        Assertions.assertThat(RUSH_HOURS.apply(3L, at(17, 0))).isEqualTo(5L);
+    }
+
+    @Test
+    void invalidBuckets() {
+        Assertions.assertThatIllegalArgumentException().isThrownBy(() -> new DrivingTimeProfile(List.of()));
+        Assertions.assertThatIllegalArgumentException().isThrownBy(() -> new DrivingTimeProfile(List.of(
+                new DrivingTimeProfile.Bucket(LocalTime.of(9, 0), 1.0),
+                new DrivingTimeProfile.Bucket(LocalTime.of(7, 0), 2.0))));
+        Assertions.assertThatIllegalArgumentException().isThrownBy(() -> new DrivingTimeProfile(List.of(
+                new DrivingTimeProfile.Bucket(LocalTime.of(7, 0), 0.0))));
+    }
+}
@@ -1,5 +1,7 @@
 package org.acme.vehiclerouting.domain.geo;
 
+import java.util.List;
+
 import org.acme.vehiclerouting.domain.Location;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -22,4 +24,21 @@ class HaversineDrivingTimeCalculatorTest {
         Assertions.assertThat(drivingTimeCalculator.calculateDrivingTime(Svolvaer, Lulea))
                 .isEqualTo(HaversineDrivingTimeCalculator.metersToDrivingSeconds(442297));
     }
-}
\ No newline at end of file
+
+    @Test
+    void calculateBulkDrivingTime() {
+        List<Location> locations = List.of(
+                new Location(51.0441461, 3.7336349),
+                new Location(49.1913945, 16.6122723),
+                new Location(68.2359953, 14.5644379),
+                new Location(65.5887708, 22.1518707));
+        DrivingTimeMatrix drivingTimeMatrix = drivingTimeCalculator.calculateBulkDrivingTime(locations);
+        Assertions.assertThat(drivingTimeMatrix.size()).isEqualTo(locations.size());
+        for (int from = 0; from < locations.size(); from++) {
+            for (int to = 0; to < locations.size(); to++) {
+                Assertions.assertThat(drivingTimeMatrix.getDrivingTime(from, to))
+                        .isEqualTo(drivingTimeCalculator.calculateDrivingTime(locations.get(from), locations.get(to)));
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.acme.vehiclerouting.domain.geo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.acme.vehiclerouting.domain.Location;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class NearbyLocationsTest {
+
+    private static final int LOCATION_COUNT = 300;
+    private static final int NEARBY_COUNT = 10;
+
+    private final DrivingTimeCalculator drivingTimeCalculator = HaversineDrivingTimeCalculator.getInstance();
+
+    @Test
+    void nearestDrivingTimeFirst() {
+        List<Location> locations = generateLocations();
+        drivingTimeCalculator.initDrivingTimeMaps(locations, DrivingTimeMatrixMode.DENSE);
+        NearbyLocations.assign(locations, NEARBY_COUNT);
+        for (Location location : locations) {
+            List<Location> nearbyLocations = location.getNearbyLocations();
+            Assertions.assertThat(nearbyLocations).hasSize(NEARBY_COUNT).doesNotContain(location)
+                    .doesNotHaveDuplicates();
+            Assertions.assertThat(nearbyLocations).extracting(location::getDrivingTimeTo).isSorted();
+            long farthestDrivingTime = location.getDrivingTimeTo(nearbyLocations.get(NEARBY_COUNT - 1));
+            for (Location other : locations) {
+                if (other != location && !nearbyLocations.contains(other)) {
+                    Assertions.assertThat(location.getDrivingTimeTo(other)).isGreaterThanOrEqualTo(farthestDrivingTime);
+                }
+            }
+        }
+    }
+
+    @Test
+    void addedLocation() {
+        List<Location> locations = generateLocations();
+        drivingTimeCalculator.initDrivingTimeMaps(locations, DrivingTimeMatrixMode.DENSE);
+        NearbyLocations.assign(locations, NEARBY_COUNT);
+        Location newLocation = new Location(43.78, 11.26);
+        ExtendedDrivingTimeMatrix.extend(locations, newLocation, drivingTimeCalculator);
+        NearbyLocations.assign(locations, newLocation, NEARBY_COUNT);
+
+        Assertions.assertThat(newLocation.getNearbyLocations()).hasSize(NEARBY_COUNT)
+                .extracting(newLocation::getDrivingTimeTo).isSorted();
+        Assertions.assertThat(locations.get(0).getNearbyLocations()).doesNotContain(newLocation);
+    }
+
+    @Test
+    void fewerLocationsThanNearbyCount() {
+        List<Location> locations = generateLocations().subList(0, 4);
+        drivingTimeCalculator.initDrivingTimeMaps(locations, DrivingTimeMatrixMode.DENSE);
+        NearbyLocations.assign(locations, NEARBY_COUNT);
+        Assertions.assertThat(locations).allSatisfy(location -> Assertions.assertThat(location.getNearbyLocations())
+                .hasSize(3).doesNotContain(location));
+    }
+
+    private static List<Location> generateLocations() {
+        Random random = new Random(37);
+        List<Location> locations = new ArrayList<>(LOCATION_COUNT);
+        for (int i = 0; i < LOCATION_COUNT; i++) {
+            locations.add(new Location(43.70 + random.nextDouble() * 0.15, 11.15 + random.nextDouble() * 0.20));
+        }
+        return locations;
+    }
+}
@@ -0,0 +1,75 @@
+package org.acme.vehiclerouting.domain.geo;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.acme.vehiclerouting.domain.Location;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RoadNetworkDrivingTimeCalculatorTest {
+
+    private static final Location WEST = new Location(49.190, 16.600);
+    private static final Location CORNER = new Location(49.190, 16.620);
+    private static final Location NORTH = new Location(49.200, 16.620);
+    private static final Location OFF_ROAD_NETWORK = new Location(51.0441461, 3.7336349);
+
+    @TempDir
+    Path graphDirectory;
+
+    @Test
+    void calculateBulkDrivingTime() throws URISyntaxException {
+        Path osmFile = getOsmFile();
+        List<Location> locations = List.of(WEST, CORNER, NORTH, OFF_ROAD_NETWORK);
+        DrivingTimeMatrix drivingTimeMatrix;
+        try (RoadNetworkDrivingTimeCalculator drivingTimeCalculator =
+                new RoadNetworkDrivingTimeCalculator(osmFile, graphDirectory)) {
+            drivingTimeMatrix = drivingTimeCalculator.calculateBulkDrivingTime(locations);
+        }
+        DrivingTimeCalculator haversine = HaversineDrivingTimeCalculator.getInstance();
+
+        Assertions.assertThat(drivingTimeMatrix.getDrivingTime(0, 0)).isZero();
+        // The road turns at the corner, so it is longer than as the crow flies.
+        Assertions.assertThat(drivingTimeMatrix.getDrivingTime(0, 2))
+                .isEqualTo(drivingTimeMatrix.getDrivingTime(0, 1) + drivingTimeMatrix.getDrivingTime(1, 2))
+                .isGreaterThan(haversine.calculateDrivingTime(WEST, NORTH));
+        Assertions.assertThat(drivingTimeMatrix.getDrivingTime(0, 3))
+                .isEqualTo(haversine.calculateDrivingTime(WEST, OFF_ROAD_NETWORK));
+
+        // The preprocessed graph is loaded from the graph directory, without the OSM file.
+        try (RoadNetworkDrivingTimeCalculator drivingTimeCalculator =
+                new RoadNetworkDrivingTimeCalculator(graphDirectory.resolve("missing.osm"), graphDirectory)) {
+            Assertions.assertThat(drivingTimeCalculator.calculateDrivingTime(WEST, NORTH))
+                    .isEqualTo(drivingTimeMatrix.getDrivingTime(0, 2));
+        }
+    }
+
+    @Test
+    void calculateBulkDrivingTimeAboveMaxBulkSize() throws URISyntaxException {
+        try (RoadNetworkDrivingTimeCalculator drivingTimeCalculator =
+                new RoadNetworkDrivingTimeCalculator(getOsmFile(), graphDirectory, 2)) {
+            Assertions.assertThatIllegalArgumentException()
+                    .isThrownBy(() -> drivingTimeCalculator.calculateBulkDrivingTime(List.of(WEST, CORNER, NORTH)));
+        }
+    }
+
+    @Test
+    void initDrivingTimeMapsAboveMaxBulkSizeFallsBackToSparse() throws URISyntaxException {
+        List<Location> locations = List.of(new Location(WEST.getLatitude(), WEST.getLongitude()),
+                new Location(CORNER.getLatitude(), CORNER.getLongitude()),
+                new Location(NORTH.getLatitude(), NORTH.getLongitude()));
+        try (RoadNetworkDrivingTimeCalculator drivingTimeCalculator =
+                new RoadNetworkDrivingTimeCalculator(getOsmFile(), graphDirectory, 2)) {
+            drivingTimeCalculator.initDrivingTimeMaps(locations, DrivingTimeMatrixMode.DENSE);
+            Assertions.assertThat(locations.get(0).getDrivingTimeMatrix()).isInstanceOf(SparseDrivingTimeMatrix.class);
+            Assertions.assertThat(locations.get(0).getDrivingTimeTo(locations.get(2)))
+                    .isEqualTo(drivingTimeCalculator.calculateDrivingTime(WEST, NORTH));
+        }
+    }
+
+    private Path getOsmFile() throws URISyntaxException {
+        return Path.of(getClass().getResource("road-network.osm").toURI());
+    }
+}
@@ -0,0 +1,70 @@
+package org.acme.vehiclerouting.domain.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.acme.vehiclerouting.domain.Location;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SparseDrivingTimeMatrixTest {
+
+    private static final int LOCATION_COUNT = 500;
+    private static final int NEIGHBOUR_COUNT = 10;
+
+    private final DrivingTimeCalculator drivingTimeCalculator = HaversineDrivingTimeCalculator.getInstance();
+
+    @Test
+    void nearestNeighboursAreNearerThanAnyOtherLocation() {
+        List<Location> locations = generateLocations();
+        NearestNeighbourIndex nearestNeighbourIndex = new NearestNeighbourIndex(locations);
+        for (int from = 0; from < LOCATION_COUNT; from++) {
+            int[] neighbours = nearestNeighbourIndex.findNearestNeighbours(from, NEIGHBOUR_COUNT);
+            Assertions.assertThat(neighbours).hasSize(NEIGHBOUR_COUNT).doesNotContain(from).doesNotHaveDuplicates();
+            long farthestNeighbourDrivingTime = 0L;
+            for (int i = 0; i < neighbours.length; i++) {
+                long drivingTime = drivingTimeCalculator.calculateDrivingTime(locations.get(from),
+                        locations.get(neighbours[i]));
+                Assertions.assertThat(drivingTime).isGreaterThanOrEqualTo(farthestNeighbourDrivingTime);
+                farthestNeighbourDrivingTime = drivingTime;
+            }
+            List<Integer> neighbourList = Arrays.stream(neighbours).boxed().toList();
+            for (int other = 0; other < LOCATION_COUNT; other++) {
+                if (other != from && !neighbourList.contains(other)) {
+                    Assertions.assertThat(drivingTimeCalculator.calculateDrivingTime(locations.get(from),
+                            locations.get(other))).isGreaterThanOrEqualTo(farthestNeighbourDrivingTime);
+                }
+            }
+        }
+    }
+
+    @Test
+    void getDrivingTime() {
+        List<Location> locations = generateLocations();
+        // A small cache, so that on demand calculated driving times get evicted too.
+        SparseDrivingTimeMatrix drivingTimeMatrix =
+                new SparseDrivingTimeMatrix(locations, drivingTimeCalculator, NEIGHBOUR_COUNT, 64);
+        Assertions.assertThat(drivingTimeMatrix.size()).isEqualTo(LOCATION_COUNT);
+        for (int repeat = 0; repeat < 2; repeat++) {
+            for (int from = 0; from < LOCATION_COUNT; from++) {
+                for (int to = 0; to < LOCATION_COUNT; to++) {
+                    Assertions.assertThat(drivingTimeMatrix.getDrivingTime(from, to))
+                            .isEqualTo(drivingTimeCalculator.calculateDrivingTime(locations.get(from),
+                                    locations.get(to)));
+                }
+            }
+        }
+        Assertions.assertThat(drivingTimeMatrix.isNeighbour(0, 0)).isFalse();
+    }
+
+    private static List<Location> generateLocations() {
+        Random random = new Random(37);
+        List<Location> locations = new ArrayList<>(LOCATION_COUNT);
+        for (int i = 0; i < LOCATION_COUNT; i++) {
+            locations.add(new Location(43.75 + random.nextDouble() * 0.06, 11.17 + random.nextDouble() * 0.12));
+        }
+        return locations;
+    }
+}
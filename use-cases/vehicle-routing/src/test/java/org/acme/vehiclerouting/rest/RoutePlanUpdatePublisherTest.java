@@ -0,0 +1,283 @@
+package org.acme.vehiclerouting.rest;
+
+import static org.awaitility.Awaitility.await;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import jakarta.ws.rs.core.GenericType;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseBroadcaster;
+import jakarta.ws.rs.sse.SseEventSink;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+import ai.timefold.solver.core.api.solver.SolverStatus;
+
+import org.acme.vehiclerouting.domain.Location;
+import org.acme.vehiclerouting.domain.Vehicle;
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.acme.vehiclerouting.domain.Visit;
+import org.acme.vehiclerouting.domain.dto.RoutePlanUpdate;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RoutePlanUpdatePublisherTest {
+
+    private static final String JOB_ID = "job";
+    private static final LocalDateTime TOMORROW_07_00 = LocalDateTime.now().plusDays(1).withHour(7).withMinute(0);
+    private static final List<Visit> VISITS = List.of(
+            new Visit("1", "Visit 1", new Location(43.77, 11.24), 1, TOMORROW_07_00, TOMORROW_07_00.plusHours(10),
+                    Duration.ofMinutes(10)),
+            new Visit("2", "Visit 2", new Location(43.78, 11.25), 1, TOMORROW_07_00, TOMORROW_07_00.plusHours(10),
+                    Duration.ofMinutes(10)),
+            new Visit("3", "Visit 3", new Location(43.79, 11.26), 1, TOMORROW_07_00, TOMORROW_07_00.plusHours(10),
+                    Duration.ofMinutes(10)));
+
+    @Test
+    void sendsOnlyTheLatestBestSolutionAndTheChangedVehicles() {
+        RoutePlanUpdatePublisher publisher = new RoutePlanUpdatePublisher();
+        RecordingEventSink eventSink = new RecordingEventSink();
+        VehicleRoutePlan firstRoutePlan = createRoutePlan(-3L, Map.of("A", List.of("1"), "B", List.of("2", "3")));
+        eventSink.holdSends();
+        publisher.subscribe(JOB_ID, eventSink, new TestSse(), () -> firstRoutePlan, () -> SolverStatus.SOLVING_ACTIVE);
+        await().until(() -> eventSink.getUpdates().size() == 1);
+
+        // The client is still busy with the first update, so these replace each other.
+        publisher.publish(JOB_ID, createRoutePlan(-2L, Map.of("A", List.of("2"), "B", List.of("1", "3"))),
+                SolverStatus.SOLVING_ACTIVE);
+        publisher.publish(JOB_ID, createRoutePlan(-1L, Map.of("A", List.of("1", "2", "3"), "C", List.of())),
+                SolverStatus.SOLVING_ACTIVE);
+        eventSink.releaseSends();
+        await().until(() -> eventSink.getUpdates().size() == 2);
+
+        List<RoutePlanUpdate> updates = eventSink.getUpdates();
+        Assertions.assertThat(updates.get(0).vehicles()).extracting(Vehicle::getId).containsExactlyInAnyOrder("A", "B");
+        Assertions.assertThat(updates.get(0).removedVehicleIds()).isEmpty();
+        RoutePlanUpdate update = updates.get(1);
+        Assertions.assertThat(update.score()).isEqualTo(HardSoftLongScore.ofSoft(-1L));
+        Assertions.assertThat(update.vehicles()).extracting(Vehicle::getId).containsExactlyInAnyOrder("A", "C");
+        Assertions.assertThat(update.removedVehicleIds()).containsExactly("B");
+        Assertions.assertThat(eventSink.isClosed()).isFalse();
+
+        // Only the score and status changed.
+        publisher.publish(JOB_ID, createRoutePlan(-1L, Map.of("A", List.of("1", "2", "3"), "C", List.of())),
+                SolverStatus.NOT_SOLVING);
+        await().until(eventSink::isClosed);
+        Assertions.assertThat(eventSink.getUpdates()).hasSize(3);
+        Assertions.assertThat(eventSink.getUpdates().get(2).solverStatus()).isEqualTo(SolverStatus.NOT_SOLVING);
+        Assertions.assertThat(eventSink.getUpdates().get(2).vehicles()).isEmpty();
+        Assertions.assertThat(eventSink.getUpdates().get(2).removedVehicleIds()).isEmpty();
+    }
+
+    @Test
+    void closeEndsTheStreamsOfTheJob() {
+        RoutePlanUpdatePublisher publisher = new RoutePlanUpdatePublisher();
+        RecordingEventSink eventSink = new RecordingEventSink();
+        RecordingEventSink otherJobEventSink = new RecordingEventSink();
+        // Solving has not found a best solution yet.
+        publisher.subscribe(JOB_ID, eventSink, new TestSse(), () -> null, () -> SolverStatus.SOLVING_SCHEDULED);
+        publisher.subscribe("other", otherJobEventSink, new TestSse(), () -> null,
+                () -> SolverStatus.SOLVING_SCHEDULED);
+
+        // For example because solving failed.
+        publisher.close(JOB_ID);
+        Assertions.assertThat(eventSink.isClosed()).isTrue();
+        Assertions.assertThat(otherJobEventSink.isClosed()).isFalse();
+
+        // A closed job no longer has clients.
+        publisher.publish(JOB_ID, createRoutePlan(0L, Map.of("A", List.of("1", "2", "3"))),
+                SolverStatus.SOLVING_ACTIVE);
+        Assertions.assertThat(eventSink.getUpdates()).isEmpty();
+    }
+
+    private static VehicleRoutePlan createRoutePlan(long softScore, Map<String, List<String>> vehicleIdToVisitIds) {
+        // Each best solution is a clone, with its own vehicles.
+        List<Vehicle> vehicles = new ArrayList<>();
+        new LinkedHashMap<>(vehicleIdToVisitIds).forEach((vehicleId, visitIds) -> {
+            Vehicle vehicle = new Vehicle(vehicleId, 10, new Location(43.77, 11.25), TOMORROW_07_00);
+            visitIds.forEach(visitId -> vehicle.getVisits().add(VISITS.get(Integer.parseInt(visitId) - 1)));
+            vehicles.add(vehicle);
+        });
+        VehicleRoutePlan routePlan = new VehicleRoutePlan("test", null, null, TOMORROW_07_00,
+                TOMORROW_07_00.plusDays(1), vehicles, VISITS);
+        routePlan.setScore(HardSoftLongScore.ofSoft(softScore));
+        return routePlan;
+    }
+
+    private static final class RecordingEventSink implements SseEventSink {
+
+        private final List<RoutePlanUpdate> updates = new CopyOnWriteArrayList<>();
+        private final List<CompletableFuture<?>> heldSends = new ArrayList<>();
+        private boolean holdingSends = false;
+        private volatile boolean closed = false;
+
+        List<RoutePlanUpdate> getUpdates() {
+            return updates;
+        }
+
+        synchronized void holdSends() {
+            holdingSends = true;
+        }
+
+        void releaseSends() {
+            List<CompletableFuture<?>> sends;
+            synchronized (this) {
+                holdingSends = false;
+                sends = new ArrayList<>(heldSends);
+                heldSends.clear();
+            }
+            sends.forEach(send -> send.complete(null));
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public synchronized CompletionStage<?> send(OutboundSseEvent event) {
+            Assertions.assertThat(event.getName()).isEqualTo(RoutePlanUpdatePublisher.EVENT_NAME);
+            updates.add((RoutePlanUpdate) event.getData());
+            CompletableFuture<?> send = new CompletableFuture<>();
+            if (holdingSends) {
+                heldSends.add(send);
+            } else {
+                send.complete(null);
+            }
+            return send;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private static final class TestSse implements Sse {
+
+        @Override
+        public OutboundSseEvent.Builder newEventBuilder() {
+            return new TestEventBuilder();
+        }
+
+        @Override
+        public SseBroadcaster newBroadcaster() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class TestEventBuilder implements OutboundSseEvent.Builder {
+
+        private String name;
+        private MediaType mediaType;
+        private Object data;
+
+        @Override
+        public OutboundSseEvent.Builder id(String id) {
+            return this;
+        }
+
+        @Override
+        public OutboundSseEvent.Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        @Override
+        public OutboundSseEvent.Builder reconnectDelay(long milliseconds) {
+            return this;
+        }
+
+        @Override
+        public OutboundSseEvent.Builder mediaType(MediaType mediaType) {
+            this.mediaType = mediaType;
+            return this;
+        }
+
+        @Override
+        public OutboundSseEvent.Builder comment(String comment) {
+            return this;
+        }
+
+        @Override
+        public OutboundSseEvent.Builder data(Class type, Object data) {
+            this.data = data;
+            return this;
+        }
+
+        @Override
+        public OutboundSseEvent.Builder data(GenericType type, Object data) {
+            this.data = data;
+            return this;
+        }
+
+        @Override
+        public OutboundSseEvent.Builder data(Object data) {
+            this.data = data;
+            return this;
+        }
+
+        @Override
+        public OutboundSseEvent build() {
+            return new TestEvent(name, mediaType, data);
+        }
+    }
+
+    private record TestEvent(String name, MediaType mediaType, Object data) implements OutboundSseEvent {
+
+        @Override
+        public String getId() {
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getComment() {
+            return null;
+        }
+
+        @Override
+        public long getReconnectDelay() {
+            return RECONNECT_NOT_SET;
+        }
+
+        @Override
+        public boolean isReconnectDelaySet() {
+            return false;
+        }
+
+        @Override
+        public Class<?> getType() {
+            return data.getClass();
+        }
+
+        @Override
+        public Type getGenericType() {
+            return data.getClass();
+        }
+
+        @Override
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        @Override
+        public Object getData() {
+            return data;
+        }
+    }
+}
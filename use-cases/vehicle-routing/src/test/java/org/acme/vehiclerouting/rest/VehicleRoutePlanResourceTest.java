@@ -10,37 +10,58 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
 
 import ai.timefold.solver.core.api.score.analysis.ConstraintAnalysis;
 import ai.timefold.solver.core.api.score.analysis.ScoreAnalysis;
 import ai.timefold.solver.core.api.solver.SolverStatus;
 
 import org.acme.vehiclerouting.domain.Location;
+import org.acme.vehiclerouting.domain.Vehicle;
 import org.acme.vehiclerouting.domain.VehicleRoutePlan;
 import org.acme.vehiclerouting.domain.Visit;
+import org.acme.vehiclerouting.domain.dto.ApplyJobRecommendationRequest;
 import org.acme.vehiclerouting.domain.dto.ApplyRecommendationRequest;
+import org.acme.vehiclerouting.domain.dto.BatchRecommendationRequest;
 import org.acme.vehiclerouting.domain.dto.RecommendationRequest;
 import org.acme.vehiclerouting.domain.dto.VehicleRecommendation;
+import org.acme.vehiclerouting.rest.VehicleRouteDemoResource.DemoData;
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.Metrics;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
+import io.restassured.response.Response;
 
 @QuarkusTest
 public class VehicleRoutePlanResourceTest {
 
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
+    @Inject
+    VehicleRoutePlanResource vehicleRoutePlanResource;
+    @Inject
+    VehicleRouteDemoResource vehicleRouteDemoResource;
+    @Inject
+    ObjectMapper objectMapper;
+
     @BeforeAll
     static void initializeJacksonParser() {
         // Registers required org.acme.vehiclerouting.domain.jackson.VRPScoreAnalysisJacksonModule,
@@ -199,6 +220,337 @@ public class VehicleRoutePlanResourceTest {
         assertNotEquals(updatedSolution.getScore().toString(), solution.getScore().toString());
     }
 
+    @Test
+    public void recommendAndApplyFitAgainstJob() {
+        VehicleRoutePlan routePlan = vehicleRouteDemoResource.build(DemoData.FIRENZE);
+        String jobId = vehicleRoutePlanResource.keep(routePlan);
+        String visitId = routePlan.getVisits().get(0).getId();
+
+        List<Pair<VehicleRecommendation, ScoreAnalysis>> recommendedFitList =
+                parseRecommendedFitList(getJobRecommendations(jobId, visitId)
+                        .then()
+                        .statusCode(200)
+                        .extract()
+                        .as(List.class));
+        assertFalse(recommendedFitList.isEmpty());
+        assertTrue(recommendedFitList.size() <= VehicleRoutePlanResource.MAX_RECOMMENDED_FIT_LIST_SIZE);
+
+        VehicleRecommendation recommendation = recommendedFitList.get(0).getLeft();
+        VehicleRoutePlan updatedRoutePlan = applyJobRecommendation(jobId,
+                new ApplyJobRecommendationRequest(visitId, recommendation.vehicleId(), recommendation.index()))
+                .then()
+                .statusCode(200)
+                .extract()
+                .as(VehicleRoutePlan.class);
+        Vehicle vehicle = updatedRoutePlan.getVehicles().stream()
+                .filter(v -> v.getId().equals(recommendation.vehicleId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(visitId, vehicle.getVisits().get(recommendation.index()).getId());
+        assertNotNull(updatedRoutePlan.getScore());
+    }
+
+    @Test
+    public void cacheScoreExplanationOfBestSolution() {
+        VehicleRoutePlan routePlan = vehicleRouteDemoResource.build(DemoData.FIRENZE);
+        String jobId = vehicleRoutePlanResource.keep(routePlan);
+        double misses = countScoreAnalysisCache("summary", "miss");
+        double hits = countScoreAnalysisCache("summary", "hit");
+
+        get("/route-plans/" + jobId).then().statusCode(200);
+        get("/route-plans/" + jobId).then().statusCode(200);
+        assertEquals(misses + 1, countScoreAnalysisCache("summary", "miss"));
+        assertEquals(hits + 1, countScoreAnalysisCache("summary", "hit"));
+
+        // Applying a recommendation replaces the job, so its score is explained again.
+        applyJobRecommendation(jobId, new ApplyJobRecommendationRequest(routePlan.getVisits().get(0).getId(),
+                routePlan.getVehicles().get(0).getId(), 0))
+                .then().statusCode(200);
+        get("/route-plans/" + jobId).then().statusCode(200);
+        assertEquals(misses + 2, countScoreAnalysisCache("summary", "miss"));
+        assertEquals(hits + 1, countScoreAnalysisCache("summary", "hit"));
+    }
+
+    private static double countScoreAnalysisCache(String cache, String result) {
+        return Metrics.globalRegistry.counter(ScoreAnalysisCache.METER_NAME, "cache", cache, "result", result).count();
+    }
+
+    @Test
+    public void recommendAndApplyFitAgainstJobRejectsInvalidRequests() {
+        VehicleRoutePlan routePlan = vehicleRouteDemoResource.build(DemoData.FIRENZE);
+        String jobId = vehicleRoutePlanResource.keep(routePlan);
+        String vehicleId = routePlan.getVehicles().get(0).getId();
+        String visitId = routePlan.getVisits().get(0).getId();
+
+        getJobRecommendations(jobId, "unknown").then().statusCode(404);
+        applyJobRecommendation(jobId, new ApplyJobRecommendationRequest("unknown", vehicleId, 0))
+                .then().statusCode(404);
+        applyJobRecommendation(jobId, new ApplyJobRecommendationRequest(visitId, "unknown", 0))
+                .then().statusCode(404);
+        getJobRecommendations("unknown", visitId).then().statusCode(404);
+
+        // The route of the vehicle is still empty, so 0 is its only position.
+        applyJobRecommendation(jobId, new ApplyJobRecommendationRequest(visitId, vehicleId, 1))
+                .then().statusCode(400);
+        applyJobRecommendation(jobId, new ApplyJobRecommendationRequest(visitId, vehicleId, -1))
+                .then().statusCode(400);
+
+        applyJobRecommendation(jobId, new ApplyJobRecommendationRequest(visitId, vehicleId, 0))
+                .then().statusCode(200);
+        getJobRecommendations(jobId, visitId).then().statusCode(409);
+        applyJobRecommendation(jobId, new ApplyJobRecommendationRequest(visitId, vehicleId, 0))
+                .then().statusCode(409);
+    }
+
+    @Test
+    public void applyFitToSolvingJob() {
+        VehicleRoutePlan vehicleRoutePlan = given()
+                .when().get("/demo-data/FIRENZE")
+                .then()
+                .statusCode(200)
+                .extract()
+                .as(VehicleRoutePlan.class);
+        String jobId = given()
+                .contentType(ContentType.JSON)
+                .body(vehicleRoutePlan)
+                .expect().contentType(ContentType.TEXT)
+                .when().post("/route-plans")
+                .then()
+                .statusCode(200)
+                .extract()
+                .asString();
+
+        applyJobRecommendation(jobId, new ApplyJobRecommendationRequest(vehicleRoutePlan.getVisits().get(0).getId(),
+                vehicleRoutePlan.getVehicles().get(0).getId(), 0))
+                .then().statusCode(409);
+        given().when().delete("/route-plans/" + jobId);
+    }
+
+    @Test
+    public void recommendFitsForManyVisitsAgainstJob() {
+        VehicleRoutePlan routePlan = vehicleRouteDemoResource.build(DemoData.FIRENZE);
+        String jobId = vehicleRoutePlanResource.keep(routePlan);
+        // Not in the order of the route plan, and one of them twice.
+        List<String> visitIds = List.of(routePlan.getVisits().get(5).getId(), routePlan.getVisits().get(2).getId(),
+                routePlan.getVisits().get(7).getId(), routePlan.getVisits().get(2).getId());
+
+        Map<String, List<Map<String, Object>>> visitIdToRecommendedFitList = getBatchRecommendations(jobId, visitIds)
+                .then()
+                .statusCode(200)
+                .extract()
+                .as(Map.class);
+        assertEquals(visitIds.stream().distinct().toList(), List.copyOf(visitIdToRecommendedFitList.keySet()));
+        visitIdToRecommendedFitList.forEach((visitId, recommendedFitMap) -> {
+            List<Pair<VehicleRecommendation, ScoreAnalysis>> recommendedFitList =
+                    parseRecommendedFitList(recommendedFitMap);
+            assertFalse(recommendedFitList.isEmpty(), visitId);
+            assertTrue(recommendedFitList.size() <= VehicleRoutePlanResource.MAX_RECOMMENDED_FIT_LIST_SIZE, visitId);
+        });
+
+        String vehicleId = routePlan.getVehicles().get(0).getId();
+        applyJobRecommendation(jobId, new ApplyJobRecommendationRequest(visitIds.get(1), vehicleId, 0))
+                .then().statusCode(200);
+        getBatchRecommendations(jobId, visitIds).then().statusCode(409);
+    }
+
+    private static Response getBatchRecommendations(String jobId, List<String> visitIds) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(new BatchRecommendationRequest(visitIds))
+                .when()
+                .post("/route-plans/" + jobId + "/recommendations");
+    }
+
+    private static Response getJobRecommendations(String jobId, String visitId) {
+        return given()
+                .queryParam("visitId", visitId)
+                .when()
+                .get("/route-plans/" + jobId + "/recommendation");
+    }
+
+    private static Response applyJobRecommendation(String jobId, ApplyJobRecommendationRequest request) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/route-plans/" + jobId + "/recommendation/apply");
+    }
+
+    @Test
+    public void changeRoutePlanWhileSolving() {
+        VehicleRoutePlan vehicleRoutePlan = given()
+                .when().get("/demo-data/FIRENZE")
+                .then()
+                .statusCode(200)
+                .extract()
+                .as(VehicleRoutePlan.class);
+        String jobId = given()
+                .contentType(ContentType.JSON)
+                .body(vehicleRoutePlan)
+                .expect().contentType(ContentType.TEXT)
+                .when().post("/route-plans")
+                .then()
+                .statusCode(200)
+                .extract()
+                .asString();
+
+        // Restarts solving if the job already ended.
+        Visit newVisit = new Visit("new", "new visit", new Location(43.77800837529796, 11.223969038020176),
+                2, LocalDateTime.now().plusDays(1).withHour(8).withMinute(0),
+                LocalDateTime.now().plusDays(1).withHour(14).withMinute(0),
+                Duration.ofMinutes(10));
+        VehicleRoutePlan withNewVisit = given()
+                .contentType(ContentType.JSON)
+                .body(newVisit)
+                .when().post("/route-plans/" + jobId + "/visits")
+                .then()
+                .statusCode(200)
+                .extract()
+                .as(VehicleRoutePlan.class);
+        assertEquals(vehicleRoutePlan.getVisits().size() + 1, withNewVisit.getVisits().size());
+
+        String vehicleId = vehicleRoutePlan.getVehicles().get(0).getId();
+        given()
+                .when().delete("/route-plans/" + jobId + "/vehicles/" + vehicleId)
+                .then()
+                .statusCode(200);
+        given()
+                .when().delete("/route-plans/" + jobId + "/vehicles/" + vehicleId)
+                .then()
+                .statusCode(404);
+
+        await()
+                .atMost(Duration.ofMinutes(1))
+                .pollInterval(Duration.ofMillis(500L))
+                .until(() -> SolverStatus.NOT_SOLVING.name().equals(
+                        get("/route-plans/" + jobId + "/status")
+                                .jsonPath().get("solverStatus")));
+        VehicleRoutePlan solution = get("/route-plans/" + jobId).then().extract().as(VehicleRoutePlan.class);
+        assertTrue(solution.getScore().isFeasible());
+        assertEquals(vehicleRoutePlan.getVehicles().size() - 1, solution.getVehicles().size());
+        assertTrue(solution.getVehicles().stream()
+                .flatMap(vehicle -> vehicle.getVisits().stream())
+                .anyMatch(visit -> visit.getId().equals(newVisit.getId())));
+    }
+
+    @Test
+    public void streamUpdatesUntilSolvingEnds() throws JsonProcessingException {
+        VehicleRoutePlan vehicleRoutePlan = given()
+                .when().get("/demo-data/FIRENZE")
+                .then()
+                .statusCode(200)
+                .extract()
+                .as(VehicleRoutePlan.class);
+        String jobId = given()
+                .contentType(ContentType.JSON)
+                .body(vehicleRoutePlan)
+                .expect().contentType(ContentType.TEXT)
+                .when().post("/route-plans")
+                .then()
+                .statusCode(200)
+                .extract()
+                .asString();
+
+        // Only returns once the server closes the stream.
+        String stream = given()
+                .accept(MediaType.SERVER_SENT_EVENTS)
+                .when().get("/route-plans/" + jobId + "/updates")
+                .then()
+                .statusCode(200)
+                .extract()
+                .asString();
+        List<JsonNode> updates = new ArrayList<>();
+        for (String line : stream.split("\\R")) {
+            if (line.startsWith("event:")) {
+                assertEquals(RoutePlanUpdatePublisher.EVENT_NAME, line.substring("event:".length()).trim());
+            } else if (line.startsWith("data:")) {
+                updates.add(OBJECT_MAPPER.readTree(line.substring("data:".length())));
+            }
+        }
+
+        assertFalse(updates.isEmpty());
+        assertEquals(vehicleRoutePlan.getVehicles().size(), updates.get(0).get("vehicles").size());
+        assertEquals(SolverStatus.NOT_SOLVING.name(), updates.get(updates.size() - 1).get("solverStatus").asText());
+        // Replaying the changed vehicles of each update gives the final best solution.
+        Map<String, List<String>> vehicleIdToVisitIds = new HashMap<>();
+        for (JsonNode update : updates) {
+            assertTrue(update.get("removedVehicleIds").isEmpty());
+            for (JsonNode vehicle : update.get("vehicles")) {
+                List<String> visitIds = new ArrayList<>();
+                vehicle.get("visits").forEach(visitId -> visitIds.add(visitId.asText()));
+                vehicleIdToVisitIds.put(vehicle.get("id").asText(), visitIds);
+            }
+        }
+        VehicleRoutePlan solution = get("/route-plans/" + jobId).then().extract().as(VehicleRoutePlan.class);
+        assertEquals(solution.getVehicles().size(), vehicleIdToVisitIds.size());
+        for (Vehicle vehicle : solution.getVehicles()) {
+            assertEquals(vehicle.getVisits().stream().map(Visit::getId).toList(),
+                    vehicleIdToVisitIds.get(vehicle.getId()));
+        }
+    }
+
+    @Test
+    public void solveAsSmile() throws IOException {
+        ObjectMapper smileMapper = SmileMessageBodyProvider.buildSmileMapper(objectMapper);
+        byte[] demoDataAsSmile = given()
+                .accept(SmileMessageBodyProvider.APPLICATION_SMILE)
+                .when().get("/demo-data/FIRENZE")
+                .then()
+                .statusCode(200)
+                .contentType(SmileMessageBodyProvider.APPLICATION_SMILE)
+                .extract()
+                .asByteArray();
+        String demoDataAsJson = get("/demo-data/FIRENZE").then().statusCode(200).extract().asString();
+        assertEquals(objectMapper.readTree(demoDataAsJson), smileToJsonTree(smileMapper, demoDataAsSmile));
+
+        // Gzipped, like a large route plan would be sent.
+        ByteArrayOutputStream gzippedDemoData = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(gzippedDemoData)) {
+            gzipOutputStream.write(demoDataAsSmile);
+        }
+        String jobId = given()
+                .contentType(SmileMessageBodyProvider.APPLICATION_SMILE)
+                .header("Content-Encoding", "gzip")
+                .body(gzippedDemoData.toByteArray())
+                .expect().contentType(ContentType.TEXT)
+                .when().post("/route-plans")
+                .then()
+                .statusCode(200)
+                .extract()
+                .asString();
+        await()
+                .atMost(Duration.ofMinutes(1))
+                .pollInterval(Duration.ofMillis(500L))
+                .until(() -> SolverStatus.NOT_SOLVING.name().equals(
+                        get("/route-plans/" + jobId + "/status")
+                                .jsonPath().get("solverStatus")));
+
+        byte[] solutionAsSmile = given()
+                .accept(SmileMessageBodyProvider.APPLICATION_SMILE)
+                .when().get("/route-plans/" + jobId)
+                .then()
+                .statusCode(200)
+                .contentType(SmileMessageBodyProvider.APPLICATION_SMILE)
+                .extract()
+                .asByteArray();
+        String solutionAsJson = get("/route-plans/" + jobId).then().statusCode(200).extract().asString();
+        JsonNode solutionTree = objectMapper.readTree(solutionAsJson);
+        assertEquals(solutionTree, smileToJsonTree(smileMapper, solutionAsSmile));
+        // Locations are arrays of coordinates, and vehicles refer to their visits by ID.
+        assertTrue(solutionTree.get("visits").get(0).get("location").isArray());
+        assertTrue(solutionTree.get("vehicles").get(0).get("visits").get(0).isTextual());
+
+        VehicleRoutePlan solution = smileMapper.readValue(solutionAsSmile, VehicleRoutePlan.class);
+        assertTrue(solution.getScore().isFeasible());
+        Visit visit = solution.getVehicles().get(0).getVisits().get(0);
+        assertTrue(solution.getVisits().contains(visit));
+    }
+
+    private JsonNode smileToJsonTree(ObjectMapper smileMapper, byte[] smile) throws IOException {
+        // Smile keeps whether a number was written as an int or a long, which JSON does not.
+        return objectMapper.readTree(objectMapper.writeValueAsString(smileMapper.readTree(smile)));
+    }
+
     private VehicleRoutePlan solveDemoData() {
         VehicleRoutePlan vehicleRoutePlan = given()
                 .when().get("/demo-data/FIRENZE")
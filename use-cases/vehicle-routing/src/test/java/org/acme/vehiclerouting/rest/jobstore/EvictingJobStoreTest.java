@@ -0,0 +1,141 @@
+package org.acme.vehiclerouting.rest.jobstore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class EvictingJobStoreTest {
+
+    private static final int MAX_IN_MEMORY_JOB_COUNT = 100;
+
+    @TempDir
+    Path spillDirectory;
+
+    private final AtomicLong clock = new AtomicLong(0L);
+    private final List<String> removedJobIds = new ArrayList<>();
+
+    private EvictingJobStore<Job, Solution> buildStore(Duration timeToLive, Set<String> solvingJobIds) {
+        return new EvictingJobStore<>(MAX_IN_MEMORY_JOB_COUNT, timeToLive, spillDirectory, new ObjectMapper(),
+                Solution.class, Job::solution, Job::new, solvingJobIds::contains, "test", removedJobIds::add, clock::get,
+                false);
+    }
+
+    @Test
+    void spilledJobsAreReadBack() {
+        EvictingJobStore<Job, Solution> store = buildStore(Duration.ofDays(1), Set.of());
+        for (int i = 0; i < 2 * MAX_IN_MEMORY_JOB_COUNT; i++) {
+            clock.incrementAndGet();
+            store.put(Integer.toString(i), new Job(new Solution(Integer.toString(i), new int[100])));
+        }
+        Assertions.assertThat(store.getInMemoryJobCount()).isLessThanOrEqualTo(MAX_IN_MEMORY_JOB_COUNT);
+        Assertions.assertThat(store.getSpilledJobCount()).isEqualTo(MAX_IN_MEMORY_JOB_COUNT);
+        Assertions.assertThat(store.getSpilledByteCount()).isPositive();
+        for (int i = 0; i < 2 * MAX_IN_MEMORY_JOB_COUNT; i++) {
+            String jobId = Integer.toString(i);
+            Assertions.assertThat(store.get(jobId).solution().name()).isEqualTo(jobId);
+        }
+        Assertions.assertThat(store.get(Integer.toString(2 * MAX_IN_MEMORY_JOB_COUNT))).isNull();
+    }
+
+    // Spills 100 000 jobs to disk, so it only runs with -Dsoak=true.
+    @Test
+    @EnabledIfSystemProperty(named = "soak", matches = "true")
+    void soak() {
+        EvictingJobStore<Job, Solution> store = buildStore(Duration.ofDays(1), Set.of());
+        int jobCount = 100_000;
+        Random random = new Random(37);
+        for (int i = 0; i < jobCount; i++) {
+            clock.incrementAndGet();
+            store.put(Integer.toString(i), new Job(new Solution(Integer.toString(i), new int[100])));
+            if (i % 10 == 0) {
+                // Reads back an older job, mostly one that was spilled.
+                String jobId = Integer.toString(random.nextInt(i + 1));
+                Assertions.assertThat(store.get(jobId).solution().name()).isEqualTo(jobId);
+            }
+            Assertions.assertThat(store.getInMemoryJobCount()).isLessThanOrEqualTo(MAX_IN_MEMORY_JOB_COUNT);
+        }
+        Assertions.assertThat(store.getJobIds()).hasSize(jobCount);
+        Assertions.assertThat(store.getSpilledJobCount()).isEqualTo(jobCount - MAX_IN_MEMORY_JOB_COUNT);
+        Assertions.assertThat(store.getSpilledByteCount()).isPositive();
+        Assertions.assertThat(store.get("0").solution().name()).isEqualTo("0");
+        Assertions.assertThat(store.get(Integer.toString(jobCount))).isNull();
+    }
+
+    @Test
+    void solvingJobsStayInMemory() {
+        EvictingJobStore<Job, Solution> store = buildStore(Duration.ofMinutes(10), Set.of("solving"));
+        Job solvingJob = new Job(new Solution("solving", new int[0]));
+        store.put("solving", solvingJob);
+        for (int i = 0; i < MAX_IN_MEMORY_JOB_COUNT; i++) {
+            store.put(Integer.toString(i), new Job(new Solution(Integer.toString(i), new int[0])));
+        }
+        Assertions.assertThat(store.getSpilledJobCount()).isOne();
+        Assertions.assertThat(store.get("solving")).isSameAs(solvingJob);
+        Assertions.assertThat(store.get("0").solution().name()).isEqualTo("0");
+
+        clock.addAndGet(Duration.ofMinutes(10).toMillis());
+        store.put("new", new Job(new Solution("new", new int[0])));
+        Assertions.assertThat(store.getJobIds()).containsExactlyInAnyOrder("solving", "new");
+        Assertions.assertThat(store.getSpilledByteCount()).isZero();
+    }
+
+    @Test
+    void jobsWithoutSolutionAreDropped() {
+        EvictingJobStore<Job, Solution> store = buildStore(Duration.ofMinutes(10), Set.of());
+        store.put("failed", new Job(null));
+        for (int i = 0; i < MAX_IN_MEMORY_JOB_COUNT; i++) {
+            store.put(Integer.toString(i), new Job(new Solution(Integer.toString(i), new int[0])));
+        }
+        Assertions.assertThat(store.get("failed")).isNull();
+        Assertions.assertThat(removedJobIds).containsExactly("failed");
+        Assertions.assertThat(store.getSpilledJobCount()).isZero();
+    }
+
+    @Test
+    void expiredJobsAreRemovedWithoutPut() {
+        EvictingJobStore<Job, Solution> store = buildStore(Duration.ofMinutes(10), Set.of());
+        for (int i = 0; i < 2 * MAX_IN_MEMORY_JOB_COUNT; i++) {
+            store.put(Integer.toString(i), new Job(new Solution(Integer.toString(i), new int[0])));
+        }
+        Assertions.assertThat(store.getSpilledJobCount()).isEqualTo(MAX_IN_MEMORY_JOB_COUNT);
+
+        clock.addAndGet(Duration.ofMinutes(10).toMillis());
+        store.removeExpiredJobs();
+        Assertions.assertThat(store.getJobIds()).isEmpty();
+        Assertions.assertThat(store.getSpilledByteCount()).isZero();
+        Assertions.assertThat(removedJobIds).hasSize(2 * MAX_IN_MEMORY_JOB_COUNT);
+    }
+
+    @Test
+    void closeDeletesSpilledJobs() throws IOException {
+        EvictingJobStore<Job, Solution> store = buildStore(Duration.ofMinutes(10), Set.of());
+        for (int i = 0; i < 2 * MAX_IN_MEMORY_JOB_COUNT; i++) {
+            store.put(Integer.toString(i), new Job(new Solution(Integer.toString(i), new int[0])));
+        }
+        store.close();
+        Assertions.assertThat(store.getSpilledJobCount()).isZero();
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            Assertions.assertThat(files).isEmpty();
+        }
+    }
+
+    private record Solution(String name, int[] data) {
+    }
+
+    private record Job(Solution solution) {
+    }
+}
@@ -0,0 +1,66 @@
+package org.acme.vehiclerouting.solver;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import ai.timefold.solver.core.api.solver.Solver;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import ai.timefold.solver.core.config.solver.EnvironmentMode;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+
+import org.acme.vehiclerouting.domain.Location;
+import org.acme.vehiclerouting.domain.Vehicle;
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.acme.vehiclerouting.domain.Visit;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ChangeVisitTimeWindowProblemChangeTest {
+
+    // Whole seconds, like the times of a visit.
+    private static final LocalDateTime TOMORROW_07_00 = LocalDate.now().plusDays(1).atTime(7, 0);
+
+    @Test
+    void changeTimeWindowOfVisitInTheMiddleOfARoute() {
+        List<Visit> visits = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            visits.add(new Visit(Integer.toString(i), "Visit " + i, new Location(43.75 + i * 0.01, 11.20 + i * 0.01),
+                    1, TOMORROW_07_00, TOMORROW_07_00.plusHours(10), Duration.ofMinutes(10)));
+        }
+        Vehicle vehicle = new Vehicle("0", 10, new Location(43.77, 11.25), TOMORROW_07_00);
+        vehicle.getVisits().addAll(visits);
+        VehicleRoutePlan plan = new VehicleRoutePlan("test", null, null, TOMORROW_07_00, TOMORROW_07_00.plusDays(1),
+                List.of(vehicle), visits);
+
+        // The route is already complete, so the construction heuristic leaves it as is.
+        // Fails fast if the problem change leaves the arrival times stale.
+        SolverConfig solverConfig = new SolverConfig()
+                .withSolutionClass(VehicleRoutePlan.class)
+                .withEntityClasses(Vehicle.class, Visit.class)
+                .withConstraintProviderClass(VehicleRoutingConstraintProvider.class)
+                .withEnvironmentMode(EnvironmentMode.FULL_ASSERT)
+                .withPhases(new ConstructionHeuristicPhaseConfig());
+        SolverFactory<VehicleRoutePlan> solverFactory = SolverFactory.create(solverConfig);
+        // Fills in the shadow variables of the route, which the solver expects up to date when it starts.
+        SolutionManager.create(solverFactory).update(plan);
+        Solver<VehicleRoutePlan> solver = solverFactory.buildSolver();
+        // Processed once the phases end, after which the solver runs them again on the changed plan.
+        solver.addProblemChange(new ChangeVisitTimeWindowProblemChange(visits.get(1), TOMORROW_07_00.plusHours(3),
+                TOMORROW_07_00.plusHours(10)));
+        VehicleRoutePlan solution = solver.solve(plan);
+
+        List<Visit> route = solution.getVehicles().get(0).getVisits();
+        Visit changedVisit = route.get(1);
+        Visit nextVisit = route.get(2);
+        Assertions.assertThat(changedVisit.getMinStartTime()).isEqualTo(TOMORROW_07_00.plusHours(3));
+        Assertions.assertThat(changedVisit.getDepartureTime()).isEqualTo(TOMORROW_07_00.plusHours(3).plusMinutes(10));
+        long departureTimeEpochSecond = changedVisit.getDepartureTimeEpochSecond();
+        Assertions.assertThat(nextVisit.getArrivalTimeEpochSecond()).isEqualTo(departureTimeEpochSecond
+                + nextVisit.getDrivingTimeSecondsFromPreviousStandstill(departureTimeEpochSecond));
+    }
+}
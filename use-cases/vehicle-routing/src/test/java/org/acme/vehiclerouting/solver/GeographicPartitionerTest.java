@@ -0,0 +1,86 @@
+package org.acme.vehiclerouting.solver;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.acme.vehiclerouting.domain.Location;
+import org.acme.vehiclerouting.domain.Vehicle;
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.acme.vehiclerouting.domain.Visit;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class GeographicPartitionerTest {
+
+    private static final LocalDateTime TOMORROW_07_00 = LocalDateTime.now().plusDays(1).withHour(7).withMinute(0);
+
+    private final GeographicPartitioner partitioner = new GeographicPartitioner(0L);
+
+    @Test
+    void partitionAndMerge() {
+        Random random = new Random(37);
+        // 30 visits around Florence and 10 visits around Bologna, 100 km apart.
+        List<Visit> visits = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Location location = i < 30
+                    ? new Location(43.75 + random.nextDouble() * 0.06, 11.17 + random.nextDouble() * 0.12)
+                    : new Location(44.47 + random.nextDouble() * 0.06, 11.30 + random.nextDouble() * 0.12);
+            visits.add(new Visit(Integer.toString(i), "Visit " + i, location, 1, TOMORROW_07_00,
+                    TOMORROW_07_00.plusHours(10), Duration.ofMinutes(10)));
+        }
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            // All vehicles are based in Florence, except for the last one.
+            Location homeLocation = i < 5 ? new Location(43.77, 11.25) : new Location(44.49, 11.34);
+            vehicles.add(new Vehicle(Integer.toString(i), 20, homeLocation, TOMORROW_07_00));
+        }
+        // Vehicle 0 already visits one visit in Florence and one in Bologna.
+        vehicles.get(0).getVisits().addAll(List.of(visits.get(0), visits.get(30)));
+        VehicleRoutePlan plan = new VehicleRoutePlan("test", null, null, TOMORROW_07_00, TOMORROW_07_00.plusDays(1),
+                vehicles, visits);
+
+        List<VehicleRoutePlan> partitions = partitioner.partition(plan, 2);
+        Assertions.assertThat(partitions).hasSize(2);
+        VehicleRoutePlan florence = partitions.stream()
+                .filter(partition -> partition.getVisits().stream().anyMatch(visit -> visit.getId().equals("0")))
+                .findFirst().orElseThrow();
+        VehicleRoutePlan bologna = partitions.get(partitions.indexOf(florence) == 0 ? 1 : 0);
+        Assertions.assertThat(florence.getVisits()).extracting(Visit::getId)
+                .containsExactlyElementsOf(visits.subList(0, 30).stream().map(Visit::getId).toList());
+        Assertions.assertThat(bologna.getVisits()).extracting(Visit::getId)
+                .containsExactlyElementsOf(visits.subList(30, 40).stream().map(Visit::getId).toList());
+        // The vehicles are divided in proportion to the demand, preferring the nearest ones.
+        Assertions.assertThat(florence.getVehicles()).extracting(Vehicle::getId).containsExactly("0", "1", "2", "3");
+        Assertions.assertThat(bologna.getVehicles()).extracting(Vehicle::getId).containsExactly("4", "5");
+        // The partitions have copies, and only keep the visits assigned to a vehicle of the same partition.
+        Vehicle vehicleCopy = florence.getVehicles().get(0);
+        Assertions.assertThat(vehicleCopy).isNotSameAs(vehicles.get(0));
+        Assertions.assertThat(vehicleCopy.getVisits()).containsExactly(florence.getVisits().get(0));
+        Assertions.assertThat(vehicles.get(0).getVisits()).containsExactly(visits.get(0), visits.get(30));
+
+        VehicleRoutePlan merged = GeographicPartitioner.merge(plan, partitions);
+        Assertions.assertThat(merged.getVehicles()).extracting(Vehicle::getId)
+                .containsExactlyElementsOf(vehicles.stream().map(Vehicle::getId).toList());
+        Assertions.assertThat(merged.getVisits()).extracting(Visit::getId)
+                .containsExactlyElementsOf(visits.stream().map(Visit::getId).toList());
+        Assertions.assertThat(merged.getVehicles().get(0)).isSameAs(vehicleCopy);
+    }
+
+    @Test
+    void fewerPartitionsThanVehicles() {
+        Location location = new Location(43.77, 11.25);
+        Visit visit = new Visit("0", "Visit 0", location, 1, TOMORROW_07_00, TOMORROW_07_00.plusHours(10),
+                Duration.ofMinutes(10));
+        List<Vehicle> vehicles = List.of(new Vehicle("0", 20, location, TOMORROW_07_00),
+                new Vehicle("1", 20, location, TOMORROW_07_00));
+        VehicleRoutePlan plan = new VehicleRoutePlan("test", null, null, TOMORROW_07_00, TOMORROW_07_00.plusDays(1),
+                vehicles, List.of(visit));
+
+        List<VehicleRoutePlan> partitions = partitioner.partition(plan, 4);
+        Assertions.assertThat(partitions).singleElement()
+                .satisfies(partition -> Assertions.assertThat(partition.getVehicles()).hasSize(2));
+    }
+}
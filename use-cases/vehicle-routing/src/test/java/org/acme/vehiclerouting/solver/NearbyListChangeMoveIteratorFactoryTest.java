@@ -0,0 +1,75 @@
+package org.acme.vehiclerouting.solver;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import ai.timefold.solver.core.config.heuristic.selector.common.SelectionOrder;
+import ai.timefold.solver.core.config.heuristic.selector.move.factory.MoveIteratorFactoryConfig;
+import ai.timefold.solver.core.config.localsearch.LocalSearchPhaseConfig;
+import ai.timefold.solver.core.config.solver.EnvironmentMode;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+
+import org.acme.vehiclerouting.domain.Location;
+import org.acme.vehiclerouting.domain.Vehicle;
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.acme.vehiclerouting.domain.Visit;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class NearbyListChangeMoveIteratorFactoryTest {
+
+    private static final LocalDateTime TOMORROW_07_00 = LocalDateTime.now().plusDays(1).withHour(7).withMinute(0);
+
+    @Test
+    void solveWithOnlyNearbyMoves() {
+        solve(SelectionOrder.RANDOM);
+    }
+
+    @Test
+    void solveWithOriginalSelectionOrder() {
+        solve(SelectionOrder.ORIGINAL);
+    }
+
+    private static void solve(SelectionOrder selectionOrder) {
+        Random random = new Random(37);
+        List<Visit> visits = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            // Every fourth visit is at the same address as the previous one.
+            Location location = i % 4 == 3 ? visits.get(i - 1).getLocation()
+                    : new Location(43.75 + random.nextDouble() * 0.06, 11.17 + random.nextDouble() * 0.12);
+            visits.add(new Visit(Integer.toString(i), "Visit " + i, location, 1, TOMORROW_07_00,
+                    TOMORROW_07_00.plusHours(10), Duration.ofMinutes(10)));
+        }
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            vehicles.add(new Vehicle(Integer.toString(i), 20, new Location(43.77, 11.25), TOMORROW_07_00));
+        }
+        VehicleRoutePlan plan = new VehicleRoutePlan("test", null, null, TOMORROW_07_00, TOMORROW_07_00.plusDays(1),
+                vehicles, visits);
+
+        LocalSearchPhaseConfig localSearchPhaseConfig = new LocalSearchPhaseConfig()
+                .withMoveSelectorConfig(new MoveIteratorFactoryConfig()
+                        .withMoveIteratorFactoryClass(NearbyListChangeMoveIteratorFactory.class)
+                        .withSelectionOrder(selectionOrder))
+                .withTerminationConfig(new TerminationConfig().withStepCountLimit(1_000));
+        // Fails fast if a move, or its undo move, corrupts the shadow variables or the score.
+        SolverConfig solverConfig = new SolverConfig()
+                .withSolutionClass(VehicleRoutePlan.class)
+                .withEntityClasses(Vehicle.class, Visit.class)
+                .withConstraintProviderClass(VehicleRoutingConstraintProvider.class)
+                .withEnvironmentMode(EnvironmentMode.FULL_ASSERT)
+                .withPhases(new ConstructionHeuristicPhaseConfig(), localSearchPhaseConfig);
+        VehicleRoutePlan solution = SolverFactory.<VehicleRoutePlan> create(solverConfig).buildSolver().solve(plan);
+
+        Assertions.assertThat(solution.getScore().isFeasible()).isTrue();
+        Assertions.assertThat(solution.getVehicles().stream().flatMap(vehicle -> vehicle.getVisits().stream()))
+                .extracting(Visit::getId)
+                .containsExactlyInAnyOrderElementsOf(visits.stream().map(Visit::getId).toList());
+    }
+}
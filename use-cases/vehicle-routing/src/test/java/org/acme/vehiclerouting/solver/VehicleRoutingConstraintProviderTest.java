@@ -1,13 +1,19 @@
 package org.acme.vehiclerouting.solver;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.Arrays;
+import java.util.List;
 
 import jakarta.inject.Inject;
 
+import ai.timefold.solver.core.api.score.analysis.ConstraintAnalysis;
+import ai.timefold.solver.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+import ai.timefold.solver.core.api.solver.SolutionManager;
 import ai.timefold.solver.test.api.score.stream.ConstraintVerifier;
 
 import org.acme.vehiclerouting.domain.Location;
@@ -15,6 +21,7 @@ import org.acme.vehiclerouting.domain.Vehicle;
 import org.acme.vehiclerouting.domain.VehicleRoutePlan;
 import org.acme.vehiclerouting.domain.Visit;
 import org.acme.vehiclerouting.domain.geo.HaversineDrivingTimeCalculator;
+import org.acme.vehiclerouting.solver.justifications.VehicleCapacityJustification;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
@@ -35,6 +42,8 @@ class VehicleRoutingConstraintProviderTest {
     private static final LocalDate TOMORROW = LocalDate.now().plusDays(1);
     @Inject
     ConstraintVerifier<VehicleRoutingConstraintProvider, VehicleRoutePlan> constraintVerifier;
+    @Inject
+    SolutionManager<VehicleRoutePlan, HardSoftLongScore> solutionManager;
 
     @BeforeAll
     static void initDrivingTimeMaps() {
@@ -48,7 +57,8 @@ class VehicleRoutingConstraintProviderTest {
         LocalDateTime tomorrow_10_00 = LocalDateTime.of(TOMORROW, LocalTime.of(10, 0));
         Vehicle vehicleA = new Vehicle("1", 100, LOCATION_1, tomorrow_07_00);
         Visit visit1 = new Visit("2", "John", LOCATION_2, 80, tomorrow_08_00, tomorrow_10_00, Duration.ofMinutes(30L));
-        vehicleA.getVisits().add(visit1);
+
+        connect(vehicleA, visit1);
 
         constraintVerifier.verifyThat(VehicleRoutingConstraintProvider::vehicleCapacity)
                 .given(vehicleA, visit1)
@@ -62,15 +72,37 @@ class VehicleRoutingConstraintProviderTest {
         LocalDateTime tomorrow_10_00 = LocalDateTime.of(TOMORROW, LocalTime.of(10, 0));
         Vehicle vehicleA = new Vehicle("1", 100, LOCATION_1, tomorrow_07_00);
         Visit visit1 = new Visit("2", "John", LOCATION_2, 80, tomorrow_08_00, tomorrow_10_00, Duration.ofMinutes(30L));
-        vehicleA.getVisits().add(visit1);
         Visit visit2 = new Visit("3", "Paul", LOCATION_3, 40, tomorrow_08_00, tomorrow_10_00, Duration.ofMinutes(30L));
-        vehicleA.getVisits().add(visit2);
+
+        connect(vehicleA, visit1, visit2);
 
         constraintVerifier.verifyThat(VehicleRoutingConstraintProvider::vehicleCapacity)
                 .given(vehicleA, visit1, visit2)
                 .penalizesBy(20);
     }
 
+    @Test
+    void vehicleCapacityJustification() {
+        LocalDateTime tomorrow_07_00 = LocalDateTime.of(TOMORROW, LocalTime.of(7, 0));
+        LocalDateTime tomorrow_08_00 = LocalDateTime.of(TOMORROW, LocalTime.of(8, 0));
+        LocalDateTime tomorrow_10_00 = LocalDateTime.of(TOMORROW, LocalTime.of(10, 0));
+        Vehicle vehicleA = new Vehicle("1", 100, LOCATION_1, tomorrow_07_00);
+        Visit visit1 = new Visit("2", "John", LOCATION_2, 80, tomorrow_08_00, tomorrow_10_00, Duration.ofMinutes(30L));
+        Visit visit2 = new Visit("3", "Paul", LOCATION_3, 40, tomorrow_08_00, tomorrow_10_00, Duration.ofMinutes(30L));
+        VehicleRoutePlan plan = new VehicleRoutePlan("test", null, null, tomorrow_07_00, tomorrow_07_00.plusDays(1),
+                List.of(vehicleA), List.of(visit1, visit2));
+        vehicleA.getVisits().addAll(List.of(visit1, visit2));
+
+        ConstraintAnalysis<HardSoftLongScore> vehicleCapacityAnalysis = solutionManager.analyze(plan)
+                .getConstraintAnalysis(VehicleRoutePlan.class.getPackageName(),
+                        VehicleRoutingConstraintProvider.VEHICLE_CAPACITY);
+        VehicleCapacityJustification justification =
+                (VehicleCapacityJustification) vehicleCapacityAnalysis.matches().get(0).justification();
+        assertEquals(100, justification.capacity());
+        assertEquals(120, justification.demand());
+        assertEquals("Vehicle '1' exceeded its max capacity by 20.", justification.description());
+    }
+
     @Test
     void totalDrivingTime() {
         LocalDateTime tomorrow_07_00 = LocalDateTime.of(TOMORROW, LocalTime.of(7, 0));
@@ -78,9 +110,9 @@ class VehicleRoutingConstraintProviderTest {
         LocalDateTime tomorrow_10_00 = LocalDateTime.of(TOMORROW, LocalTime.of(10, 0));
         Vehicle vehicleA = new Vehicle("1", 100, LOCATION_1, tomorrow_07_00);
         Visit visit1 = new Visit("2", "John", LOCATION_2, 80, tomorrow_08_00, tomorrow_10_00, Duration.ofMinutes(30L));
-        vehicleA.getVisits().add(visit1);
         Visit visit2 = new Visit("3", "Paul", LOCATION_3, 40, tomorrow_08_00, tomorrow_10_00, Duration.ofMinutes(30L));
-        vehicleA.getVisits().add(visit2);
+
+        connect(vehicleA, visit1, visit2);
 
         constraintVerifier.verifyThat(VehicleRoutingConstraintProvider::minimizeTravelTime)
                 .given(vehicleA, visit1, visit2)
@@ -121,5 +153,6 @@ class VehicleRoutingConstraintProviderTest {
                 visit.setNextVisit(visits[i + 1]);
             }
         }
+        VehicleTotalsUpdatingVariableListener.updateTotals(vehicle);
     }
 }